@@ -1,10 +1,22 @@
 package com.github.punnfect.workout_tracker.config;
 
 import com.github.punnfect.workout_tracker.entities.*;
+import com.github.punnfect.workout_tracker.repository.BodyMetricsRepo;
+import com.github.punnfect.workout_tracker.repository.CardioDailyProgressRepo;
 import com.github.punnfect.workout_tracker.repository.CardioListRepo;
+import com.github.punnfect.workout_tracker.repository.CardioSessionRepo;
+import com.github.punnfect.workout_tracker.repository.ExerciseDailyProgressRepo;
 import com.github.punnfect.workout_tracker.repository.ExerciseListRepo;
+import com.github.punnfect.workout_tracker.repository.ExercisePersonalRecordRepo;
+import com.github.punnfect.workout_tracker.repository.ExerciseSetRepo;
 import com.github.punnfect.workout_tracker.repository.UserRepo;
+import com.github.punnfect.workout_tracker.repository.WorkoutDocumentRepo;
 import com.github.punnfect.workout_tracker.repository.WorkoutRepo;
+import com.github.punnfect.workout_tracker.services.BodyMetricsService;
+import com.github.punnfect.workout_tracker.services.CardioRollupService;
+import com.github.punnfect.workout_tracker.services.ProgressRollupService;
+import com.github.punnfect.workout_tracker.services.WorkoutDetailsService;
+import com.github.punnfect.workout_tracker.services.WorkoutSearchService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
@@ -32,13 +44,43 @@ public class DataInitializer implements CommandLineRunner {
     private final ExerciseListRepo exerciseListRepo;
     private final CardioListRepo cardioListRepo;
     private final WorkoutRepo workoutRepo;
+    private final ExerciseSetRepo exerciseSetRepo;
+    private final ExerciseDailyProgressRepo dailyProgressRepo;
+    private final ExercisePersonalRecordRepo personalRecordRepo;
+    private final ProgressRollupService progressRollupService;
+    private final CardioSessionRepo cardioSessionRepo;
+    private final CardioDailyProgressRepo cardioDailyProgressRepo;
+    private final CardioRollupService cardioRollupService;
+    private final BodyMetricsRepo bodyMetricsRepo;
+    private final BodyMetricsService bodyMetricsService;
+    private final WorkoutDocumentRepo workoutDocumentRepo;
+    private final WorkoutDetailsService workoutDetailsService;
+    private final WorkoutSearchService workoutSearchService;
 
-    public DataInitializer(UserRepo userRepo, PasswordEncoder passwordEncoder, ExerciseListRepo exerciseListRepo, CardioListRepo cardioListRepo,  WorkoutRepo workoutRepo) {
+    public DataInitializer(UserRepo userRepo, PasswordEncoder passwordEncoder, ExerciseListRepo exerciseListRepo, CardioListRepo cardioListRepo,  WorkoutRepo workoutRepo,
+                           ExerciseSetRepo exerciseSetRepo, ExerciseDailyProgressRepo dailyProgressRepo, ExercisePersonalRecordRepo personalRecordRepo,
+                           ProgressRollupService progressRollupService, CardioSessionRepo cardioSessionRepo,
+                           CardioDailyProgressRepo cardioDailyProgressRepo, CardioRollupService cardioRollupService,
+                           BodyMetricsRepo bodyMetricsRepo, BodyMetricsService bodyMetricsService,
+                           WorkoutDocumentRepo workoutDocumentRepo, WorkoutDetailsService workoutDetailsService,
+                           WorkoutSearchService workoutSearchService) {
         this.userRepo = userRepo;
         this.passwordEncoder = passwordEncoder;
         this.exerciseListRepo = exerciseListRepo;
         this.cardioListRepo = cardioListRepo;
         this.workoutRepo = workoutRepo;
+        this.exerciseSetRepo = exerciseSetRepo;
+        this.dailyProgressRepo = dailyProgressRepo;
+        this.personalRecordRepo = personalRecordRepo;
+        this.progressRollupService = progressRollupService;
+        this.cardioSessionRepo = cardioSessionRepo;
+        this.cardioDailyProgressRepo = cardioDailyProgressRepo;
+        this.cardioRollupService = cardioRollupService;
+        this.bodyMetricsRepo = bodyMetricsRepo;
+        this.bodyMetricsService = bodyMetricsService;
+        this.workoutDocumentRepo = workoutDocumentRepo;
+        this.workoutDetailsService = workoutDetailsService;
+        this.workoutSearchService = workoutSearchService;
     }
 
     @Override
@@ -61,6 +103,42 @@ public class DataInitializer implements CommandLineRunner {
             log.info("Users already exist in the database. Skipping initial user creation.");
         }
 
+        // --- Backfill Progress Rollup ---
+        // sets logged before the rollup tables existed have no daily or PR rows yet
+        if ((dailyProgressRepo.count() == 0 || personalRecordRepo.count() == 0) && exerciseSetRepo.count() > 0) {
+            log.info("Progress rollup is empty but exercise sets exist. Rebuilding daily progress and personal records.");
+            progressRollupService.rebuildAll();
+        } else if (dailyProgressRepo.existsBySetCountGreaterThanAndWeekStartIsNull(0)) {
+            // rows written before total_volume/week_start/month_start existed can't be summed into weekly or monthly volume
+            log.info("Progress rollup predates the volume columns. Rebuilding daily progress and personal records.");
+            progressRollupService.rebuildAll();
+        }
+
+        // sessions logged before the cardio rollup existed
+        if (cardioDailyProgressRepo.count() == 0 && cardioSessionRepo.count() > 0) {
+            log.info("Cardio rollup is empty but cardio sessions exist. Rebuilding cardio daily progress and records.");
+            cardioRollupService.rebuildAll();
+        }
+
+        // body metrics logged before the stored rolling averages existed
+        if (bodyMetricsRepo.existsByWeightLbsIsNotNullAndAverage7DayLbsIsNull()) {
+            log.info("Body metrics are missing rolling averages. Rebuilding them.");
+            bodyMetricsService.rebuildAverages();
+        }
+
+        // workouts saved before the document store existed, or whose document was dropped by a set delete
+        List<Long> undocumentedUsers = workoutDocumentRepo.findUsersWithUndocumentedWorkouts();
+        if (!undocumentedUsers.isEmpty()) {
+            log.info("Workouts without a stored document found for {} users. Building them.", undocumentedUsers.size());
+            undocumentedUsers.forEach(workoutDetailsService::backfillDocuments);
+        }
+
+        // a new, in memory or out of date search index (e.g. workouts changed while the app was down)
+        long workoutCount = workoutRepo.count();
+        if (workoutSearchService.indexedCount() != workoutCount) {
+            log.info("Search index holds {} of {} workouts. Rebuilding it.", workoutSearchService.indexedCount(), workoutCount);
+            workoutSearchService.rebuild(null);
+        }
 
     }
 
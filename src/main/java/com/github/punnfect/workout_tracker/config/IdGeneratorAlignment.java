@@ -0,0 +1,68 @@
+package com.github.punnfect.workout_tracker.config;
+
+import com.github.punnfect.workout_tracker.entities.IdGenerators;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/*
+Moves the id generator rows past any ids that already exist.
+Rows written while the tables used IDENTITY columns keep their ids, new rows
+are handed blocks that start after the current max id.
+Runs before any other startup runner writes data.
+*/
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class IdGeneratorAlignment implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorAlignment.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdGeneratorAlignment(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        align(IdGenerators.WORKOUTS, "workouts", "workout_id");
+        align(IdGenerators.EXERCISE_SETS, "exercise_sets", "set_id");
+        align(IdGenerators.CARDIO_SESSIONS, "cardio_sessions", "cardio_session_id");
+        align(IdGenerators.EXERCISE_DAILY_PROGRESS, "exercise_daily_progress", "daily_progress_id");
+        align(IdGenerators.EXERCISE_PERSONAL_RECORDS, "exercise_personal_records", "personal_record_id");
+        align(IdGenerators.CARDIO_DAILY_PROGRESS, "cardio_daily_progress", "cardio_daily_progress_id");
+        align(IdGenerators.CARDIO_PERSONAL_RECORDS, "cardio_personal_records", "cardio_record_id");
+        align(IdGenerators.BODY_METRICS, "body_metrics", "metric_id");
+        align(IdGenerators.WORKOUT_EVENTS, "workout_event_outbox", "outbox_id");
+    }
+
+    // the pooled optimizer hands out (next_val - allocation, next_val], so next_val must clear max id by a full block
+    private void align(String segment, String table, String idColumn) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table, Long.class);
+        long required = maxId + IdGenerators.ALLOCATION_SIZE + 1;
+
+        int updated = jdbcTemplate.update(
+                "UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN + " = ? WHERE "
+                        + IdGenerators.NAME_COLUMN + " = ? AND " + IdGenerators.VALUE_COLUMN + " < ?",
+                required, segment, required);
+
+        if (updated > 0) {
+            log.info("Moved id generator '{}' to {} (max existing id {}).", segment, required, maxId);
+            return;
+        }
+
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + IdGenerators.TABLE + " WHERE " + IdGenerators.NAME_COLUMN + " = ?",
+                Integer.class, segment);
+        if (rows == 0) {
+            jdbcTemplate.update(
+                    "INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.NAME_COLUMN + ", " + IdGenerators.VALUE_COLUMN + ") VALUES (?, ?)",
+                    segment, required);
+            log.info("Created id generator '{}' starting at {} (max existing id {}).", segment, required, maxId);
+        }
+    }
+}
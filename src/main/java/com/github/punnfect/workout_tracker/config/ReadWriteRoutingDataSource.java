@@ -0,0 +1,127 @@
+package com.github.punnfect.workout_tracker.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+Sends @Transactional(readOnly = true) work to the replica pool and everything else to the primary.
+Must sit behind a LazyConnectionDataSourceProxy, the transaction only knows it is read only once it has
+begun, so the physical connection has to be picked at the first statement rather than at begin.
+
+Read your writes: after a read-write transaction commits, that user's reads stay on the primary for
+maxLag (how far the replica is allowed to trail), so a page loaded right after a save never shows the old data.
+Background work for a user (imports, workout event handlers) runs as that user, so its commits count as theirs.
+Only commits without an authenticated user (startup seeding, catalog changes) pin everyone's reads for the window.
+A replica that refuses connections is skipped in favour of the primary for the next maxLag as well.
+*/
+class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    enum Route { PRIMARY, REPLICA }
+
+    // key used for commits made outside a request
+    private static final String SYSTEM_WRITER = "";
+
+    private final DataSource primary;
+    private final long maxLagNanos;
+
+    // writer -> System.nanoTime() of its last commit, entries older than maxLag are dropped when read
+    // and swept on commit (see recordCommit), so it only holds writers from about the last two windows
+    private final Map<String, Long> lastCommitByWriter = new ConcurrentHashMap<>();
+
+    // System.nanoTime() of the last sweep of lastCommitByWriter
+    private volatile long sweptAt = System.nanoTime();
+
+    // System.nanoTime() of the last failed replica connection, 0 while the replica is healthy
+    private volatile long replicaFailedAt;
+
+    ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag) {
+        this.primary = primary;
+        this.maxLagNanos = maxLag.toNanos();
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+
+        String writer = currentWriter();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recordCommit(writer);
+                }
+            });
+            return Route.PRIMARY;
+        }
+
+        return wroteRecently(writer) || wroteRecently(SYSTEM_WRITER) ? Route.PRIMARY : Route.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == primary) {
+            return target.getConnection();
+        }
+        if (replicaFailedAt != 0 && System.nanoTime() - replicaFailedAt < maxLagNanos) {
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = target.getConnection();
+            replicaFailedAt = 0;
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            // Hikari reports a pool that cannot start as a RuntimeException
+            replicaFailedAt = System.nanoTime();
+            log.warn("Replica unavailable, reading from the primary instead: {}", e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    // a writer that never reads again would otherwise keep its entry forever,
+    // expired entries are swept at most once per maxLag so a commit stays cheap
+    private void recordCommit(String writer) {
+        long now = System.nanoTime();
+        lastCommitByWriter.put(writer, now);
+        if (now - sweptAt >= maxLagNanos) {
+            sweptAt = now;
+            lastCommitByWriter.values().removeIf(committedAt -> now - committedAt >= maxLagNanos);
+        }
+    }
+
+    private boolean wroteRecently(String writer) {
+        Long committedAt = lastCommitByWriter.get(writer);
+        if (committedAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - committedAt < maxLagNanos) {
+            return true;
+        }
+        lastCommitByWriter.remove(writer, committedAt);
+        return false;
+    }
+
+    private static String currentWriter() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? SYSTEM_WRITER : authentication.getName();
+    }
+}
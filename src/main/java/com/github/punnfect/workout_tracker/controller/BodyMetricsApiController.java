@@ -0,0 +1,55 @@
+package com.github.punnfect.workout_tracker.controller;
+
+import com.github.punnfect.workout_tracker.dto.BodyMetricsIngestDto;
+import com.github.punnfect.workout_tracker.dto.BodyMetricsPointDto;
+import com.github.punnfect.workout_tracker.dto.BodyMetricsRow;
+import com.github.punnfect.workout_tracker.dto.BodyMetricsSeriesDto;
+import com.github.punnfect.workout_tracker.services.BodyMetricsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Body weight entries and their rolling averages, bulk writes are upserts keyed by date
+@RestController
+@RequestMapping("/api/body-metrics")
+public class BodyMetricsApiController {
+
+    private final BodyMetricsService bodyMetricsService;
+
+    public BodyMetricsApiController(BodyMetricsService bodyMetricsService) {
+        this.bodyMetricsService = bodyMetricsService;
+    }
+
+    // entries for a range, timeRange wins over explicit dates like the progress API
+    @GetMapping
+    public BodyMetricsSeriesDto getSeries(
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "timeRange", required = false) String timeRange) {
+
+        ChartRange range = ChartRange.of(timeRange, startDate, endDate);
+
+        return bodyMetricsService.getSeries(range.startDate(), range.endDate());
+    }
+
+    // newest entry with its 7 and 30 day averages, 404 before the first entry
+    @GetMapping("/latest")
+    public ResponseEntity<BodyMetricsPointDto> getLatest() {
+        return ResponseEntity.of(bodyMetricsService.getLatest());
+    }
+
+    // bulk upsert, a JSON array in the same shape as the body metrics export
+    @PostMapping
+    public BodyMetricsIngestDto ingest(@RequestBody List<BodyMetricsRow> rows) {
+        return bodyMetricsService.ingest(rows);
+    }
+
+    @DeleteMapping("/{date}")
+    public ResponseEntity<Void> deleteEntry(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        bodyMetricsService.deleteEntry(date);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.punnfect.workout_tracker.controller;
+
+import com.github.punnfect.workout_tracker.dto.CardioProgressDto;
+import com.github.punnfect.workout_tracker.dto.CardioStatsDto;
+import com.github.punnfect.workout_tracker.dto.CardioTrendDto;
+import com.github.punnfect.workout_tracker.services.CardioProgressService;
+import com.github.punnfect.workout_tracker.services.VolumePeriod;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+// JSON cardio progress: daily series, best efforts and weekly/monthly trends per activity
+@RestController
+@RequestMapping("/api/cardio")
+public class CardioApiController {
+
+    private final CardioProgressService cardioProgressService;
+
+    public CardioApiController(CardioProgressService cardioProgressService) {
+        this.cardioProgressService = cardioProgressService;
+    }
+
+    // daily points and stats for one activity, timeRange wins over explicit dates like the progress API
+    @GetMapping("/{cardioId}")
+    public CardioProgressDto getProgress(
+            @PathVariable Long cardioId,
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "timeRange", required = false) String timeRange) {
+
+        ChartRange range = ChartRange.of(timeRange, startDate, endDate);
+
+        return cardioProgressService.getCardioProgress(cardioId, range.startDate(), range.endDate());
+    }
+
+    // all time best efforts and totals
+    @GetMapping("/{cardioId}/stats")
+    public CardioStatsDto getStats(@PathVariable Long cardioId) {
+        return cardioProgressService.getCardioStats(cardioId);
+    }
+
+    // weekly or monthly totals, period is week or month
+    @GetMapping("/{cardioId}/trends")
+    public CardioTrendDto getTrend(
+            @PathVariable Long cardioId,
+            @RequestParam(value = "period", required = false) String period,
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "timeRange", required = false) String timeRange) {
+
+        ChartRange range = ChartRange.of(timeRange, startDate, endDate);
+
+        return cardioProgressService.getCardioTrend(cardioId, VolumePeriod.of(period), range.startDate(), range.endDate());
+    }
+}
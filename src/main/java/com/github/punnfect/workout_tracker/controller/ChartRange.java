@@ -0,0 +1,28 @@
+package com.github.punnfect.workout_tracker.controller;
+
+import java.time.LocalDate;
+
+// Date range of a chart request, a timeRange preset (1month ... alltime) wins over explicit dates and ends today
+record ChartRange(LocalDate startDate, LocalDate endDate) {
+
+    static ChartRange of(String timeRange, LocalDate startDate, LocalDate endDate) {
+        if (timeRange == null || timeRange.isEmpty()) {
+            return new ChartRange(startDate, endDate);
+        }
+        LocalDate today = LocalDate.now();
+        return new ChartRange(startOf(timeRange, today), today);
+    }
+
+    // start date of a preset ending on endDate, null for all time, unknown presets fall back to three months
+    private static LocalDate startOf(String timeRange, LocalDate endDate) {
+        return switch (timeRange) {
+            case "1month" -> endDate.minusMonths(1);
+            case "3months" -> endDate.minusMonths(3);
+            case "6months" -> endDate.minusMonths(6);
+            case "9months" -> endDate.minusMonths(9);
+            case "1year" -> endDate.minusYears(1);
+            case "alltime" -> null;
+            default -> endDate.minusMonths(3);
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.punnfect.workout_tracker.controller;
+
+import com.github.punnfect.workout_tracker.services.DataFormat;
+import com.github.punnfect.workout_tracker.services.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+// Downloads of the users full history as CSV or NDJSON, optionally gzipped
+@RestController
+@RequestMapping("/export")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/workouts")
+    public ResponseEntity<StreamingResponseBody> exportWorkouts(@RequestParam(value = "format", defaultValue = "csv") String format,
+                                                                @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        DataFormat dataFormat = DataFormat.of(format);
+        return download("workouts", dataFormat, gzip, exportService.exportWorkouts(dataFormat, gzip));
+    }
+
+    @GetMapping("/body-metrics")
+    public ResponseEntity<StreamingResponseBody> exportBodyMetrics(@RequestParam(value = "format", defaultValue = "csv") String format,
+                                                                   @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        DataFormat dataFormat = DataFormat.of(format);
+        return download("body-metrics", dataFormat, gzip, exportService.exportBodyMetrics(dataFormat, gzip));
+    }
+
+    // gzipped exports are served as .gz files rather than Content-Encoding, so they stay compressed on disk
+    private ResponseEntity<StreamingResponseBody> download(String name, DataFormat format, boolean gzip, StreamingResponseBody body) {
+        String fileName = name + "-" + LocalDate.now() + "." + format.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+}
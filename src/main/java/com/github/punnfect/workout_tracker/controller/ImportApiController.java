@@ -0,0 +1,37 @@
+package com.github.punnfect.workout_tracker.controller;
+
+import com.github.punnfect.workout_tracker.dto.ImportJobDto;
+import com.github.punnfect.workout_tracker.services.ImportService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URI;
+
+// Bulk import of workout history, the upload is processed in the background and polled for progress
+@RestController
+@RequestMapping("/api/import")
+public class ImportApiController {
+
+    private final ImportService importService;
+
+    public ImportApiController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    // accepts a CSV or NDJSON file, format defaults to the file extension
+    @PostMapping
+    public ResponseEntity<ImportJobDto> startImport(@RequestParam("file") MultipartFile file,
+                                                    @RequestParam(value = "format", required = false) String format) {
+        ImportJobDto job = importService.startImport(file, format);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/import/" + job.getId()))
+                .body(job);
+    }
+
+    // progress of an import started by the current user
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ImportJobDto> getImport(@PathVariable String jobId) {
+        return ResponseEntity.of(importService.getJob(jobId));
+    }
+}
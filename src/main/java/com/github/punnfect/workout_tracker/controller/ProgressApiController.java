@@ -0,0 +1,78 @@
+package com.github.punnfect.workout_tracker.controller;
+
+import com.github.punnfect.workout_tracker.dto.ExerciseProgressDeltaDto;
+import com.github.punnfect.workout_tracker.dto.ExerciseProgressDto;
+import com.github.punnfect.workout_tracker.services.ProgressService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+
+// JSON progress data used by progress.js, repeat views are answered with 304 from the ETag alone
+@RestController
+@RequestMapping("/api/progress")
+public class ProgressApiController {
+
+    private final ProgressService progressService;
+
+    public ProgressApiController(ProgressService progressService) {
+        this.progressService = progressService;
+    }
+
+    // points and stats for one exercise, timeRange wins over explicit dates like on the progress page
+    // maxPoints downsamples long series so the payload stays bounded
+    @GetMapping("/{exerciseId}")
+    public ResponseEntity<ExerciseProgressDto> getProgress(
+            @PathVariable Long exerciseId,
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "timeRange", required = false) String timeRange,
+            @RequestParam(value = "maxPoints", required = false) Integer maxPoints,
+            WebRequest webRequest) {
+        checkMaxPoints(maxPoints);
+
+        ChartRange range = ChartRange.of(timeRange, startDate, endDate);
+
+        String eTag = progressService.getProgressETag(exerciseId, range.startDate(), range.endDate(), maxPoints);
+        if (webRequest.checkNotModified(eTag)) {
+            // 304, the aggregation is skipped entirely
+            return null;
+        }
+
+        ExerciseProgressDto progress = progressService.getExerciseProgress(exerciseId, range.startDate(), range.endDate(), maxPoints);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(eTag)
+                .body(progress);
+    }
+
+    // changes to the all time series since the client's cached version, stats follow the requested range
+    @GetMapping("/{exerciseId}/delta")
+    public ExerciseProgressDeltaDto getProgressDelta(
+            @PathVariable Long exerciseId,
+            @RequestParam(value = "since", required = false) String since,
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "timeRange", required = false) String timeRange,
+            @RequestParam(value = "maxPoints", required = false) Integer maxPoints) {
+        checkMaxPoints(maxPoints);
+
+        ChartRange range = ChartRange.of(timeRange, startDate, endDate);
+
+        return progressService.getExerciseProgressDelta(exerciseId, since, range.startDate(), range.endDate(), maxPoints);
+    }
+
+    // a series can't be sampled below first, last and one bucket, rejected with a 400 (see ApiExceptionHandler)
+    private static void checkMaxPoints(Integer maxPoints) {
+        if (maxPoints != null && maxPoints < ProgressService.MIN_MAX_POINTS) {
+            throw new IllegalArgumentException("maxPoints must be at least " + ProgressService.MIN_MAX_POINTS);
+        }
+    }
+}
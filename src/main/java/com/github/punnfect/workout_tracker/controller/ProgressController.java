@@ -1,9 +1,7 @@
 package com.github.punnfect.workout_tracker.controller;
 
-import com.github.punnfect.workout_tracker.dto.ExerciseProgressDto;
-import com.github.punnfect.workout_tracker.entities.ExerciseList;
+import com.github.punnfect.workout_tracker.dto.CatalogEntryDto;
 import com.github.punnfect.workout_tracker.services.ExerciseService;
-import com.github.punnfect.workout_tracker.services.ProgressService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,15 +13,13 @@ import java.util.List;
 @Controller
 public class ProgressController {
 
-    private final ProgressService progressService;
     private final ExerciseService exerciseService;
 
-    public ProgressController(ProgressService progressService, ExerciseService exerciseService) {
-        this.progressService = progressService;
+    public ProgressController(ExerciseService exerciseService) {
         this.exerciseService = exerciseService;
     }
 
-    // progress tracking page
+    // progress tracking page, the chart data itself is fetched by progress.js from /api/progress
     @GetMapping("/progress")
     public String showProgressPage(
             @RequestParam(value = "exerciseId", required = false) Long exerciseId,
@@ -33,47 +29,15 @@ public class ProgressController {
             Model model) {
 
         // Get all exercises for the dropdown
-        List<ExerciseList> allExercises = exerciseService.getAllExercises();
+        List<CatalogEntryDto> allExercises = exerciseService.getAllExercises();
         model.addAttribute("allExercises", allExercises);
 
-        // If an exercise is selected, fetch and display progress data
-        if (exerciseId != null) {
-
-            try {
-
-                if (timeRange != null && !timeRange.isEmpty()) {
-                    endDate = LocalDate.now();
-                    startDate = calculateStartDateFromRange(timeRange, endDate);
-                }
-
-                // Fetch progress data
-                ExerciseProgressDto progressData = progressService.getExerciseProgress(
-                        exerciseId, startDate, endDate);
-
-                model.addAttribute("progressData", progressData);
-                model.addAttribute("selectedExerciseId", exerciseId);
-                model.addAttribute("startDate", startDate);
-                model.addAttribute("endDate", endDate);
-                model.addAttribute("selectedTimeRange", timeRange);
-
-            } catch (Exception e) {
-                model.addAttribute("error", "Failed to load progress data: " + e.getMessage());
-            }
-        }
+        // Keep the selection so the form is filled in and progress.js can load it
+        model.addAttribute("selectedExerciseId", exerciseId);
+        model.addAttribute("startDate", startDate);
+        model.addAttribute("endDate", endDate);
+        model.addAttribute("selectedTimeRange", timeRange);
 
         return "progress";
     }
-
-    // helper for set date ranges
-    private LocalDate calculateStartDateFromRange(String timeRange, LocalDate endDate) {
-        return switch (timeRange) {
-            case "1month" -> endDate.minusMonths(1);
-            case "3months" -> endDate.minusMonths(3);
-            case "6months" -> endDate.minusMonths(6);
-            case "9months" -> endDate.minusMonths(9);
-            case "1year" -> endDate.minusYears(1);
-            case "alltime" -> null;
-            default -> endDate.minusMonths(3);
-        };
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package com.github.punnfect.workout_tracker.controller;
+
+import com.github.punnfect.workout_tracker.dto.VolumeReportDto;
+import com.github.punnfect.workout_tracker.services.VolumePeriod;
+import com.github.punnfect.workout_tracker.services.VolumeService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+// Weekly/monthly training volume used by the volume chart on the progress page
+@RestController
+@RequestMapping("/api/volume")
+public class VolumeApiController {
+
+    private final VolumeService volumeService;
+
+    public VolumeApiController(VolumeService volumeService) {
+        this.volumeService = volumeService;
+    }
+
+    // volume of one exercise, period is week or month
+    @GetMapping("/exercises/{exerciseId}")
+    public VolumeReportDto getExerciseVolume(
+            @PathVariable Long exerciseId,
+            @RequestParam(value = "period", required = false) String period,
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "timeRange", required = false) String timeRange) {
+
+        ChartRange range = ChartRange.of(timeRange, startDate, endDate);
+
+        return volumeService.getExerciseVolume(exerciseId, VolumePeriod.of(period), range.startDate(), range.endDate());
+    }
+
+    // volume of every muscle group over the same range
+    @GetMapping("/muscle-groups")
+    public VolumeReportDto getMuscleGroupVolume(
+            @RequestParam(value = "period", required = false) String period,
+            @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(value = "timeRange", required = false) String timeRange) {
+
+        ChartRange range = ChartRange.of(timeRange, startDate, endDate);
+
+        return volumeService.getMuscleGroupVolume(VolumePeriod.of(period), range.startDate(), range.endDate());
+    }
+}
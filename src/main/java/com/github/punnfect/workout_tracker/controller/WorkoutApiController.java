@@ -0,0 +1,51 @@
+package com.github.punnfect.workout_tracker.controller;
+
+import com.github.punnfect.workout_tracker.dto.WorkoutHistoryPageDto;
+import com.github.punnfect.workout_tracker.dto.WorkoutSummaryDto;
+import com.github.punnfect.workout_tracker.services.CurrentUserService;
+import com.github.punnfect.workout_tracker.services.WorkoutSearchService;
+import com.github.punnfect.workout_tracker.services.WorkoutService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// JSON endpoints used by home.js
+@RestController
+@RequestMapping("/api/workouts")
+public class WorkoutApiController {
+
+    private final WorkoutService workoutService;
+    private final WorkoutSearchService workoutSearchService;
+    private final CurrentUserService currentUserService;
+
+    public WorkoutApiController(WorkoutService workoutService, WorkoutSearchService workoutSearchService,
+                                CurrentUserService currentUserService) {
+        this.workoutService = workoutService;
+        this.workoutSearchService = workoutSearchService;
+        this.currentUserService = currentUserService;
+    }
+
+    // next page of workout history after the given (date, id) cursor
+    @GetMapping("/history")
+    public WorkoutHistoryPageDto getHistoryPage(
+            @RequestParam(value = "beforeDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate beforeDate,
+            @RequestParam(value = "beforeId", required = false) Long beforeId,
+            @RequestParam(value = "size", defaultValue = "" + WorkoutService.HISTORY_PAGE_SIZE) int size) {
+        return workoutService.getWorkoutHistoryPage(beforeDate, beforeId, size);
+    }
+
+    // full text search over the current user's titles and notes, optionally within a date range
+    @GetMapping("/search")
+    public List<WorkoutSummaryDto> search(
+            @RequestParam(value = "q", required = false) String q,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "limit", defaultValue = "" + WorkoutSearchService.DEFAULT_LIMIT) int limit) {
+        return workoutSearchService.search(currentUserService.getCurrentUserId(), q, from, to, limit);
+    }
+}
@@ -1,13 +1,14 @@
 package com.github.punnfect.workout_tracker.controller;
 
+import com.github.punnfect.workout_tracker.dto.CatalogEntryDto;
 import com.github.punnfect.workout_tracker.dto.WorkoutCreateDto;
 import com.github.punnfect.workout_tracker.dto.WorkoutDetailsDto;
-import com.github.punnfect.workout_tracker.dto.WorkoutSummaryDto;
-import com.github.punnfect.workout_tracker.entities.CardioList;
-import com.github.punnfect.workout_tracker.entities.ExerciseList;
+import com.github.punnfect.workout_tracker.dto.WorkoutDetailsView;
+import com.github.punnfect.workout_tracker.dto.WorkoutHistoryPageDto;
 import com.github.punnfect.workout_tracker.entities.Workout;
 import com.github.punnfect.workout_tracker.services.CardioService;
 import com.github.punnfect.workout_tracker.services.ExerciseService;
+import com.github.punnfect.workout_tracker.services.WorkoutDetailsService;
 import com.github.punnfect.workout_tracker.services.WorkoutService;
 import jakarta.validation.Valid;
 import org.springframework.stereotype.Controller;
@@ -24,20 +25,24 @@ import java.util.Optional;
 public class WorkoutController {
 
     private final WorkoutService workoutService;
+    private final WorkoutDetailsService workoutDetailsService;
     private final ExerciseService exerciseService;
     private final CardioService cardioService;
 
-    public WorkoutController(WorkoutService workoutService, ExerciseService exerciseService, CardioService cardioService) {
+    public WorkoutController(WorkoutService workoutService, WorkoutDetailsService workoutDetailsService,
+                             ExerciseService exerciseService, CardioService cardioService) {
         this.workoutService = workoutService;
+        this.workoutDetailsService = workoutDetailsService;
         this.exerciseService = exerciseService;
         this.cardioService = cardioService;
     }
 
-    // Display home page with list of all users workout summaries
+    // Display home page with the first page of the users workout summaries, the rest load on scroll
     @GetMapping("/")
     public String home(Model model) {
-        List<WorkoutSummaryDto> workouts = workoutService.getWorkoutHistoryForCurrentUser();
-        model.addAttribute("workouts", workouts);
+        WorkoutHistoryPageDto historyPage = workoutService.getWorkoutHistoryPage(null, null, WorkoutService.HISTORY_PAGE_SIZE);
+        model.addAttribute("workouts", historyPage.getWorkouts());
+        model.addAttribute("historyPage", historyPage);
 
         // Add empty DTO for the form
         if (!model.containsAttribute("workoutCreateDto")) {
@@ -109,7 +114,7 @@ public class WorkoutController {
 
         // Any errors on backend will reload form with error messages
         if (bindingResult.hasErrors()) {
-            Optional<Workout> workoutOpt = workoutService.getWorkoutDetails(workoutId);
+            Optional<WorkoutDetailsView> workoutOpt = workoutDetailsService.getWorkoutDetails(workoutId);
             if (workoutOpt.isPresent()) {
                 model.addAttribute("workout", workoutOpt.get());
                 model.addAttribute("allExercises", exerciseService.getAllExercises());
@@ -125,7 +130,7 @@ public class WorkoutController {
         // Additional validation for time fields
         if (detailsDto.getTimeEnter() != null && detailsDto.getTimeLeave() != null) {
             if (detailsDto.getTimeLeave().isBefore(detailsDto.getTimeEnter())) {
-                Optional<Workout> workoutOpt = workoutService.getWorkoutDetails(workoutId);
+                Optional<WorkoutDetailsView> workoutOpt = workoutDetailsService.getWorkoutDetails(workoutId);
                 if (workoutOpt.isPresent()) {
                     model.addAttribute("workout", workoutOpt.get());
                     model.addAttribute("allExercises", exerciseService.getAllExercises());
@@ -150,7 +155,7 @@ public class WorkoutController {
 
         } catch (Exception e) {
             model.addAttribute("error", "Failed to save workout: " + e.getMessage());
-            Optional<Workout> workoutOpt = workoutService.getWorkoutDetails(workoutId);
+            Optional<WorkoutDetailsView> workoutOpt = workoutDetailsService.getWorkoutDetails(workoutId);
             if (workoutOpt.isPresent()) {
                 model.addAttribute("workout", workoutOpt.get());
                 model.addAttribute("allExercises", exerciseService.getAllExercises());
@@ -165,22 +170,27 @@ public class WorkoutController {
     public String showAddWorkoutDetailsForm(@PathVariable("id") Long id,
                                             Model model,
                                             RedirectAttributes redirectAttributes) {
-        Optional<Workout> workoutOpt = workoutService.getWorkoutDetails(id);
+        Optional<WorkoutDetailsView> workoutOpt = workoutDetailsService.getWorkoutDetails(id);
 
         if (workoutOpt.isEmpty()) {
             redirectAttributes.addFlashAttribute("error", "Workout not found");
             return "redirect:/";
         }
 
-        List<ExerciseList> allExercises = exerciseService.getAllExercises();
-        List<CardioList> allCardio = cardioService.getAllCardioActivities();
+        List<CatalogEntryDto> allExercises = exerciseService.getAllExercises();
+        List<CatalogEntryDto> allCardio = cardioService.getAllCardioActivities();
 
         model.addAttribute("workout", workoutOpt.get());
         model.addAttribute("allExercises", allExercises);
         model.addAttribute("allCardio", allCardio);
 
+        // Start from what is already saved, the save replaces the workout's sets with what the form submits
         if (!model.containsAttribute("detailsDto")) {
-            model.addAttribute("detailsDto", new WorkoutDetailsDto());
+            WorkoutDetailsDto detailsDto = new WorkoutDetailsDto();
+            detailsDto.setTimeEnter(workoutOpt.get().getTimeEnter());
+            detailsDto.setTimeLeave(workoutOpt.get().getTimeLeave());
+            detailsDto.setWorkoutNotes(workoutOpt.get().getNotes());
+            model.addAttribute("detailsDto", detailsDto);
         }
 
         return "addWorkout";
@@ -191,7 +201,7 @@ public class WorkoutController {
     public String viewWorkout(@PathVariable("id") Long id,
                               Model model,
                               RedirectAttributes redirectAttributes) {
-        Optional<Workout> workoutOpt = workoutService.getWorkoutDetails(id);
+        Optional<WorkoutDetailsView> workoutOpt = workoutDetailsService.getWorkoutDetails(id);
 
         if (workoutOpt.isEmpty()) {
             redirectAttributes.addFlashAttribute("error", "Workout not found");
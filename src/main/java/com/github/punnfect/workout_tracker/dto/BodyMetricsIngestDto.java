@@ -0,0 +1,12 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// outcome of a body metrics upsert, rows sharing a date count once
+@Data
+@AllArgsConstructor
+public class BodyMetricsIngestDto {
+    private int inserted;
+    private int updated;
+}
@@ -0,0 +1,18 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// one body metrics entry with its trailing 7 and 30 day weight averages
+@Data
+@AllArgsConstructor
+public class BodyMetricsPointDto {
+    private LocalDate date;
+    private BigDecimal weightLbs;
+    private BigDecimal average7DayLbs;
+    private BigDecimal average30DayLbs;
+    private String notes;
+}
@@ -0,0 +1,17 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// body metrics entries for startDate - endDate (both null for all time), latest is the newest entry overall
+@Data
+@AllArgsConstructor
+public class BodyMetricsSeriesDto {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<BodyMetricsPointDto> points;
+    private BodyMetricsPointDto latest;
+}
@@ -0,0 +1,9 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// one GROUP BY row of cardio totals for a week or month
+public record CardioPeriodRow(LocalDate periodStart, Long sessionCount, Long dayCount, BigDecimal totalDistance,
+                              Long totalDurationMinutes, BigDecimal pacedDistance, Long pacedDurationMinutes) {
+}
@@ -0,0 +1,15 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// daily cardio series plus best efforts and totals for the same range
+@Data
+@AllArgsConstructor
+public class CardioProgressDto {
+    private String activityName;
+    private List<CardioProgressPointDto> dataPoints;
+    private CardioStatsDto stats;
+}
@@ -0,0 +1,19 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// one training day of a cardio activity on the trend chart
+@Data
+@AllArgsConstructor
+public class CardioProgressPointDto {
+    private LocalDate date;
+    private int sessionCount;
+    private BigDecimal distance;
+    private Integer durationMinutes;
+    private BigDecimal pace;
+    private BigDecimal bestPace;
+}
@@ -0,0 +1,8 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// the only columns cardio progress needs from a session, selected directly instead of hydrating entities
+public record CardioSessionProgressRow(LocalDate workoutDate, Integer durationMinutes, BigDecimal distance) {
+}
@@ -0,0 +1,35 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// best efforts and totals for a cardio activity, pace is minutes per unit of distance
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardioStatsDto {
+    // best single sessions
+    private BigDecimal longestDistance;
+    private LocalDate longestDistanceDate;
+    private Integer longestDurationMinutes;
+    private LocalDate longestDurationDate;
+    private BigDecimal bestPace;
+    private LocalDate bestPaceDate;
+
+    // totals
+    private long sessionCount;
+    private BigDecimal totalDistance;
+    private long totalDurationMinutes;
+    private BigDecimal averagePace;
+
+    // sessions that logged both distance and duration, averagePace is built from these
+    @JsonIgnore
+    private BigDecimal pacedDistance;
+    @JsonIgnore
+    private long pacedDurationMinutes;
+}
@@ -0,0 +1,19 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// cardio totals for one week or month, dayCount is the number of distinct training days
+@Data
+@AllArgsConstructor
+public class CardioTrendBucketDto {
+    private LocalDate periodStart;
+    private long sessionCount;
+    private long dayCount;
+    private BigDecimal totalDistance;
+    private long totalDurationMinutes;
+    private BigDecimal averagePace;
+}
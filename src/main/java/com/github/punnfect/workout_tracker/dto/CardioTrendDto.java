@@ -0,0 +1,18 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// weekly or monthly cardio totals for startDate - endDate (both null for all time)
+@Data
+@AllArgsConstructor
+public class CardioTrendDto {
+    private String activityName;
+    private String period;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<CardioTrendBucketDto> buckets;
+}
@@ -0,0 +1,10 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import lombok.Value;
+
+// immutable exercise or cardio catalog entry, safe to share across requests
+@Value
+public class CatalogEntryDto {
+    Long id;
+    String name;
+}
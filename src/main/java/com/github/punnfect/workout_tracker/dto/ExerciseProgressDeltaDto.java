@@ -0,0 +1,28 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/*
+Changes to an exercise's all time series since the client's version.
+When full is true the client replaces its cached series with dataPoints, otherwise it
+upserts dataPoints by date and drops deletedDates. Stats cover startDate - endDate (both null for all time).
+When rangeOnly is true the series is too long to cache: dataPoints only covers the range (downsampled if needed)
+and the client draws it as is instead of touching its cache.
+*/
+@Data
+@AllArgsConstructor
+public class ExerciseProgressDeltaDto {
+    private String exerciseName;
+    private String version;
+    private boolean full;
+    private boolean rangeOnly;
+    private List<ExerciseProgressPointDto> dataPoints;
+    private List<LocalDate> deletedDates;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private ExerciseProgressStatsDto stats;
+}
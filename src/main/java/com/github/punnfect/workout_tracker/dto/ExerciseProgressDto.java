@@ -6,11 +6,12 @@ import lombok.Data;
 
 import java.util.List;
 
-// complete progress info including a list of all datapoints
+// complete progress info including a list of all datapoints, sampled when they were downsampled to maxPoints
 @Data
 @AllArgsConstructor
 public class ExerciseProgressDto {
     private String exerciseName;
     private List<ExerciseProgressPointDto> dataPoints;
     private ExerciseProgressStatsDto stats;
+    private boolean sampled;
 }
\ No newline at end of file
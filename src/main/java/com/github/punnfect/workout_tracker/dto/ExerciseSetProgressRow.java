@@ -0,0 +1,8 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// the only columns progress needs from a set, selected directly instead of hydrating entities
+public record ExerciseSetProgressRow(LocalDate workoutDate, Integer setNumber, BigDecimal weight, Integer reps) {
+}
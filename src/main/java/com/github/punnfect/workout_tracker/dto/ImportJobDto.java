@@ -0,0 +1,27 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+// progress of a bulk import, polled by the client while the job runs
+@Data
+@AllArgsConstructor
+public class ImportJobDto {
+
+    public enum Status {QUEUED, RUNNING, COMPLETED, FAILED}
+
+    private String id;
+    private String fileName;
+    private Status status;
+    private long rowsRead;
+    private long rowsSkipped;
+    private long workoutsImported;
+    private long exerciseSetsImported;
+    private long cardioSessionsImported;
+    private List<String> errors;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
@@ -0,0 +1,49 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/*
+One line of an import or export file, either an exercise set, a cardio session
+or a bare workout that has neither.
+Consecutive lines with the same date, title and workoutId become one workout.
+CSV files need a header row using these field names, NDJSON uses them as keys.
+*/
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"date", "title", "type", "name", "setNumber", "weight", "reps", "durationMinutes", "distance", "notes",
+        "workoutId", "timeEnter", "timeLeave", "workoutNotes"})
+public class ImportRow {
+    private LocalDate date;
+    private String title;
+
+    // "exercise" (default), "cardio" or "workout"
+    private String type;
+
+    // exercise or cardio activity name, matched case insensitively against the catalog, rows with an unknown name are skipped
+    private String name;
+
+    // exercise rows, a missing set number continues from the last set of that exercise
+    private Integer setNumber;
+    private BigDecimal weight;
+    private Integer reps;
+
+    // cardio rows
+    private Integer durationMinutes;
+    private BigDecimal distance;
+
+    private String notes;
+
+    // workout level fields, workoutId only groups rows and is never reused as a database id
+    private Long workoutId;
+    private LocalTime timeEnter;
+    private LocalTime timeLeave;
+    private String workoutNotes;
+}
@@ -0,0 +1,17 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// training volume for one week or month, dayCount is the number of distinct training days
+@Data
+@AllArgsConstructor
+public class VolumeBucketDto {
+    private LocalDate periodStart;
+    private BigDecimal volume;
+    private long setCount;
+    private long dayCount;
+}
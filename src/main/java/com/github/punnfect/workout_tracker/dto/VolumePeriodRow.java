@@ -0,0 +1,8 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// one GROUP BY row of volume totals, label is the exercise name or muscle group the row was grouped by
+public record VolumePeriodRow(String label, LocalDate periodStart, BigDecimal volume, Long setCount, Long dayCount) {
+}
@@ -0,0 +1,14 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// volume buckets of one exercise or muscle group, ordered by period
+@Data
+@AllArgsConstructor
+public class VolumeSeriesDto {
+    private String name;
+    private List<VolumeBucketDto> buckets;
+}
@@ -0,0 +1,19 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkoutCardioView {
+    private Long id;
+    private Long cardioListId;
+    private String name;
+    private Integer durationMinutes;
+    private BigDecimal distance;
+    private String notes;
+}
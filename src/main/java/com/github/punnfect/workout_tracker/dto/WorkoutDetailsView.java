@@ -0,0 +1,24 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+// read model behind the workout page and the edit form, sets grouped by exercise
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkoutDetailsView {
+    private Long id;
+    private String title;
+    private LocalDate workoutDate;
+    private LocalTime timeEnter;
+    private LocalTime timeLeave;
+    private String notes;
+    private List<WorkoutExerciseView> exercises;
+    private List<WorkoutCardioView> cardioSessions;
+}
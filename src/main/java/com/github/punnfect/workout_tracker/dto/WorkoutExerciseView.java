@@ -0,0 +1,17 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// one exercise of a workout with its sets in set number order
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkoutExerciseView {
+    private Long exerciseListId;
+    private String name;
+    private List<WorkoutSetView> sets;
+}
@@ -0,0 +1,17 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// one page of workout history, next* is the keyset cursor for the following page
+@Data
+@AllArgsConstructor
+public class WorkoutHistoryPageDto {
+    private List<WorkoutSummaryDto> workouts;
+    private boolean hasMore;
+    private LocalDate nextBeforeDate;
+    private Long nextBeforeId;
+}
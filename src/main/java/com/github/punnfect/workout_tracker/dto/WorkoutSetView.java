@@ -0,0 +1,18 @@
+package com.github.punnfect.workout_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkoutSetView {
+    private Long id;
+    private Integer setNumber;
+    private BigDecimal weight;
+    private Integer reps;
+    private String notes;
+}
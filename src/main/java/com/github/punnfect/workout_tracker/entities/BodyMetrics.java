@@ -13,15 +13,18 @@ import java.time.LocalDate;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "body_metrics")
+@Table(name = "body_metrics", uniqueConstraints = {@UniqueConstraint(columnNames = {"user_id", "metric_date"})})
 public class BodyMetrics {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "body_metrics_id_gen")
+    @TableGenerator(name = "body_metrics_id_gen", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = IdGenerators.BODY_METRICS,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     @Column(name = "metric_id")
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -33,4 +36,12 @@ public class BodyMetrics {
 
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
+
+    // trailing 7 and 30 calendar day averages of weight_lbs ending on metric_date,
+    // kept up to date by BodyMetricsService whenever an entry in the window changes
+    @Column(name = "avg_7_day_lbs", precision = 5, scale = 2)
+    private BigDecimal average7DayLbs;
+
+    @Column(name = "avg_30_day_lbs", precision = 5, scale = 2)
+    private BigDecimal average30DayLbs;
 }
@@ -0,0 +1,73 @@
+package com.github.punnfect.workout_tracker.entities;
+
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// one row per user/cardio activity/training day, kept up to date by CardioRollupService
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "cardio_daily_progress",
+        uniqueConstraints = {@UniqueConstraint(columnNames = {"user_id", "cardio_list_id", "workout_date"})})
+public class CardioDailyProgress {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "cardio_daily_progress_id_gen")
+    @TableGenerator(name = "cardio_daily_progress_id_gen", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = IdGenerators.CARDIO_DAILY_PROGRESS,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
+    @Column(name = "cardio_daily_progress_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cardio_list_id", nullable = false)
+    private CardioList cardioList;
+
+    @Column(name = "workout_date", nullable = false)
+    private LocalDate workoutDate;
+
+    @Column(name = "session_count", nullable = false)
+    private Integer sessionCount;
+
+    @Column(name = "total_distance", precision = 9, scale = 2)
+    private BigDecimal totalDistance;
+
+    @Column(name = "total_duration_minutes")
+    private Integer totalDurationMinutes;
+
+    // distance and duration of the sessions that logged both, pace is paced_duration / paced_distance
+    @Column(name = "paced_distance", precision = 9, scale = 2)
+    private BigDecimal pacedDistance;
+
+    @Column(name = "paced_duration_minutes")
+    private Integer pacedDurationMinutes;
+
+    // best single session of the day
+    @Column(name = "longest_distance", precision = 5, scale = 2)
+    private BigDecimal longestDistance;
+
+    @Column(name = "longest_duration_minutes")
+    private Integer longestDurationMinutes;
+
+    // fastest session, minutes per unit of distance
+    @Column(name = "best_pace", precision = 7, scale = 2)
+    private BigDecimal bestPace;
+
+    // monday of the day's week and first of its month, same as the strength rollup
+    @Column(name = "week_start", nullable = false)
+    private LocalDate weekStart;
+
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+}
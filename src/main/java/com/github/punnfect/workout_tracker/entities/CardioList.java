@@ -1,10 +1,13 @@
 package com.github.punnfect.workout_tracker.entities;
 
 
+import com.github.punnfect.workout_tracker.services.CatalogChangeListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
@@ -12,6 +15,9 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(CatalogChangeListener.class)
 @Table(name = "cardio_list")
 public class CardioList {
 
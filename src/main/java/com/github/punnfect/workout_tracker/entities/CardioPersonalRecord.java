@@ -0,0 +1,69 @@
+package com.github.punnfect.workout_tracker.entities;
+
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// all time bests and totals for one user/cardio activity, mirrors CardioStatsDto
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "cardio_personal_records", uniqueConstraints = {@UniqueConstraint(columnNames = {"user_id", "cardio_list_id"})})
+public class CardioPersonalRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "cardio_record_id_gen")
+    @TableGenerator(name = "cardio_record_id_gen", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = IdGenerators.CARDIO_PERSONAL_RECORDS,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
+    @Column(name = "cardio_record_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cardio_list_id", nullable = false)
+    private CardioList cardioList;
+
+    @Column(name = "longest_distance", precision = 5, scale = 2)
+    private BigDecimal longestDistance;
+
+    @Column(name = "longest_distance_date")
+    private LocalDate longestDistanceDate;
+
+    @Column(name = "longest_duration_minutes")
+    private Integer longestDurationMinutes;
+
+    @Column(name = "longest_duration_date")
+    private LocalDate longestDurationDate;
+
+    @Column(name = "best_pace", precision = 7, scale = 2)
+    private BigDecimal bestPace;
+
+    @Column(name = "best_pace_date")
+    private LocalDate bestPaceDate;
+
+    // running totals, adjusted by the difference of each refreshed day
+    @Column(name = "session_count", nullable = false)
+    private long sessionCount;
+
+    @Column(name = "total_distance", precision = 12, scale = 2)
+    private BigDecimal totalDistance;
+
+    @Column(name = "total_duration_minutes", nullable = false)
+    private long totalDurationMinutes;
+
+    @Column(name = "paced_distance", precision = 12, scale = 2)
+    private BigDecimal pacedDistance;
+
+    @Column(name = "paced_duration_minutes", nullable = false)
+    private long pacedDurationMinutes;
+}
@@ -16,15 +16,18 @@ import java.math.BigDecimal;
 public class CardioSession {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "cardio_session_id_gen")
+    @TableGenerator(name = "cardio_session_id_gen", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = IdGenerators.CARDIO_SESSIONS,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     @Column(name = "cardio_session_id")
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "workout_id", nullable = false)
     private Workout workout;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cardio_list_id", nullable = false)
     private CardioList cardioList;
 
@@ -0,0 +1,85 @@
+package com.github.punnfect.workout_tracker.entities;
+
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// one row per user/exercise/training day, kept up to date by ProgressRollupService
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "exercise_daily_progress",
+        uniqueConstraints = {@UniqueConstraint(columnNames = {"user_id", "exercise_list_id", "workout_date"})},
+        indexes = {@Index(name = "idx_daily_progress_user_date", columnList = "user_id, workout_date")})
+public class ExerciseDailyProgress {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "daily_progress_id_gen")
+    @TableGenerator(name = "daily_progress_id_gen", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = IdGenerators.EXERCISE_DAILY_PROGRESS,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
+    @Column(name = "daily_progress_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "exercise_list_id", nullable = false)
+    private ExerciseList exerciseList;
+
+    @Column(name = "workout_date", nullable = false)
+    private LocalDate workoutDate;
+
+    // best set of the day, highest weight then highest reps
+    @Column(name = "best_weight", precision = 7, scale = 2)
+    private BigDecimal bestWeight;
+
+    @Column(name = "best_reps")
+    private Integer bestReps;
+
+    @Column(name = "best_volume", precision = 12, scale = 2)
+    private BigDecimal bestVolume;
+
+    @Column(name = "set_count", nullable = false)
+    private Integer setCount;
+
+    // most reps in a single set that day
+    @Column(name = "max_reps")
+    private Integer maxReps;
+
+    @Column(name = "max_reps_weight", precision = 7, scale = 2)
+    private BigDecimal maxRepsWeight;
+
+    // highest weight x reps in a single set that day
+    @Column(name = "max_volume", precision = 12, scale = 2)
+    private BigDecimal maxVolume;
+
+    @Column(name = "max_volume_weight", precision = 7, scale = 2)
+    private BigDecimal maxVolumeWeight;
+
+    @Column(name = "max_volume_reps")
+    private Integer maxVolumeReps;
+
+    // weight x reps summed over every set that day, weekly and monthly volume add these up
+    @Column(name = "total_volume", precision = 14, scale = 2)
+    private BigDecimal totalVolume;
+
+    // monday of the day's week and first of its month, plain columns so volume can GROUP BY them on any database
+    @Column(name = "week_start")
+    private LocalDate weekStart;
+
+    @Column(name = "month_start")
+    private LocalDate monthStart;
+
+    // PR row revision of the refresh that last wrote this row, set_count 0 marks a day whose sets were all removed
+    @Column(name = "revision", nullable = false)
+    private long revision;
+}
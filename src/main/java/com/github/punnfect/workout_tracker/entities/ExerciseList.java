@@ -1,10 +1,13 @@
 package com.github.punnfect.workout_tracker.entities;
 
 
+import com.github.punnfect.workout_tracker.services.CatalogChangeListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
@@ -12,6 +15,9 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@EntityListeners(CatalogChangeListener.class)
 @Table(name = "exercise_list")
 public class ExerciseList {
 
@@ -23,6 +29,10 @@ public class ExerciseList {
     @Column(name = "name", nullable = false,unique = true, length = 100)
     private  String name;
 
+    // optional grouping for volume totals, e.g. "Chest" or "Legs"
+    @Column(name = "muscle_group", length = 50)
+    private String muscleGroup;
+
     @OneToMany(mappedBy = "exerciseList", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ExerciseSet> exerciseSets;
 }
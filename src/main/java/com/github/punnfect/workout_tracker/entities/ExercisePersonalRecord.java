@@ -0,0 +1,73 @@
+package com.github.punnfect.workout_tracker.entities;
+
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// all time personal records for one user/exercise, mirrors ExerciseProgressStatsDto
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "exercise_personal_records", uniqueConstraints = {@UniqueConstraint(columnNames = {"user_id", "exercise_list_id"})})
+public class ExercisePersonalRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "personal_record_id_gen")
+    @TableGenerator(name = "personal_record_id_gen", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = IdGenerators.EXERCISE_PERSONAL_RECORDS,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
+    @Column(name = "personal_record_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "exercise_list_id", nullable = false)
+    private ExerciseList exerciseList;
+
+    @Column(name = "max_weight", precision = 7, scale = 2)
+    private BigDecimal maxWeight;
+
+    @Column(name = "max_weight_reps")
+    private Integer maxWeightReps;
+
+    @Column(name = "max_weight_date")
+    private LocalDate maxWeightDate;
+
+    @Column(name = "max_reps_weight", precision = 7, scale = 2)
+    private BigDecimal maxRepsWeight;
+
+    @Column(name = "max_reps")
+    private Integer maxReps;
+
+    @Column(name = "max_reps_date")
+    private LocalDate maxRepsDate;
+
+    @Column(name = "max_volume", precision = 12, scale = 2)
+    private BigDecimal maxVolume;
+
+    @Column(name = "max_volume_weight", precision = 7, scale = 2)
+    private BigDecimal maxVolumeWeight;
+
+    @Column(name = "max_volume_reps")
+    private Integer maxVolumeReps;
+
+    @Column(name = "max_volume_date")
+    private LocalDate maxVolumeDate;
+
+    // bumped on every rollup refresh of this user/exercise, the progress API uses it as its ETag watermark
+    @Column(name = "revision", nullable = false)
+    private long revision;
+
+    // revision of the last full rebuild, which drops tombstones, delta requests from before it get the full series
+    @Column(name = "reset_revision", nullable = false)
+    private long resetRevision;
+}
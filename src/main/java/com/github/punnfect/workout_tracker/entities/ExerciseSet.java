@@ -16,15 +16,18 @@ import java.math.BigDecimal;
 public class ExerciseSet {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "exercise_set_id_gen")
+    @TableGenerator(name = "exercise_set_id_gen", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = IdGenerators.EXERCISE_SETS,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     @Column(name = "set_id")
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "workout_id", nullable = false)
     private Workout workout;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "exercise_list_id", nullable = false)
     private ExerciseList exerciseList;
 
@@ -0,0 +1,27 @@
+package com.github.punnfect.workout_tracker.entities;
+
+/*
+Shared settings for the table based id generators used by the workout, rollup, body metrics and event outbox write paths.
+Ids are handed out in blocks so Hibernate can batch inserts instead of
+round tripping for every IDENTITY value.
+*/
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generators";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final String WORKOUTS = "workouts";
+    public static final String EXERCISE_SETS = "exercise_sets";
+    public static final String CARDIO_SESSIONS = "cardio_sessions";
+    public static final String EXERCISE_DAILY_PROGRESS = "exercise_daily_progress";
+    public static final String EXERCISE_PERSONAL_RECORDS = "exercise_personal_records";
+    public static final String CARDIO_DAILY_PROGRESS = "cardio_daily_progress";
+    public static final String CARDIO_PERSONAL_RECORDS = "cardio_personal_records";
+    public static final String BODY_METRICS = "body_metrics";
+    public static final String WORKOUT_EVENTS = "workout_events";
+
+    private IdGenerators() {
+    }
+}
@@ -14,15 +14,25 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "workouts")
+@NamedEntityGraph(name = Workout.EDIT,
+        attributeNodes = @NamedAttributeNode("exerciseSets"))
+@Table(name = "workouts", indexes = {@Index(name = "idx_workouts_user_date", columnList = "user_id, workout_date, workout_id")})
 public class Workout {
 
+    // Fetch plan for saving or deleting a workout, every association is lazy.
+    // Sets are matched by exercise id so the exercises themselves are not needed,
+    // pages read the workout through WorkoutDetailsService instead of the entities
+    public static final String EDIT = "Workout.edit";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "workout_id_gen")
+    @TableGenerator(name = "workout_id_gen", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = IdGenerators.WORKOUTS,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     @Column(name = "workout_id")
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
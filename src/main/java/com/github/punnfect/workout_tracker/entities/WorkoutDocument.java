@@ -0,0 +1,42 @@
+package com.github.punnfect.workout_tracker.entities;
+
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/*
+Read side copy of one workout, the WorkoutDetailsView it renders as serialized JSON.
+Keyed by the workout id so a page view is a primary key lookup, written when the workout is saved
+and deleted with it (see WorkoutDocumentService). Exercise and activity names are copied in as of the save,
+a rename leaves them behind, so reads take the names from the catalog by id instead.
+*/
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "workout_documents")
+public class WorkoutDocument {
+
+    @Id
+    @Column(name = "workout_id")
+    private Long workoutId;
+
+    // owner of the workout, checked on every read instead of joining workouts
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "document", nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String document;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public WorkoutDocument(Long workoutId, Long userId) {
+        this.workoutId = workoutId;
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.punnfect.workout_tracker.entities;
+
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/*
+A WorkoutEvent waiting to be handled, inserted in the transaction that made the change and deleted
+in the transaction that handled it. Whatever is left after a crash, or after the pipeline's queues
+were full, is replayed in id order by the pipeline's sweep (see WorkoutEventPipeline).
+A user's events are handled in id order, the index lets each delivery check for an earlier one still waiting.
+*/
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "workout_event_outbox", indexes = {@Index(name = "idx_outbox_user_id", columnList = "user_id, outbox_id")})
+public class WorkoutOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "workout_event_id_gen")
+    @TableGenerator(name = "workout_event_id_gen", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = IdGenerators.WORKOUT_EVENTS,
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
+    @Column(name = "outbox_id")
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    // the event's fields as JSON
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // deliveries that ended in an error, the event is given up on after WorkoutEventPipeline.MAX_DELIVERIES
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
@@ -0,0 +1,75 @@
+package com.github.punnfect.workout_tracker.events;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/*
+Something that changed a user's workout history, published by WorkoutService once the change commits
+and handled by the WorkoutEventHandlers on the WorkoutEventPipeline.
+Every event names the day and the exercise / cardio types it touched, which is all the projections need,
+they read the current rows rather than trusting the event's data so replays and retries are harmless.
+An import touches many days at once, HistoryImported has the projections rebuild the user's history instead.
+*/
+public sealed interface WorkoutEvent {
+
+    Long userId();
+
+    Long workoutId();
+
+    LocalDate workoutDate();
+
+    Set<Long> exerciseListIds();
+
+    Set<Long> cardioListIds();
+
+    // sets and sessions were added, changed or removed by a save, the id sets are the types whose rows changed
+    record WorkoutSaved(Long userId, Long workoutId, LocalDate workoutDate,
+                        Set<Long> exerciseListIds, Set<Long> cardioListIds) implements WorkoutEvent {
+    }
+
+    // the workout and everything logged on it is gone
+    record WorkoutDeleted(Long userId, Long workoutId, LocalDate workoutDate,
+                          Set<Long> exerciseListIds, Set<Long> cardioListIds) implements WorkoutEvent {
+    }
+
+    record SetDeleted(Long userId, Long workoutId, LocalDate workoutDate, Long exerciseListId) implements WorkoutEvent {
+
+        @Override
+        public Set<Long> exerciseListIds() {
+            return Set.of(exerciseListId);
+        }
+
+        @Override
+        public Set<Long> cardioListIds() {
+            return Set.of();
+        }
+    }
+
+    // a bulk import wrote workouts across many days, the id sets are every type it logged
+    // it names no single workout or day, workoutId() and workoutDate() are null
+    record HistoryImported(Long userId, Set<Long> exerciseListIds, Set<Long> cardioListIds) implements WorkoutEvent {
+
+        @Override
+        public Long workoutId() {
+            return null;
+        }
+
+        @Override
+        public LocalDate workoutDate() {
+            return null;
+        }
+    }
+
+    record CardioSessionDeleted(Long userId, Long workoutId, LocalDate workoutDate, Long cardioListId) implements WorkoutEvent {
+
+        @Override
+        public Set<Long> exerciseListIds() {
+            return Set.of();
+        }
+
+        @Override
+        public Set<Long> cardioListIds() {
+            return Set.of(cardioListId);
+        }
+    }
+}
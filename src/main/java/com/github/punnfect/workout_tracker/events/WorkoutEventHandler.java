@@ -0,0 +1,13 @@
+package com.github.punnfect.workout_tracker.events;
+
+/*
+A derived view kept up to date from WorkoutEvents (rollups, stored documents, ...).
+Called on a pipeline lane inside the transaction that also removes the event from the outbox,
+so a failure rolls both back and the event is retried. Events of one user arrive in commit order,
+but a retried or replayed event can arrive again, handlers must be idempotent.
+Handlers run in their @Order, a handler may clear the persistence context between units of work.
+*/
+public interface WorkoutEventHandler {
+
+    void handle(WorkoutEvent event);
+}
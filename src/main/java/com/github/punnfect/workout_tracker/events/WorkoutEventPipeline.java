@@ -0,0 +1,398 @@
+package com.github.punnfect.workout_tracker.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.punnfect.workout_tracker.entities.WorkoutOutboxEvent;
+import com.github.punnfect.workout_tracker.repository.UserRepo;
+import com.github.punnfect.workout_tracker.repository.WorkoutOutboxRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/*
+Runs the WorkoutEventHandlers off the request thread.
+publish() stores the event in the outbox as part of the caller's transaction and hands it to a lane once that
+transaction commits. Each lane is one thread with a bounded queue, a user always maps to the same lane so their
+events are handled in commit order while different users' events run in parallel.
+A full lane makes the publisher wait up to publish-timeout (backpressure on the saving request), after that the event
+stays in the outbox and the sweep picks it up. Failed deliveries are retried on the lane, then again by later sweeps,
+an event that failed MAX_DELIVERIES times stays in the outbox with its last error for someone to look at.
+While one of a user's events is left in the outbox their later events are held there too (the lane checks before
+handling one), the sweep then queues them all again in id order. An event given up on no longer holds anything back.
+Once one of their events is handled or given up on, a user's held events go straight back on the lane rather than
+waiting for the next sweep.
+The lanes and the sweep start once the application is ready, the first sweep replays whatever a crash or shutdown left behind.
+*/
+@Component
+public class WorkoutEventPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkoutEventPipeline.class);
+
+    private static final int RETRIES_PER_DELIVERY = 3;
+    private static final Duration RETRY_BACKOFF = Duration.ofMillis(200);
+    static final int MAX_DELIVERIES = 5;
+    private static final int SWEEP_BATCH = 500;
+    private static final Duration SWEEP_INTERVAL = Duration.ofSeconds(30);
+    private static final Duration SHUTDOWN_DRAIN = Duration.ofSeconds(5);
+
+    private static final Map<String, Class<? extends WorkoutEvent>> EVENT_TYPES = Arrays.stream(WorkoutEvent.class.getPermittedSubclasses())
+            .collect(Collectors.toUnmodifiableMap(Class::getSimpleName, type -> type.asSubclass(WorkoutEvent.class)));
+
+    private final List<WorkoutEventHandler> handlers;
+    private final WorkoutOutboxRepo workoutOutboxRepo;
+    private final UserRepo userRepo;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration publishTimeout;
+
+    private final Lane[] lanes;
+    // outbox ids queued on or being handled by a lane, so the sweep never queues an event twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    // users with an event held in the outbox since their last handled one
+    private final Set<Long> usersWithHeldEvents = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "workout-events-sweep");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter handled;
+    private final Counter failed;
+    private final Counter deferred;
+    private final Counter held;
+
+    public WorkoutEventPipeline(List<WorkoutEventHandler> handlers, WorkoutOutboxRepo workoutOutboxRepo, UserRepo userRepo,
+                                EntityManager entityManager, TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.events.lanes:4}") int laneCount,
+                                @Value("${app.events.queue-capacity:1000}") int queueCapacity,
+                                @Value("${app.events.publish-timeout:2s}") Duration publishTimeout) {
+        this.handlers = handlers;
+        this.workoutOutboxRepo = workoutOutboxRepo;
+        this.userRepo = userRepo;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.publishTimeout = publishTimeout;
+
+        Gauge.builder("workout.events.in.flight", inFlight, Set::size)
+                .description("Workout events queued on or being handled by a pipeline lane")
+                .register(meterRegistry);
+        handled = Counter.builder("workout.events.deliveries").tag("result", "handled")
+                .description("Workout events handled by every handler").register(meterRegistry);
+        failed = Counter.builder("workout.events.deliveries").tag("result", "failed")
+                .description("Workout event deliveries that failed after their retries").register(meterRegistry);
+        deferred = Counter.builder("workout.events.deliveries").tag("result", "deferred")
+                .description("Workout events left to the sweep because their lane was full").register(meterRegistry);
+        held = Counter.builder("workout.events.deliveries").tag("result", "held")
+                .description("Workout events left to the sweep behind an earlier event of the same user").register(meterRegistry);
+
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i, queueCapacity);
+        }
+    }
+
+    // Stores the event with the caller's changes, it is handed to its lane after they commit
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(WorkoutEvent event) {
+        WorkoutOutboxEvent stored = new WorkoutOutboxEvent();
+        stored.setUserId(event.userId());
+        stored.setEventType(event.getClass().getSimpleName());
+        stored.setPayload(toJson(event));
+        stored.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(stored);
+
+        // handlers run as the publishing user, so their commits count as that user's writes for replica routing
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(new Delivery(stored.getId(), event.userId(), authentication), true);
+            }
+        });
+    }
+
+    // Blocks until every queued event has been handled, false if that took longer than timeout
+    public boolean awaitIdle(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!inFlight.isEmpty()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        for (Lane lane : lanes) {
+            lane.thread.start();
+        }
+        sweeper.scheduleWithFixedDelay(this::sweep, 0, SWEEP_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // give the lanes a moment to drain, anything still queued is in the outbox and replays on the next start
+        sweeper.shutdownNow();
+        awaitIdle(SHUTDOWN_DRAIN);
+        for (Lane lane : lanes) {
+            lane.thread.interrupt();
+        }
+    }
+
+    // Queues outbox events that no lane has, oldest first. Stops at the first full lane, the next sweep continues
+    void sweep() {
+        try {
+            List<WorkoutOutboxEvent> pending = workoutOutboxRepo.findByAttemptsLessThanOrderByIdAsc(MAX_DELIVERIES, Limit.of(SWEEP_BATCH));
+            int queued = 0;
+            for (WorkoutOutboxEvent event : pending) {
+                if (inFlight.contains(event.getId())) {
+                    continue;
+                }
+                if (!dispatch(new Delivery(event.getId(), event.getUserId(), null), false)) {
+                    break;
+                }
+                queued++;
+            }
+            if (queued > 0) {
+                log.info("Queued {} workout events from the outbox", queued);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Workout event sweep failed, retrying in {}", SWEEP_INTERVAL, e);
+        }
+    }
+
+    // Hands a stored event to its user's lane, false when it stays in the outbox for the sweep
+    private boolean dispatch(Delivery delivery, boolean wait) {
+        if (!inFlight.add(delivery.outboxId())) {
+            return true;
+        }
+
+        Lane lane = lanes[Math.floorMod(delivery.userId().hashCode(), lanes.length)];
+        boolean queued;
+        try {
+            queued = wait
+                    ? lane.queue.offer(delivery, publishTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    : lane.queue.offer(delivery);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+
+        if (!queued) {
+            inFlight.remove(delivery.outboxId());
+            if (wait) {
+                deferred.increment();
+                log.warn("Workout event lane {} is full, event {} is left for the outbox sweep", lane.index, delivery.outboxId());
+            }
+        }
+        return queued;
+    }
+
+    // Runs every handler for one event, retrying on the lane so the user's later events wait behind it
+    private void deliver(Delivery delivery) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> handle(delivery.outboxId())))) {
+                    handled.increment();
+                    releaseHeld(delivery.userId());
+                } else {
+                    held.increment();
+                    usersWithHeldEvents.add(delivery.userId());
+                    log.debug("Workout event {} is held behind an earlier event of user {}", delivery.outboxId(), delivery.userId());
+                }
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= RETRIES_PER_DELIVERY) {
+                    failed.increment();
+                    if (recordFailure(delivery.outboxId(), e)) {
+                        releaseHeld(delivery.userId());
+                    }
+                    return;
+                }
+                try {
+                    Thread.sleep(RETRY_BACKOFF.toMillis() * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // false when the event has to wait for an earlier one of its user, it stays in the outbox for the sweep
+    private boolean handle(Long outboxId) {
+        WorkoutOutboxEvent stored = entityManager.find(WorkoutOutboxEvent.class, outboxId);
+        if (stored == null) {
+            // a redelivery of an event that has already been handled
+            return true;
+        }
+        if (workoutOutboxRepo.existsByUserIdAndIdLessThanAndAttemptsLessThan(stored.getUserId(), outboxId, MAX_DELIVERIES)) {
+            return false;
+        }
+
+        WorkoutEvent event = fromJson(stored);
+        for (WorkoutEventHandler handler : handlers) {
+            handler.handle(event);
+        }
+        // by id, a handler that cleared the persistence context has detached the row
+        workoutOutboxRepo.deleteById(outboxId);
+        return true;
+    }
+
+    // Queues the user's events held in the outbox on their lane, oldest first, once the event ahead of them is dealt with.
+    // Stops at a full lane, the sweep gets the rest
+    private void releaseHeld(Long userId) {
+        if (!usersWithHeldEvents.remove(userId)) {
+            return;
+        }
+        List<WorkoutOutboxEvent> pending = workoutOutboxRepo.findByUserIdAndAttemptsLessThanOrderByIdAsc(
+                userId, MAX_DELIVERIES, Limit.of(SWEEP_BATCH));
+        for (WorkoutOutboxEvent event : pending) {
+            if (!inFlight.contains(event.getId()) && !dispatch(new Delivery(event.getId(), userId, null), false)) {
+                return;
+            }
+        }
+    }
+
+    // true when this was the event's last delivery
+    private boolean recordFailure(Long outboxId, RuntimeException error) {
+        log.warn("Workout event {} failed {} times, leaving it in the outbox", outboxId, RETRIES_PER_DELIVERY, error);
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                WorkoutOutboxEvent stored = entityManager.find(WorkoutOutboxEvent.class, outboxId);
+                if (stored == null) {
+                    return false;
+                }
+                stored.setAttempts(stored.getAttempts() + 1);
+                String message = String.valueOf(error.getMessage());
+                stored.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+                if (stored.getAttempts() >= MAX_DELIVERIES) {
+                    log.error("Workout event {} ({}) gave up after {} deliveries", outboxId, stored.getEventType(), MAX_DELIVERIES);
+                    return true;
+                }
+                return false;
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Could not record the failure of workout event {}", outboxId, e);
+            return false;
+        }
+    }
+
+    // Events queued by the sweep run as their user as well, a commit without one would keep every user's reads
+    // on the primary (see ReadWriteRoutingDataSource). Null when the user is gone
+    private Authentication actingAs(Long userId) {
+        return userRepo.findById(userId)
+                .map(user -> (Authentication) UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()))
+                .orElse(null);
+    }
+
+    private String toJson(WorkoutEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize " + event, e);
+        }
+    }
+
+    private WorkoutEvent fromJson(WorkoutOutboxEvent stored) {
+        Class<? extends WorkoutEvent> type = EVENT_TYPES.get(stored.getEventType());
+        if (type == null) {
+            throw new RuntimeException("Unknown workout event type: " + stored.getEventType());
+        }
+        try {
+            return objectMapper.readValue(stored.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not read workout event " + stored.getId(), e);
+        }
+    }
+
+    // authentication is null for events queued by the sweep, the lane looks their user up (see actingAs)
+    private record Delivery(Long outboxId, Long userId, Authentication authentication) {
+    }
+
+    // one worker thread and its queue
+    private class Lane implements Runnable {
+
+        private final int index;
+        private final BlockingQueue<Delivery> queue;
+        private final Thread thread;
+
+        Lane(int index, int capacity) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this, "workout-events-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                Delivery delivery;
+                try {
+                    delivery = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                try {
+                    Authentication authentication = delivery.authentication() != null
+                            ? delivery.authentication()
+                            : actingAs(delivery.userId());
+                    if (authentication != null) {
+                        SecurityContext context = SecurityContextHolder.createEmptyContext();
+                        context.setAuthentication(authentication);
+                        SecurityContextHolder.setContext(context);
+                    }
+                    deliver(delivery);
+                } catch (RuntimeException e) {
+                    log.error("Workout event {} could not be delivered", delivery.outboxId(), e);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                    inFlight.remove(delivery.outboxId());
+                }
+            }
+        }
+    }
+}
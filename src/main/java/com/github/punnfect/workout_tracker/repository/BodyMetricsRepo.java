@@ -1,9 +1,27 @@
 package com.github.punnfect.workout_tracker.repository;
 
 import com.github.punnfect.workout_tracker.entities.BodyMetrics;
+import com.github.punnfect.workout_tracker.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface BodyMetricsRepo extends JpaRepository<BodyMetrics, Long> {
+
+    // entries within startDate - endDate inclusive, served by the (user_id, metric_date) unique index
+    List<BodyMetrics> findByUserAndMetricDateBetweenOrderByMetricDateAsc(User user, LocalDate startDate, LocalDate endDate);
+
+    List<BodyMetrics> findByUserOrderByMetricDateAsc(User user);
+
+    Optional<BodyMetrics> findByUserAndMetricDate(User user, LocalDate metricDate);
+
+    // most recent entry, its stored averages are the dashboard numbers
+    Optional<BodyMetrics> findFirstByUserOrderByMetricDateDesc(User user);
+
+    // entries written before the rolling average columns existed
+    boolean existsByWeightLbsIsNotNullAndAverage7DayLbsIsNull();
 }
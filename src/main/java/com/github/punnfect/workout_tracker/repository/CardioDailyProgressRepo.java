@@ -0,0 +1,55 @@
+package com.github.punnfect.workout_tracker.repository;
+
+import com.github.punnfect.workout_tracker.dto.CardioPeriodRow;
+import com.github.punnfect.workout_tracker.entities.CardioDailyProgress;
+import com.github.punnfect.workout_tracker.entities.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CardioDailyProgressRepo extends JpaRepository<CardioDailyProgress, Long> {
+
+    // single rollup row for a user/activity/day, used when refreshing after a write
+    Optional<CardioDailyProgress> findByUserAndCardioListIdAndWorkoutDate(User user, Long cardioListId, LocalDate workoutDate);
+
+    // every day of one activity within startDate - endDate inclusive
+    List<CardioDailyProgress> findByUserAndCardioListIdAndWorkoutDateBetweenOrderByWorkoutDateAsc(
+            User user, Long cardioListId, LocalDate startDate, LocalDate endDate);
+
+    // every day of one activity over all time
+    List<CardioDailyProgress> findByUserAndCardioListIdOrderByWorkoutDateAsc(User user, Long cardioListId);
+
+    // weekly or monthly totals of one activity, summed by the database from the daily rows
+    // null dates leave that side of the range open
+    @Query("SELECT new com.github.punnfect.workout_tracker.dto.CardioPeriodRow(" +
+            "dp.weekStart, SUM(dp.sessionCount), COUNT(dp), SUM(dp.totalDistance), SUM(dp.totalDurationMinutes), " +
+            "SUM(dp.pacedDistance), SUM(dp.pacedDurationMinutes)) " +
+            "FROM CardioDailyProgress dp " +
+            "WHERE dp.user = :user AND dp.cardioList.id = :cardioListId " +
+            "AND (:startDate IS NULL OR dp.workoutDate >= :startDate) AND (:endDate IS NULL OR dp.workoutDate <= :endDate) " +
+            "GROUP BY dp.weekStart ORDER BY dp.weekStart ASC")
+    List<CardioPeriodRow> sumWeekly(@Param("user") User user, @Param("cardioListId") Long cardioListId,
+                                    @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.github.punnfect.workout_tracker.dto.CardioPeriodRow(" +
+            "dp.monthStart, SUM(dp.sessionCount), COUNT(dp), SUM(dp.totalDistance), SUM(dp.totalDurationMinutes), " +
+            "SUM(dp.pacedDistance), SUM(dp.pacedDurationMinutes)) " +
+            "FROM CardioDailyProgress dp " +
+            "WHERE dp.user = :user AND dp.cardioList.id = :cardioListId " +
+            "AND (:startDate IS NULL OR dp.workoutDate >= :startDate) AND (:endDate IS NULL OR dp.workoutDate <= :endDate) " +
+            "GROUP BY dp.monthStart ORDER BY dp.monthStart ASC")
+    List<CardioPeriodRow> sumMonthly(@Param("user") User user, @Param("cardioListId") Long cardioListId,
+                                     @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // clears every rollup row for a user/activity before a full rebuild
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM CardioDailyProgress dp WHERE dp.user = :user AND dp.cardioList.id = :cardioListId")
+    void deleteByUserAndCardioListId(@Param("user") User user, @Param("cardioListId") Long cardioListId);
+}
@@ -0,0 +1,15 @@
+package com.github.punnfect.workout_tracker.repository;
+
+import com.github.punnfect.workout_tracker.entities.CardioPersonalRecord;
+import com.github.punnfect.workout_tracker.entities.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CardioPersonalRecordRepo extends JpaRepository<CardioPersonalRecord, Long> {
+
+    // the single record row for a user/cardio activity
+    Optional<CardioPersonalRecord> findByUserAndCardioListId(User user, Long cardioListId);
+}
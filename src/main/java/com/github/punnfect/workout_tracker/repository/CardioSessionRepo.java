@@ -1,9 +1,59 @@
 package com.github.punnfect.workout_tracker.repository;
 
+import com.github.punnfect.workout_tracker.dto.CardioSessionProgressRow;
 import com.github.punnfect.workout_tracker.entities.CardioSession;
+import com.github.punnfect.workout_tracker.entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface CardioSessionRepo extends JpaRepository<CardioSession, Long> {
+
+    // progress columns of every session of one activity on a single day
+    @Query("SELECT new com.github.punnfect.workout_tracker.dto.CardioSessionProgressRow(" +
+            "w.workoutDate, cs.durationMinutes, cs.distance) " +
+            "FROM CardioSession cs " +
+            "JOIN cs.workout w " +
+            "WHERE cs.cardioList.id = :cardioListId " +
+            "AND w.user = :user " +
+            "AND w.workoutDate = :workoutDate")
+    List<CardioSessionProgressRow> findCardioProgressByDate(
+            @Param("cardioListId") Long cardioListId,
+            @Param("user") User user,
+            @Param("workoutDate") LocalDate workoutDate
+    );
+
+    // streams the progress columns of every session of one activity over all time, for full rebuilds
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.github.punnfect.workout_tracker.dto.CardioSessionProgressRow(" +
+            "w.workoutDate, cs.durationMinutes, cs.distance) " +
+            "FROM CardioSession cs " +
+            "JOIN cs.workout w " +
+            "WHERE cs.cardioList.id = :cardioListId " +
+            "AND w.user = :user " +
+            "ORDER BY w.workoutDate ASC")
+    Stream<CardioSessionProgressRow> streamAllCardioProgress(
+            @Param("cardioListId") Long cardioListId,
+            @Param("user") User user
+    );
+
+    // ids of every cardio activity a user has logged at least one session for
+    @Query("SELECT DISTINCT cs.cardioList.id FROM CardioSession cs " +
+            "WHERE cs.workout.user = :user")
+    List<Long> findDistinctCardioListIdsByUser(@Param("user") User user);
+
+    // session with its workout (user id and date) in one query, for deleting it
+    @EntityGraph(attributePaths = "workout")
+    Optional<CardioSession> findWithWorkoutById(Long id);
 }
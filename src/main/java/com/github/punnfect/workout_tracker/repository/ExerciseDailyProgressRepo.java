@@ -0,0 +1,89 @@
+package com.github.punnfect.workout_tracker.repository;
+
+import com.github.punnfect.workout_tracker.dto.VolumePeriodRow;
+import com.github.punnfect.workout_tracker.entities.ExerciseDailyProgress;
+import com.github.punnfect.workout_tracker.entities.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExerciseDailyProgressRepo extends JpaRepository<ExerciseDailyProgress, Long> {
+
+    // single rollup row for a user/exercise/day, used when refreshing after a write
+    Optional<ExerciseDailyProgress> findByUserAndExerciseListIdAndWorkoutDate(User user, Long exerciseListId, LocalDate workoutDate);
+
+    // logged days for a specific exercise within startDate - endDate inclusive, tombstones (set_count 0) are skipped
+    @Query("SELECT dp FROM ExerciseDailyProgress dp WHERE dp.user = :user AND dp.exerciseList.id = :exerciseListId " +
+            "AND dp.setCount > 0 AND dp.workoutDate BETWEEN :startDate AND :endDate ORDER BY dp.workoutDate ASC")
+    List<ExerciseDailyProgress> findLoggedDaysBetween(@Param("user") User user, @Param("exerciseListId") Long exerciseListId,
+                                                      @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // logged days for a specific exercise over all time
+    @Query("SELECT dp FROM ExerciseDailyProgress dp WHERE dp.user = :user AND dp.exerciseList.id = :exerciseListId " +
+            "AND dp.setCount > 0 ORDER BY dp.workoutDate ASC")
+    List<ExerciseDailyProgress> findLoggedDays(@Param("user") User user, @Param("exerciseListId") Long exerciseListId);
+
+    // number of logged days over all time, decides whether a series is too long to send whole
+    @Query("SELECT COUNT(dp) FROM ExerciseDailyProgress dp WHERE dp.user = :user AND dp.exerciseList.id = :exerciseListId " +
+            "AND dp.setCount > 0")
+    long countLoggedDays(@Param("user") User user, @Param("exerciseListId") Long exerciseListId);
+
+    // rows written after a client's revision, tombstones included so removed days can be dropped client side
+    List<ExerciseDailyProgress> findByUserAndExerciseListIdAndRevisionGreaterThanOrderByWorkoutDateAsc(
+            User user, Long exerciseListId, long revision);
+
+    // weekly or monthly volume of one exercise, summed by the database from the daily rows
+    // null dates leave that side of the range open
+    @Query("SELECT new com.github.punnfect.workout_tracker.dto.VolumePeriodRow(" +
+            "e.name, dp.weekStart, SUM(dp.totalVolume), SUM(dp.setCount), COUNT(DISTINCT dp.workoutDate)) " +
+            "FROM ExerciseDailyProgress dp JOIN dp.exerciseList e " +
+            "WHERE dp.user = :user AND e.id = :exerciseListId AND dp.setCount > 0 " +
+            "AND (:startDate IS NULL OR dp.workoutDate >= :startDate) AND (:endDate IS NULL OR dp.workoutDate <= :endDate) " +
+            "GROUP BY e.name, dp.weekStart ORDER BY dp.weekStart ASC")
+    List<VolumePeriodRow> sumWeeklyVolume(@Param("user") User user, @Param("exerciseListId") Long exerciseListId,
+                                          @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.github.punnfect.workout_tracker.dto.VolumePeriodRow(" +
+            "e.name, dp.monthStart, SUM(dp.totalVolume), SUM(dp.setCount), COUNT(DISTINCT dp.workoutDate)) " +
+            "FROM ExerciseDailyProgress dp JOIN dp.exerciseList e " +
+            "WHERE dp.user = :user AND e.id = :exerciseListId AND dp.setCount > 0 " +
+            "AND (:startDate IS NULL OR dp.workoutDate >= :startDate) AND (:endDate IS NULL OR dp.workoutDate <= :endDate) " +
+            "GROUP BY e.name, dp.monthStart ORDER BY dp.monthStart ASC")
+    List<VolumePeriodRow> sumMonthlyVolume(@Param("user") User user, @Param("exerciseListId") Long exerciseListId,
+                                           @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // weekly or monthly volume per muscle group across every exercise, exercises without a group come back with a null label
+    // dayCount is the number of distinct days the group was trained
+    @Query("SELECT new com.github.punnfect.workout_tracker.dto.VolumePeriodRow(" +
+            "e.muscleGroup, dp.weekStart, SUM(dp.totalVolume), SUM(dp.setCount), COUNT(DISTINCT dp.workoutDate)) " +
+            "FROM ExerciseDailyProgress dp JOIN dp.exerciseList e " +
+            "WHERE dp.user = :user AND dp.setCount > 0 " +
+            "AND (:startDate IS NULL OR dp.workoutDate >= :startDate) AND (:endDate IS NULL OR dp.workoutDate <= :endDate) " +
+            "GROUP BY e.muscleGroup, dp.weekStart ORDER BY e.muscleGroup ASC, dp.weekStart ASC")
+    List<VolumePeriodRow> sumWeeklyVolumeByMuscleGroup(@Param("user") User user,
+                                                       @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.github.punnfect.workout_tracker.dto.VolumePeriodRow(" +
+            "e.muscleGroup, dp.monthStart, SUM(dp.totalVolume), SUM(dp.setCount), COUNT(DISTINCT dp.workoutDate)) " +
+            "FROM ExerciseDailyProgress dp JOIN dp.exerciseList e " +
+            "WHERE dp.user = :user AND dp.setCount > 0 " +
+            "AND (:startDate IS NULL OR dp.workoutDate >= :startDate) AND (:endDate IS NULL OR dp.workoutDate <= :endDate) " +
+            "GROUP BY e.muscleGroup, dp.monthStart ORDER BY e.muscleGroup ASC, dp.monthStart ASC")
+    List<VolumePeriodRow> sumMonthlyVolumeByMuscleGroup(@Param("user") User user,
+                                                        @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // logged days written before the volume columns existed, DataInitializer rebuilds the rollup when any are left
+    boolean existsBySetCountGreaterThanAndWeekStartIsNull(int setCount);
+
+    // clears every rollup row for a user/exercise before a full rebuild
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ExerciseDailyProgress dp WHERE dp.user = :user AND dp.exerciseList.id = :exerciseListId")
+    void deleteByUserAndExerciseListId(@Param("user") User user, @Param("exerciseListId") Long exerciseListId);
+}
@@ -1,9 +1,23 @@
 package com.github.punnfect.workout_tracker.repository;
 
 import com.github.punnfect.workout_tracker.entities.ExerciseList;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface ExerciseListRepo extends JpaRepository<ExerciseList, Long> {
+
+    //Whole catalog for CatalogCache reloads, the result comes from the query cache until a catalog row changes
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries")
+    })
+    List<ExerciseList> findAll(Sort sort);
 }
@@ -0,0 +1,21 @@
+package com.github.punnfect.workout_tracker.repository;
+
+import com.github.punnfect.workout_tracker.entities.ExercisePersonalRecord;
+import com.github.punnfect.workout_tracker.entities.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ExercisePersonalRecordRepo extends JpaRepository<ExercisePersonalRecord, Long> {
+
+    // the single PR row for a user/exercise
+    Optional<ExercisePersonalRecord> findByUserAndExerciseListId(User user, Long exerciseListId);
+
+    // just the watermark, so conditional requests can be answered without loading the rollup
+    @Query("SELECT r.revision FROM ExercisePersonalRecord r WHERE r.user = :user AND r.exerciseList.id = :exerciseListId")
+    Optional<Long> findRevision(@Param("user") User user, @Param("exerciseListId") Long exerciseListId);
+}
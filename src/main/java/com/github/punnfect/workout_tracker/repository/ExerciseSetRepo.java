@@ -1,42 +1,62 @@
 package com.github.punnfect.workout_tracker.repository;
 
+import com.github.punnfect.workout_tracker.dto.ExerciseSetProgressRow;
 import com.github.punnfect.workout_tracker.entities.ExerciseSet;
 import com.github.punnfect.workout_tracker.entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExerciseSetRepo extends JpaRepository<ExerciseSet, Long> {
 
-    // finds all exercise sets for a specific exercise within startDate - endDate inclusive
-    @Query("SELECT es FROM ExerciseSet es " +
-            "JOIN FETCH es.exerciseList " +
-            "JOIN FETCH es.workout w " +
+    // finds the progress columns of every set for a specific exercise within startDate - endDate inclusive
+    @Query("SELECT new com.github.punnfect.workout_tracker.dto.ExerciseSetProgressRow(" +
+            "w.workoutDate, es.setNumber, es.weight, es.reps) " +
+            "FROM ExerciseSet es " +
+            "JOIN es.workout w " +
             "WHERE es.exerciseList.id = :exerciseListId " +
             "AND w.user = :user " +
             "AND w.workoutDate BETWEEN :startDate AND :endDate " +
             "ORDER BY w.workoutDate ASC, es.setNumber ASC")
-    List<ExerciseSet> findExerciseProgressByDateRange(
+    List<ExerciseSetProgressRow> findExerciseProgressByDateRange(
             @Param("exerciseListId") Long exerciseListId,
             @Param("user") User user,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate
     );
 
-    // finds all exercise sets for a specific exercise over all time
-    @Query("SELECT es FROM ExerciseSet es " +
-            "JOIN FETCH es.exerciseList " +
-            "JOIN FETCH es.workout w " +
+    // streams the progress columns of every set for a specific exercise over all time, fetched in chunks
+    // so a full history rebuild never materializes the whole list
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.github.punnfect.workout_tracker.dto.ExerciseSetProgressRow(" +
+            "w.workoutDate, es.setNumber, es.weight, es.reps) " +
+            "FROM ExerciseSet es " +
+            "JOIN es.workout w " +
             "WHERE es.exerciseList.id = :exerciseListId " +
             "AND w.user = :user " +
             "ORDER BY w.workoutDate ASC, es.setNumber ASC")
-    List<ExerciseSet> findAllExerciseProgress(
+    Stream<ExerciseSetProgressRow> streamAllExerciseProgress(
             @Param("exerciseListId") Long exerciseListId,
             @Param("user") User user
     );
-}
\ No newline at end of file
+
+    // ids of every exercise a user has logged at least one set for
+    @Query("SELECT DISTINCT es.exerciseList.id FROM ExerciseSet es " +
+            "WHERE es.workout.user = :user")
+    List<Long> findDistinctExerciseListIdsByUser(@Param("user") User user);
+
+    // set with its workout (user id and date) in one query, for deleting it
+    @EntityGraph(attributePaths = "workout")
+    Optional<ExerciseSet> findWithWorkoutById(Long id);
+}
@@ -1,7 +1,10 @@
 package com.github.punnfect.workout_tracker.repository;
 
 import com.github.punnfect.workout_tracker.entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,5 +13,10 @@ import java.util.Optional;
 public interface UserRepo extends JpaRepository<User, Long> {
 
     //Finds user by username, used for connecting a user to almost everything
+    //cached per username, any write to users makes Hibernate skip the cached result
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-queries")
+    })
     Optional<User> findByUsername(String username);
 }
@@ -0,0 +1,38 @@
+package com.github.punnfect.workout_tracker.repository;
+
+import com.github.punnfect.workout_tracker.entities.WorkoutDocument;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WorkoutDocumentRepo extends JpaRepository<WorkoutDocument, Long> {
+
+    Optional<WorkoutDocument> findByWorkoutIdAndUserId(Long workoutId, Long userId);
+
+    // keyset pages over the stored documents, of one user or of everyone
+    List<WorkoutDocument> findByUserIdAndWorkoutIdGreaterThanOrderByWorkoutId(Long userId, Long afterId, Limit limit);
+
+    List<WorkoutDocument> findByWorkoutIdGreaterThanOrderByWorkoutId(Long afterId, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM WorkoutDocument d WHERE d.workoutId = :workoutId")
+    int deleteByWorkoutId(@Param("workoutId") Long workoutId);
+
+    // a user's workouts that have no document yet (history from before the table existed, imports, deleted sets)
+    @Query("SELECT w.id FROM Workout w " +
+            "WHERE w.user.id = :userId AND w.id > :afterId " +
+            "AND NOT EXISTS (SELECT d.workoutId FROM WorkoutDocument d WHERE d.workoutId = w.id) " +
+            "ORDER BY w.id")
+    List<Long> findUndocumentedWorkoutIds(@Param("userId") Long userId, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT DISTINCT w.user.id FROM Workout w " +
+            "WHERE NOT EXISTS (SELECT d.workoutId FROM WorkoutDocument d WHERE d.workoutId = w.id)")
+    List<Long> findUsersWithUndocumentedWorkouts();
+}
@@ -0,0 +1,21 @@
+package com.github.punnfect.workout_tracker.repository;
+
+import com.github.punnfect.workout_tracker.entities.WorkoutOutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface WorkoutOutboxRepo extends JpaRepository<WorkoutOutboxEvent, Long> {
+
+    // oldest events still worth delivering, in the order they were published
+    List<WorkoutOutboxEvent> findByAttemptsLessThanOrderByIdAsc(int maxAttempts, Limit limit);
+
+    // the user's events still worth delivering, queued again once the event holding them back is dealt with
+    List<WorkoutOutboxEvent> findByUserIdAndAttemptsLessThanOrderByIdAsc(Long userId, int maxAttempts, Limit limit);
+
+    // whether one of the user's earlier events is still waiting, their later events queue up behind it
+    boolean existsByUserIdAndIdLessThanAndAttemptsLessThan(Long userId, Long id, int maxAttempts);
+}
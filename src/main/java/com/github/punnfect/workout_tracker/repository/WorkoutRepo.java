@@ -1,32 +1,42 @@
 package com.github.punnfect.workout_tracker.repository;
 
+import com.github.punnfect.workout_tracker.dto.WorkoutSummaryDto;
 import com.github.punnfect.workout_tracker.entities.User;
 import com.github.punnfect.workout_tracker.entities.Workout;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface WorkoutRepo extends JpaRepository<Workout, Long> {
 
-    //Will list a users workouts from new to old
-    List<Workout> findByUserOrderByWorkoutDateDesc(User user);
+    //First page of a users history from new to old, summary columns only
+    @Query("SELECT new com.github.punnfect.workout_tracker.dto.WorkoutSummaryDto(w.id, w.workoutDate, w.title) " +
+            "FROM Workout w " +
+            "WHERE w.user = :user " +
+            "ORDER BY w.workoutDate DESC, w.id DESC")
+    List<WorkoutSummaryDto> findHistoryFirstPage(@Param("user") User user, Limit limit);
 
-    //efficient query for pulling exercises
-    @Query("SELECT DISTINCT w FROM Workout w " +
-            "LEFT JOIN FETCH w.exerciseSets es " +
-            "LEFT JOIN FETCH es.exerciseList " +
-            "WHERE w.id = :id")
-    Optional<Workout> findByIdWithExerciseSets(@Param("id") Long id);
+    //Next page of history, seeks past the (workoutDate, id) of the last row already shown
+    @Query("SELECT new com.github.punnfect.workout_tracker.dto.WorkoutSummaryDto(w.id, w.workoutDate, w.title) " +
+            "FROM Workout w " +
+            "WHERE w.user = :user " +
+            "AND (w.workoutDate < :beforeDate OR (w.workoutDate = :beforeDate AND w.id < :beforeId)) " +
+            "ORDER BY w.workoutDate DESC, w.id DESC")
+    List<WorkoutSummaryDto> findHistoryPageBefore(@Param("user") User user,
+                                                  @Param("beforeDate") LocalDate beforeDate,
+                                                  @Param("beforeId") Long beforeId,
+                                                  Limit limit);
 
-    //efficient query for pulling cardio sessions
-    @Query("SELECT DISTINCT w FROM Workout w " +
-            "LEFT JOIN FETCH w.cardioSessions cs " +
-            "LEFT JOIN FETCH cs.cardioList " +
-            "WHERE w.id = :id")
-    Optional<Workout> findByIdWithCardioSessions(@Param("id") Long id);
+    //workout with its sets for saving or deleting it, the cardio sessions load on first access
+    @EntityGraph(Workout.EDIT)
+    @Query("SELECT w FROM Workout w WHERE w.id = :id")
+    Optional<Workout> findForEditById(@Param("id") Long id);
 }
@@ -1,4 +1,198 @@
 package com.github.punnfect.workout_tracker.services;
 
+import com.github.punnfect.workout_tracker.dto.BodyMetricsIngestDto;
+import com.github.punnfect.workout_tracker.dto.BodyMetricsPointDto;
+import com.github.punnfect.workout_tracker.dto.BodyMetricsRow;
+import com.github.punnfect.workout_tracker.dto.BodyMetricsSeriesDto;
+import com.github.punnfect.workout_tracker.entities.BodyMetrics;
+import com.github.punnfect.workout_tracker.entities.User;
+import com.github.punnfect.workout_tracker.repository.BodyMetricsRepo;
+import com.github.punnfect.workout_tracker.repository.UserRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/*
+Body weight time series, one entry per user and day.
+Every entry stores its trailing 7 and 30 day weight averages. A write can only move the averages of
+entries up to 29 days after it, so each write reloads that window (plus the 29 days before it that
+feed the averages) and recomputes just those rows. Reads never aggregate, the latest entry already
+holds the dashboard numbers.
+*/
+@Service
 public class BodyMetricsService {
+
+    private static final Logger log = LoggerFactory.getLogger(BodyMetricsService.class);
+
+    private static final int SHORT_WINDOW_DAYS = 7;
+    private static final int LONG_WINDOW_DAYS = 30;
+
+    private static final BigDecimal MAX_WEIGHT_LBS = new BigDecimal("999.99");
+
+    private final BodyMetricsRepo bodyMetricsRepo;
+    private final UserRepo userRepo;
+    private final CurrentUserService currentUserService;
+
+    public BodyMetricsService(BodyMetricsRepo bodyMetricsRepo, UserRepo userRepo, CurrentUserService currentUserService) {
+        this.bodyMetricsRepo = bodyMetricsRepo;
+        this.userRepo = userRepo;
+        this.currentUserService = currentUserService;
+    }
+
+    // Upserts entries by date for the current user, e.g. a scale sync
+    // fields left null keep their stored value, a later row for the same date wins
+    @Transactional
+    public BodyMetricsIngestDto ingest(List<BodyMetricsRow> rows) {
+        NavigableMap<LocalDate, BodyMetricsRow> byDate = new TreeMap<>();
+        for (BodyMetricsRow row : rows) {
+            validate(row);
+            byDate.put(row.getDate(), row);
+        }
+        if (byDate.isEmpty()) {
+            return new BodyMetricsIngestDto(0, 0);
+        }
+
+        User currentUser = currentUserService.getCurrentUser();
+        LocalDate first = byDate.firstKey();
+        LocalDate last = byDate.lastKey();
+        NavigableMap<LocalDate, BodyMetrics> entries = loadWindow(currentUser, first, last);
+
+        List<BodyMetrics> created = new ArrayList<>();
+        int updated = 0;
+        for (BodyMetricsRow row : byDate.values()) {
+            BodyMetrics entry = entries.get(row.getDate());
+            if (entry == null) {
+                entry = new BodyMetrics();
+                entry.setUser(currentUser);
+                entry.setMetricDate(row.getDate());
+                entries.put(row.getDate(), entry);
+                created.add(entry);
+            } else {
+                updated++;
+            }
+
+            if (row.getWeightLbs() != null) {
+                entry.setWeightLbs(row.getWeightLbs());
+            }
+            if (row.getNotes() != null) {
+                entry.setNotes(row.getNotes());
+            }
+        }
+
+        updateAverages(entries, first, last.plusDays(LONG_WINDOW_DAYS - 1));
+
+        // existing entries are managed, dirty checking writes the ones whose values or averages moved
+        bodyMetricsRepo.saveAll(created);
+        return new BodyMetricsIngestDto(created.size(), updated);
+    }
+
+    // Removes the current user's entry for a day, the following entries lose it from their averages
+    @Transactional
+    public void deleteEntry(LocalDate date) {
+        User currentUser = currentUserService.getCurrentUser();
+        NavigableMap<LocalDate, BodyMetrics> entries = loadWindow(currentUser, date, date);
+
+        BodyMetrics entry = entries.remove(date);
+        if (entry == null) {
+            return;
+        }
+        bodyMetricsRepo.delete(entry);
+        updateAverages(entries, date, date.plusDays(LONG_WINDOW_DAYS - 1));
+    }
+
+    // entries for startDate - endDate (null for all time) plus the newest entry for the summary
+    @Transactional(readOnly = true)
+    public BodyMetricsSeriesDto getSeries(LocalDate startDate, LocalDate endDate) {
+        User currentUser = currentUserService.getCurrentUser();
+
+        List<BodyMetrics> entries = startDate != null && endDate != null
+                ? bodyMetricsRepo.findByUserAndMetricDateBetweenOrderByMetricDateAsc(currentUser, startDate, endDate)
+                : bodyMetricsRepo.findByUserOrderByMetricDateAsc(currentUser);
+
+        List<BodyMetricsPointDto> points = entries.stream()
+                .map(BodyMetricsService::toPoint)
+                .collect(Collectors.toList());
+
+        return new BodyMetricsSeriesDto(startDate, endDate, points, getLatest().orElse(null));
+    }
+
+    // newest entry with its stored averages, one indexed row
+    @Transactional(readOnly = true)
+    public Optional<BodyMetricsPointDto> getLatest() {
+        return bodyMetricsRepo.findFirstByUserOrderByMetricDateDesc(currentUserService.getCurrentUser())
+                .map(BodyMetricsService::toPoint);
+    }
+
+    // recomputes every stored average, used to backfill entries written before the averages existed
+    @Transactional
+    public void rebuildAverages() {
+        for (User user : userRepo.findAll()) {
+            NavigableMap<LocalDate, BodyMetrics> entries = new TreeMap<>();
+            bodyMetricsRepo.findByUserOrderByMetricDateAsc(user).forEach(entry -> entries.put(entry.getMetricDate(), entry));
+            if (!entries.isEmpty()) {
+                updateAverages(entries, entries.firstKey(), entries.lastKey());
+                log.info("Rebuilt body metrics averages for user '{}' across {} entries", user.getUsername(), entries.size());
+            }
+        }
+    }
+
+    // entries from first - 29 days to last + 29 days, everything a write between first and last can read or change
+    private NavigableMap<LocalDate, BodyMetrics> loadWindow(User user, LocalDate first, LocalDate last) {
+        NavigableMap<LocalDate, BodyMetrics> entries = new TreeMap<>();
+        bodyMetricsRepo.findByUserAndMetricDateBetweenOrderByMetricDateAsc(
+                        user, first.minusDays(LONG_WINDOW_DAYS - 1), last.plusDays(LONG_WINDOW_DAYS - 1))
+                .forEach(entry -> entries.put(entry.getMetricDate(), entry));
+        return entries;
+    }
+
+    // entries must include the 29 days before from so every window is complete
+    private static void updateAverages(NavigableMap<LocalDate, BodyMetrics> entries, LocalDate from, LocalDate to) {
+        for (BodyMetrics entry : entries.subMap(from, true, to, true).values()) {
+            entry.setAverage7DayLbs(average(entries, entry.getMetricDate(), SHORT_WINDOW_DAYS));
+            entry.setAverage30DayLbs(average(entries, entry.getMetricDate(), LONG_WINDOW_DAYS));
+        }
+    }
+
+    // mean weight of the entries in the days calendar days ending on date, null if none logged a weight
+    private static BigDecimal average(NavigableMap<LocalDate, BodyMetrics> entries, LocalDate date, int days) {
+        BigDecimal sum = BigDecimal.ZERO;
+        int count = 0;
+        for (BodyMetrics entry : entries.subMap(date.minusDays(days - 1), true, date, true).values()) {
+            if (entry.getWeightLbs() != null) {
+                sum = sum.add(entry.getWeightLbs());
+                count++;
+            }
+        }
+        return count == 0 ? null : sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    private static void validate(BodyMetricsRow row) {
+        if (row == null || row.getDate() == null) {
+            throw new IllegalArgumentException("Body metrics entries need a date");
+        }
+        if (row.getWeightLbs() != null
+                && (row.getWeightLbs().signum() <= 0 || row.getWeightLbs().compareTo(MAX_WEIGHT_LBS) > 0)) {
+            throw new IllegalArgumentException("Weight for " + row.getDate() + " must be between 0 and " + MAX_WEIGHT_LBS + " lbs");
+        }
+    }
+
+    private static BodyMetricsPointDto toPoint(BodyMetrics entry) {
+        return new BodyMetricsPointDto(
+                entry.getMetricDate(),
+                entry.getWeightLbs(),
+                entry.getAverage7DayLbs(),
+                entry.getAverage30DayLbs(),
+                entry.getNotes());
+    }
 }
@@ -0,0 +1,107 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.dto.CardioStatsDto;
+import com.github.punnfect.workout_tracker.entities.CardioDailyProgress;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/*
+Single pass over cardio sessions ordered by date, the cardio twin of ExerciseProgressAggregator.
+Only the running day is kept in memory, each finished day goes to the sink and into the stats.
+*/
+final class CardioProgressAggregator {
+
+    private final Function<LocalDate, CardioDailyProgress> dayFactory;
+    private final Consumer<CardioDailyProgress> daySink;
+    private final CardioStatsDto stats = CardioStats.empty();
+
+    // running totals for the current day
+    private LocalDate currentDate;
+    private int sessionCount;
+    private BigDecimal totalDistance;
+    private Integer totalDurationMinutes;
+    private BigDecimal pacedDistance;
+    private Integer pacedDurationMinutes;
+    private BigDecimal longestDistance;
+    private Integer longestDurationMinutes;
+    private BigDecimal bestPace;
+
+    CardioProgressAggregator(Function<LocalDate, CardioDailyProgress> dayFactory,
+                             Consumer<CardioDailyProgress> daySink) {
+        this.dayFactory = dayFactory;
+        this.daySink = daySink;
+    }
+
+    //sessions must arrive ordered by date
+    void accept(LocalDate date, Integer durationMinutes, BigDecimal distance) {
+        if (currentDate != null && !currentDate.equals(date)) {
+            finishDay();
+        }
+        currentDate = date;
+        sessionCount++;
+
+        if (distance != null) {
+            totalDistance = totalDistance == null ? distance : totalDistance.add(distance);
+            if (longestDistance == null || distance.compareTo(longestDistance) > 0) {
+                longestDistance = distance;
+            }
+        }
+
+        if (durationMinutes != null) {
+            totalDurationMinutes = totalDurationMinutes == null ? durationMinutes : totalDurationMinutes + durationMinutes;
+            if (longestDurationMinutes == null || durationMinutes > longestDurationMinutes) {
+                longestDurationMinutes = durationMinutes;
+            }
+        }
+
+        BigDecimal pace = durationMinutes == null ? null : CardioStats.pace(durationMinutes, distance);
+        if (pace != null) {
+            pacedDistance = pacedDistance == null ? distance : pacedDistance.add(distance);
+            pacedDurationMinutes = pacedDurationMinutes == null ? durationMinutes : pacedDurationMinutes + durationMinutes;
+            if (bestPace == null || pace.compareTo(bestPace) < 0) {
+                bestPace = pace;
+            }
+        }
+    }
+
+    //flushes the last day and returns the stats over everything accepted
+    CardioStatsDto finish() {
+        if (currentDate != null) {
+            finishDay();
+        }
+        return CardioStats.withAveragePace(stats);
+    }
+
+    private void finishDay() {
+        CardioDailyProgress day = dayFactory.apply(currentDate);
+        day.setSessionCount(sessionCount);
+        day.setTotalDistance(totalDistance);
+        day.setTotalDurationMinutes(totalDurationMinutes);
+        day.setPacedDistance(pacedDistance);
+        day.setPacedDurationMinutes(pacedDurationMinutes);
+        day.setLongestDistance(longestDistance);
+        day.setLongestDurationMinutes(longestDurationMinutes);
+        day.setBestPace(bestPace);
+        day.setWeekStart(currentDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+        day.setMonthStart(currentDate.withDayOfMonth(1));
+
+        CardioStats.mergeBests(stats, day);
+        CardioStats.addTotals(stats, day, 1);
+        daySink.accept(day);
+
+        currentDate = null;
+        sessionCount = 0;
+        totalDistance = null;
+        totalDurationMinutes = null;
+        pacedDistance = null;
+        pacedDurationMinutes = null;
+        longestDistance = null;
+        longestDurationMinutes = null;
+        bestPace = null;
+    }
+}
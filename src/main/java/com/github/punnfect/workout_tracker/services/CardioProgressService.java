@@ -0,0 +1,119 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.dto.CardioPeriodRow;
+import com.github.punnfect.workout_tracker.dto.CardioProgressDto;
+import com.github.punnfect.workout_tracker.dto.CardioProgressPointDto;
+import com.github.punnfect.workout_tracker.dto.CardioStatsDto;
+import com.github.punnfect.workout_tracker.dto.CardioTrendBucketDto;
+import com.github.punnfect.workout_tracker.dto.CardioTrendDto;
+import com.github.punnfect.workout_tracker.dto.CatalogEntryDto;
+import com.github.punnfect.workout_tracker.entities.CardioDailyProgress;
+import com.github.punnfect.workout_tracker.entities.User;
+import com.github.punnfect.workout_tracker.repository.CardioDailyProgressRepo;
+import com.github.punnfect.workout_tracker.repository.CardioPersonalRecordRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+Cardio progress reads, served from the cardio rollup only.
+All time bests and totals are a single record row, ranges fold the daily rows and
+weekly/monthly trends are summed by GROUP BY queries, sessions themselves are never scanned.
+*/
+@Service
+public class CardioProgressService {
+
+    private final CardioDailyProgressRepo dailyProgressRepo;
+    private final CardioPersonalRecordRepo personalRecordRepo;
+    private final CatalogCache catalogCache;
+    private final CurrentUserService currentUserService;
+
+    public CardioProgressService(CardioDailyProgressRepo dailyProgressRepo,
+                                 CardioPersonalRecordRepo personalRecordRepo,
+                                 CatalogCache catalogCache,
+                                 CurrentUserService currentUserService) {
+        this.dailyProgressRepo = dailyProgressRepo;
+        this.personalRecordRepo = personalRecordRepo;
+        this.catalogCache = catalogCache;
+        this.currentUserService = currentUserService;
+    }
+
+    // daily distance, duration and pace plus bests for the range, null dates mean all time
+    @Transactional(readOnly = true)
+    public CardioProgressDto getCardioProgress(Long cardioListId, LocalDate startDate, LocalDate endDate) {
+        String activityName = activityName(cardioListId);
+        User currentUser = currentUserService.getCurrentUser();
+
+        List<CardioDailyProgress> days = startDate != null && endDate != null
+                ? dailyProgressRepo.findByUserAndCardioListIdAndWorkoutDateBetweenOrderByWorkoutDateAsc(
+                        currentUser, cardioListId, startDate, endDate)
+                : dailyProgressRepo.findByUserAndCardioListIdOrderByWorkoutDateAsc(currentUser, cardioListId);
+
+        List<CardioProgressPointDto> dataPoints = days.stream()
+                .map(CardioProgressService::toPoint)
+                .collect(Collectors.toList());
+
+        CardioStatsDto stats;
+        if (startDate != null && endDate != null) {
+            stats = CardioStats.fold(days);
+        } else {
+            stats = personalRecordRepo.findByUserAndCardioListId(currentUser, cardioListId)
+                    .map(CardioStats::toDto)
+                    .orElseGet(CardioStats::empty);
+        }
+
+        return new CardioProgressDto(activityName, dataPoints, stats);
+    }
+
+    // all time bests and totals, one row read
+    @Transactional(readOnly = true)
+    public CardioStatsDto getCardioStats(Long cardioListId) {
+        activityName(cardioListId);
+        return personalRecordRepo.findByUserAndCardioListId(currentUserService.getCurrentUser(), cardioListId)
+                .map(CardioStats::toDto)
+                .orElseGet(CardioStats::empty);
+    }
+
+    // weekly or monthly distance, duration and average pace
+    @Transactional(readOnly = true)
+    public CardioTrendDto getCardioTrend(Long cardioListId, VolumePeriod period, LocalDate startDate, LocalDate endDate) {
+        String activityName = activityName(cardioListId);
+        User currentUser = currentUserService.getCurrentUser();
+
+        List<CardioPeriodRow> rows = period == VolumePeriod.MONTH
+                ? dailyProgressRepo.sumMonthly(currentUser, cardioListId, startDate, endDate)
+                : dailyProgressRepo.sumWeekly(currentUser, cardioListId, startDate, endDate);
+
+        List<CardioTrendBucketDto> buckets = rows.stream()
+                .map(row -> new CardioTrendBucketDto(
+                        row.periodStart(),
+                        row.sessionCount(),
+                        row.dayCount(),
+                        row.totalDistance() != null ? row.totalDistance() : BigDecimal.ZERO,
+                        row.totalDurationMinutes() != null ? row.totalDurationMinutes() : 0L,
+                        CardioStats.pace(row.pacedDurationMinutes() != null ? row.pacedDurationMinutes() : 0L, row.pacedDistance())))
+                .collect(Collectors.toList());
+
+        return new CardioTrendDto(activityName, period.name().toLowerCase(), startDate, endDate, buckets);
+    }
+
+    private String activityName(Long cardioListId) {
+        return catalogCache.findCardioActivity(cardioListId)
+                .map(CatalogEntryDto::getName)
+                .orElseThrow(() -> new RuntimeException("Cardio activity not found with id: " + cardioListId));
+    }
+
+    private static CardioProgressPointDto toPoint(CardioDailyProgress day) {
+        return new CardioProgressPointDto(
+                day.getWorkoutDate(),
+                day.getSessionCount(),
+                day.getTotalDistance(),
+                day.getTotalDurationMinutes(),
+                CardioStats.pace(day.getPacedDurationMinutes() != null ? day.getPacedDurationMinutes() : 0, day.getPacedDistance()),
+                day.getBestPace());
+    }
+}
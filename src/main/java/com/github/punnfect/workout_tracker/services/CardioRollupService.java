@@ -0,0 +1,151 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.dto.CardioSessionProgressRow;
+import com.github.punnfect.workout_tracker.dto.CardioStatsDto;
+import com.github.punnfect.workout_tracker.entities.CardioDailyProgress;
+import com.github.punnfect.workout_tracker.entities.CardioPersonalRecord;
+import com.github.punnfect.workout_tracker.entities.User;
+import com.github.punnfect.workout_tracker.repository.CardioDailyProgressRepo;
+import com.github.punnfect.workout_tracker.repository.CardioListRepo;
+import com.github.punnfect.workout_tracker.repository.CardioPersonalRecordRepo;
+import com.github.punnfect.workout_tracker.repository.CardioSessionRepo;
+import com.github.punnfect.workout_tracker.repository.UserRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/*
+Keeps cardio_daily_progress and cardio_personal_records in sync with cardio_sessions, like
+ProgressRollupService does for strength. Totals on the record row move by the difference of each
+refreshed day, bests only trigger a rescan of the daily rows when the refreshed day held one.
+*/
+@Service
+public class CardioRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(CardioRollupService.class);
+
+    private final CardioDailyProgressRepo dailyProgressRepo;
+    private final CardioPersonalRecordRepo personalRecordRepo;
+    private final CardioSessionRepo cardioSessionRepo;
+    private final CardioListRepo cardioListRepo;
+    private final UserRepo userRepo;
+    private final TransactionTemplate transactionTemplate;
+
+    public CardioRollupService(CardioDailyProgressRepo dailyProgressRepo,
+                               CardioPersonalRecordRepo personalRecordRepo,
+                               CardioSessionRepo cardioSessionRepo,
+                               CardioListRepo cardioListRepo,
+                               UserRepo userRepo,
+                               TransactionTemplate transactionTemplate) {
+        this.dailyProgressRepo = dailyProgressRepo;
+        this.personalRecordRepo = personalRecordRepo;
+        this.cardioSessionRepo = cardioSessionRepo;
+        this.cardioListRepo = cardioListRepo;
+        this.userRepo = userRepo;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // recomputes the rollup rows of each activity for a single day
+    @Transactional
+    public void refreshDays(User user, LocalDate workoutDate, Collection<Long> cardioListIds) {
+        for (Long cardioListId : cardioListIds) {
+            refreshDay(user, cardioListId, workoutDate);
+        }
+    }
+
+    // recomputes one rollup row from that day's sessions, a day with no sessions left is removed
+    @Transactional
+    public void refreshDay(User user, Long cardioListId, LocalDate workoutDate) {
+        CardioPersonalRecord record = findOrCreatePersonalRecord(user, cardioListId);
+        Optional<CardioDailyProgress> existing = dailyProgressRepo
+                .findByUserAndCardioListIdAndWorkoutDate(user, cardioListId, workoutDate);
+
+        // take the old day out of the totals before the aggregator overwrites it
+        CardioStatsDto stats = CardioStats.toDto(record);
+        existing.ifPresent(day -> CardioStats.addTotals(stats, day, -1));
+
+        List<CardioDailyProgress> refreshed = new ArrayList<>(1);
+        CardioProgressAggregator aggregator = new CardioProgressAggregator(
+                date -> existing.orElseGet(() -> newDay(user, cardioListId, date)), refreshed::add);
+        for (CardioSessionProgressRow session : cardioSessionRepo.findCardioProgressByDate(cardioListId, user, workoutDate)) {
+            aggregator.accept(session.workoutDate(), session.durationMinutes(), session.distance());
+        }
+        aggregator.finish();
+
+        CardioDailyProgress day = refreshed.isEmpty() ? null : refreshed.get(0);
+        if (day == null) {
+            existing.ifPresent(dailyProgressRepo::delete);
+        } else {
+            dailyProgressRepo.save(day);
+            CardioStats.addTotals(stats, day, 1);
+        }
+
+        if (CardioStats.heldOn(stats, workoutDate)) {
+            // one of the bests may have gone down, rescanning the daily rows also recounts the totals
+            CardioStats.copyInto(CardioStats.fold(
+                    dailyProgressRepo.findByUserAndCardioListIdOrderByWorkoutDateAsc(user, cardioListId)), record);
+        } else {
+            if (day != null) {
+                CardioStats.mergeBests(stats, day);
+            }
+            CardioStats.copyInto(stats, record);
+        }
+        personalRecordRepo.save(record);
+    }
+
+    // drops and rebuilds every rollup row and the record row for a user/activity in one pass over a session cursor
+    @Transactional
+    public void rebuild(User user, Long cardioListId) {
+        CardioPersonalRecord record = findOrCreatePersonalRecord(user, cardioListId);
+        dailyProgressRepo.deleteByUserAndCardioListId(user, cardioListId);
+
+        CardioProgressAggregator aggregator = new CardioProgressAggregator(
+                date -> newDay(user, cardioListId, date), dailyProgressRepo::save);
+
+        try (Stream<CardioSessionProgressRow> sessions = cardioSessionRepo.streamAllCardioProgress(cardioListId, user)) {
+            sessions.forEach(session -> aggregator.accept(session.workoutDate(), session.durationMinutes(), session.distance()));
+        }
+
+        CardioStats.copyInto(aggregator.finish(), record);
+        personalRecordRepo.save(record);
+    }
+
+    // rebuilds the cardio rollup for every user, used to backfill existing history
+    // one transaction per activity, like ProgressRollupService.rebuildAll
+    public void rebuildAll() {
+        for (User user : userRepo.findAll()) {
+            List<Long> cardioListIds = cardioSessionRepo.findDistinctCardioListIdsByUser(user);
+            for (Long cardioListId : cardioListIds) {
+                transactionTemplate.executeWithoutResult(status -> rebuild(user, cardioListId));
+            }
+            log.info("Rebuilt cardio rollup for user '{}' across {} activities", user.getUsername(), cardioListIds.size());
+        }
+    }
+
+    private CardioPersonalRecord findOrCreatePersonalRecord(User user, Long cardioListId) {
+        return personalRecordRepo.findByUserAndCardioListId(user, cardioListId)
+                .orElseGet(() -> {
+                    CardioPersonalRecord record = new CardioPersonalRecord();
+                    record.setUser(user);
+                    record.setCardioList(cardioListRepo.getReferenceById(cardioListId));
+                    return record;
+                });
+    }
+
+    private CardioDailyProgress newDay(User user, Long cardioListId, LocalDate workoutDate) {
+        CardioDailyProgress day = new CardioDailyProgress();
+        day.setUser(user);
+        day.setCardioList(cardioListRepo.getReferenceById(cardioListId));
+        day.setWorkoutDate(workoutDate);
+        return day;
+    }
+}
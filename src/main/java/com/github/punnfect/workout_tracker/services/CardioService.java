@@ -1,24 +1,21 @@
 package com.github.punnfect.workout_tracker.services;
 
-import com.github.punnfect.workout_tracker.entities.CardioList;
-import com.github.punnfect.workout_tracker.repository.CardioListRepo;
+import com.github.punnfect.workout_tracker.dto.CatalogEntryDto;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
 public class CardioService {
 
-    private final CardioListRepo cardioListRepo;
+    private final CatalogCache catalogCache;
 
-    public CardioService(CardioListRepo cardioListRepo) {
-        this.cardioListRepo = cardioListRepo;
+    public CardioService(CatalogCache catalogCache) {
+        this.catalogCache = catalogCache;
     }
 
-    //Returns all db entered cardio activities
-    @Transactional(readOnly = true)
-    public List<CardioList> getAllCardioActivities() {
-        return cardioListRepo.findAll();
+    //Returns all cardio activities, served from the catalog cache
+    public List<CatalogEntryDto> getAllCardioActivities() {
+        return catalogCache.getCardioActivities();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,140 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.dto.CardioStatsDto;
+import com.github.punnfect.workout_tracker.entities.CardioDailyProgress;
+import com.github.punnfect.workout_tracker.entities.CardioPersonalRecord;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+// shared stat folding for cardio range stats and the persisted cardio records
+final class CardioStats {
+
+    private CardioStats() {
+    }
+
+    //minutes per unit of distance, null unless both sides were logged
+    static BigDecimal pace(long durationMinutes, BigDecimal distance) {
+        if (durationMinutes <= 0 || distance == null || distance.signum() <= 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(durationMinutes).divide(distance, 2, RoundingMode.HALF_UP);
+    }
+
+    static CardioStatsDto empty() {
+        CardioStatsDto stats = new CardioStatsDto();
+        stats.setTotalDistance(BigDecimal.ZERO);
+        stats.setPacedDistance(BigDecimal.ZERO);
+        return stats;
+    }
+
+    //folds daily rollup rows into bests and totals in a single pass
+    static CardioStatsDto fold(Iterable<CardioDailyProgress> days) {
+        CardioStatsDto stats = empty();
+        for (CardioDailyProgress day : days) {
+            mergeBests(stats, day);
+            addTotals(stats, day, 1);
+        }
+        return withAveragePace(stats);
+    }
+
+    //merges one day's best sessions into the stats, returns true if any best changed
+    //ties go to the earlier date, same as walking the history in order
+    static boolean mergeBests(CardioStatsDto stats, CardioDailyProgress day) {
+        LocalDate date = day.getWorkoutDate();
+        boolean changed = false;
+
+        if (beats(day.getLongestDistance(), date, stats.getLongestDistance(), stats.getLongestDistanceDate(), 1)) {
+            stats.setLongestDistance(day.getLongestDistance());
+            stats.setLongestDistanceDate(date);
+            changed = true;
+        }
+
+        if (beats(toDecimal(day.getLongestDurationMinutes()), date,
+                toDecimal(stats.getLongestDurationMinutes()), stats.getLongestDurationDate(), 1)) {
+            stats.setLongestDurationMinutes(day.getLongestDurationMinutes());
+            stats.setLongestDurationDate(date);
+            changed = true;
+        }
+
+        // lower pace is faster
+        if (beats(day.getBestPace(), date, stats.getBestPace(), stats.getBestPaceDate(), -1)) {
+            stats.setBestPace(day.getBestPace());
+            stats.setBestPaceDate(date);
+            changed = true;
+        }
+
+        return changed;
+    }
+
+    //adds (sign 1) or removes (sign -1) one day from the running totals
+    static void addTotals(CardioStatsDto stats, CardioDailyProgress day, int sign) {
+        BigDecimal factor = BigDecimal.valueOf(sign);
+        stats.setSessionCount(stats.getSessionCount() + (long) sign * day.getSessionCount());
+        stats.setTotalDistance(stats.getTotalDistance().add(orZero(day.getTotalDistance()).multiply(factor)));
+        stats.setTotalDurationMinutes(stats.getTotalDurationMinutes() + (long) sign * orZero(day.getTotalDurationMinutes()));
+        stats.setPacedDistance(stats.getPacedDistance().add(orZero(day.getPacedDistance()).multiply(factor)));
+        stats.setPacedDurationMinutes(stats.getPacedDurationMinutes() + (long) sign * orZero(day.getPacedDurationMinutes()));
+    }
+
+    static CardioStatsDto withAveragePace(CardioStatsDto stats) {
+        stats.setAveragePace(pace(stats.getPacedDurationMinutes(), stats.getPacedDistance()));
+        return stats;
+    }
+
+    //true if any of the bests was set on the given day
+    static boolean heldOn(CardioStatsDto stats, LocalDate date) {
+        return date.equals(stats.getLongestDistanceDate())
+                || date.equals(stats.getLongestDurationDate())
+                || date.equals(stats.getBestPaceDate());
+    }
+
+    static CardioStatsDto toDto(CardioPersonalRecord record) {
+        CardioStatsDto stats = new CardioStatsDto(
+                record.getLongestDistance(), record.getLongestDistanceDate(),
+                record.getLongestDurationMinutes(), record.getLongestDurationDate(),
+                record.getBestPace(), record.getBestPaceDate(),
+                record.getSessionCount(), orZero(record.getTotalDistance()), record.getTotalDurationMinutes(), null,
+                orZero(record.getPacedDistance()), record.getPacedDurationMinutes());
+        return withAveragePace(stats);
+    }
+
+    static void copyInto(CardioStatsDto stats, CardioPersonalRecord record) {
+        record.setLongestDistance(stats.getLongestDistance());
+        record.setLongestDistanceDate(stats.getLongestDistanceDate());
+        record.setLongestDurationMinutes(stats.getLongestDurationMinutes());
+        record.setLongestDurationDate(stats.getLongestDurationDate());
+        record.setBestPace(stats.getBestPace());
+        record.setBestPaceDate(stats.getBestPaceDate());
+        record.setSessionCount(stats.getSessionCount());
+        record.setTotalDistance(stats.getTotalDistance());
+        record.setTotalDurationMinutes(stats.getTotalDurationMinutes());
+        record.setPacedDistance(stats.getPacedDistance());
+        record.setPacedDurationMinutes(stats.getPacedDurationMinutes());
+    }
+
+    //direction 1 means higher wins, -1 means lower wins
+    private static boolean beats(BigDecimal value, LocalDate date, BigDecimal best, LocalDate bestDate, int direction) {
+        if (value == null) {
+            return false;
+        }
+        if (best == null) {
+            return true;
+        }
+        int comparison = value.compareTo(best) * direction;
+        return comparison > 0 || (comparison == 0 && date.isBefore(bestDate));
+    }
+
+    private static BigDecimal toDecimal(Integer value) {
+        return value == null ? null : BigDecimal.valueOf(value);
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+
+    private static int orZero(Integer value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.dto.CatalogEntryDto;
+import com.github.punnfect.workout_tracker.repository.CardioListRepo;
+import com.github.punnfect.workout_tracker.repository.ExerciseListRepo;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+In memory copy of exercise_list and cardio_list. The catalog almost never changes,
+so reads share one immutable snapshot that is only reloaded after a catalog write
+(see CatalogChangeListener) or an explicit invalidate.
+*/
+@Component
+public class CatalogCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogCache.class);
+
+    private final ExerciseListRepo exerciseListRepo;
+    private final CardioListRepo cardioListRepo;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // null until first use and after every invalidate
+    private volatile Snapshot snapshot;
+
+    public CatalogCache(ExerciseListRepo exerciseListRepo, CardioListRepo cardioListRepo, MeterRegistry meterRegistry) {
+        this.exerciseListRepo = exerciseListRepo;
+        this.cardioListRepo = cardioListRepo;
+
+        FunctionCounter.builder("catalog.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .description("Catalog reads served from the in memory snapshot")
+                .register(meterRegistry);
+        FunctionCounter.builder("catalog.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .description("Catalog reads that had to reload the snapshot from the database")
+                .register(meterRegistry);
+    }
+
+    // all exercises sorted by name, for dropdowns
+    public List<CatalogEntryDto> getExercises() {
+        return current().exercises();
+    }
+
+    // all cardio activities sorted by name, for dropdowns
+    public List<CatalogEntryDto> getCardioActivities() {
+        return current().cardioActivities();
+    }
+
+    public Optional<CatalogEntryDto> findExercise(Long id) {
+        return Optional.ofNullable(current().exercisesById().get(id));
+    }
+
+    public Optional<CatalogEntryDto> findCardioActivity(Long id) {
+        return Optional.ofNullable(current().cardioById().get(id));
+    }
+
+    // case insensitive name lookups, used to resolve imported rows
+    public Optional<CatalogEntryDto> findExerciseByName(String name) {
+        return Optional.ofNullable(current().exercisesByName().get(nameKey(name)));
+    }
+
+    public Optional<CatalogEntryDto> findCardioActivityByName(String name) {
+        return Optional.ofNullable(current().cardioByName().get(nameKey(name)));
+    }
+
+    public static String nameKey(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // drops the snapshot, the next read reloads it
+    // shares the monitor with the reload in current(): a reload that read the rows before the change committed
+    // publishes its snapshot before this runs, so it is dropped here rather than kept until the next change
+    public void invalidate() {
+        synchronized (this) {
+            snapshot = null;
+        }
+        log.debug("Catalog cache invalidated");
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            hits.incrementAndGet();
+            return current;
+        }
+
+        synchronized (this) {
+            // another thread may have reloaded while we waited
+            if (snapshot == null) {
+                misses.incrementAndGet();
+                snapshot = load();
+            } else {
+                hits.incrementAndGet();
+            }
+            return snapshot;
+        }
+    }
+
+    private Snapshot load() {
+        Map<Long, CatalogEntryDto> exercises = new LinkedHashMap<>();
+        exerciseListRepo.findAll(Sort.by("name"))
+                .forEach(ex -> exercises.put(ex.getId(), new CatalogEntryDto(ex.getId(), ex.getName())));
+
+        Map<Long, CatalogEntryDto> cardio = new LinkedHashMap<>();
+        cardioListRepo.findAll(Sort.by("name"))
+                .forEach(ca -> cardio.put(ca.getId(), new CatalogEntryDto(ca.getId(), ca.getName())));
+
+        Map<String, CatalogEntryDto> exercisesByName = new HashMap<>();
+        exercises.values().forEach(entry -> exercisesByName.put(nameKey(entry.getName()), entry));
+        Map<String, CatalogEntryDto> cardioByName = new HashMap<>();
+        cardio.values().forEach(entry -> cardioByName.put(nameKey(entry.getName()), entry));
+
+        log.info("Loaded catalog cache with {} exercises and {} cardio activities", exercises.size(), cardio.size());
+        return new Snapshot(
+                List.copyOf(exercises.values()),
+                Collections.unmodifiableMap(exercises),
+                Collections.unmodifiableMap(exercisesByName),
+                List.copyOf(cardio.values()),
+                Collections.unmodifiableMap(cardio),
+                Collections.unmodifiableMap(cardioByName));
+    }
+
+    private record Snapshot(List<CatalogEntryDto> exercises,
+                            Map<Long, CatalogEntryDto> exercisesById,
+                            Map<String, CatalogEntryDto> exercisesByName,
+                            List<CatalogEntryDto> cardioActivities,
+                            Map<Long, CatalogEntryDto> cardioById,
+                            Map<String, CatalogEntryDto> cardioByName) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.punnfect.workout_tracker.services;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// JPA listener on the catalog entities, invalidates CatalogCache once a catalog write commits
+@Component
+public class CatalogChangeListener {
+
+    // resolved lazily, the listener is created while the EntityManagerFactory that CatalogCache needs is still being built
+    private final ObjectProvider<CatalogCache> catalogCache;
+
+    public CatalogChangeListener(ObjectProvider<CatalogCache> catalogCache) {
+        this.catalogCache = catalogCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onCatalogChange(Object entity) {
+        // invalidating before commit would let another request reload the old rows
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    catalogCache.getObject().invalidate();
+                }
+            });
+        } else {
+            catalogCache.getObject().invalidate();
+        }
+    }
+}
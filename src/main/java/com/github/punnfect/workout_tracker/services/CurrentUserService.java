@@ -0,0 +1,74 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.entities.User;
+import com.github.punnfect.workout_tracker.repository.UserRepo;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+Resolves the logged in user for the services.
+JpaUserDetailsService already loaded the User at login and it sits in the SecurityContext as the principal,
+so the id comes from there and callers get a lazy reference instead of a SELECT by username on every request.
+*/
+@Service
+public class CurrentUserService {
+
+    private static final int MAX_CACHED_USERNAMES = 1000;
+
+    private final UserRepo userRepo;
+
+    // fallback for principals that are not our User entity, bounded LRU of username -> id
+    private final Map<String, Long> userIdsByUsername = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                    return size() > MAX_CACHED_USERNAMES;
+                }
+            });
+
+    public CurrentUserService(UserRepo userRepo) {
+        this.userRepo = userRepo;
+    }
+
+    // id of the authenticated user
+    public Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            throw new RuntimeException("No authenticated user in the current request");
+        }
+
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof User user && user.getId() != null) {
+            return user.getId();
+        }
+
+        String username;
+        if (principal instanceof UserDetails) {
+            username = ((UserDetails) principal).getUsername();
+        } else {
+            username = principal.toString();
+        }
+
+        Long cachedId = userIdsByUsername.get(username);
+        if (cachedId != null) {
+            return cachedId;
+        }
+
+        Long userId = userRepo.findByUsername(username)
+                .map(User::getId)
+                .orElseThrow(() -> new RuntimeException("Authenticated user '" + username + "' not found in the database"));
+        userIdsByUsername.put(username, userId);
+        return userId;
+    }
+
+    // lazy reference to the authenticated user, fine for query parameters and associations without loading the row
+    public User getCurrentUser() {
+        return userRepo.getReferenceById(getCurrentUserId());
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.punnfect.workout_tracker.services;
+
+import java.util.Locale;
+
+// File formats shared by bulk import and export
+public enum DataFormat {
+    CSV("csv", "text/csv"),
+    NDJSON("ndjson", "application/x-ndjson");
+
+    private final String extension;
+    private final String contentType;
+
+    DataFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    // accepts the format name or a file name, json lines variants all map to NDJSON
+    public static DataFormat of(String value) {
+        String name = value == null ? "" : value.toLowerCase(Locale.ROOT);
+        switch (name.substring(name.lastIndexOf('.') + 1)) {
+            case "csv":
+                return CSV;
+            case "ndjson":
+            case "jsonl":
+            case "json":
+                return NDJSON;
+            default:
+                throw new IllegalArgumentException("Unsupported format '" + value + "', use csv or ndjson");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.events.WorkoutEvent;
+import com.github.punnfect.workout_tracker.events.WorkoutEventHandler;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Rebuilds the stored document of a workout that changed, the change itself already dropped the stale one
+// after an import, stores a document for each of the user's workouts that has none
+@Component
+@Order(2)
+public class DocumentProjection implements WorkoutEventHandler {
+
+    private final WorkoutDetailsService workoutDetailsService;
+
+    public DocumentProjection(WorkoutDetailsService workoutDetailsService) {
+        this.workoutDetailsService = workoutDetailsService;
+    }
+
+    @Override
+    public void handle(WorkoutEvent event) {
+        if (event instanceof WorkoutEvent.WorkoutDeleted) {
+            return;
+        }
+        if (event instanceof WorkoutEvent.HistoryImported) {
+            workoutDetailsService.backfillDocuments(event.userId());
+            return;
+        }
+        workoutDetailsService.rebuildDocument(event.workoutId(), event.userId());
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.dto.ExerciseProgressStatsDto;
+import com.github.punnfect.workout_tracker.entities.ExerciseDailyProgress;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/*
+Single pass over sets ordered by date. Only the running day is kept in memory,
+each finished day is handed to the sink and folded into the stats right away,
+so memory stays flat no matter how long the history is.
+*/
+final class ExerciseProgressAggregator {
+
+    private final Function<LocalDate, ExerciseDailyProgress> dayFactory;
+    private final Consumer<ExerciseDailyProgress> daySink;
+    private final ExerciseProgressStatsDto stats = new ExerciseProgressStatsDto();
+
+    // running totals for the current day
+    private LocalDate currentDate;
+    private int setCount;
+    private BigDecimal bestWeight;
+    private Integer bestReps;
+    private Integer maxReps;
+    private BigDecimal maxRepsWeight;
+    private BigDecimal maxVolume;
+    private BigDecimal maxVolumeWeight;
+    private Integer maxVolumeReps;
+    private BigDecimal totalVolume = BigDecimal.ZERO;
+
+    ExerciseProgressAggregator(Function<LocalDate, ExerciseDailyProgress> dayFactory,
+                               Consumer<ExerciseDailyProgress> daySink) {
+        this.dayFactory = dayFactory;
+        this.daySink = daySink;
+    }
+
+    //sets must arrive ordered by date
+    void accept(LocalDate date, BigDecimal weight, Integer reps) {
+        if (currentDate != null && !currentDate.equals(date)) {
+            finishDay();
+        }
+        currentDate = date;
+        setCount++;
+
+        // bodyweight sets (no weight) still count toward max reps, as they always have
+        if (reps != null && (maxReps == null || reps > maxReps)) {
+            maxReps = reps;
+            maxRepsWeight = weight;
+        }
+
+        if (weight == null || reps == null) {
+            return;
+        }
+
+        // Best set = highest weight, then if tied, highest reps
+        int weightComparison = bestWeight == null ? 1 : weight.compareTo(bestWeight);
+        if (weightComparison > 0 || (weightComparison == 0 && reps > bestReps)) {
+            bestWeight = weight;
+            bestReps = reps;
+        }
+
+        BigDecimal volume = weight.multiply(BigDecimal.valueOf(reps));
+        totalVolume = totalVolume.add(volume);
+        if (maxVolume == null || volume.compareTo(maxVolume) > 0) {
+            maxVolume = volume;
+            maxVolumeWeight = weight;
+            maxVolumeReps = reps;
+        }
+    }
+
+    //flushes the last day and returns the stats over everything accepted
+    ExerciseProgressStatsDto finish() {
+        if (currentDate != null) {
+            finishDay();
+        }
+        return stats;
+    }
+
+    private void finishDay() {
+        ExerciseDailyProgress day = dayFactory.apply(currentDate);
+        day.setSetCount(setCount);
+        day.setBestWeight(bestWeight);
+        day.setBestReps(bestReps);
+        day.setBestVolume(bestWeight != null ? bestWeight.multiply(BigDecimal.valueOf(bestReps)) : BigDecimal.ZERO);
+        day.setMaxReps(maxReps);
+        day.setMaxRepsWeight(maxRepsWeight);
+        day.setMaxVolume(maxVolume);
+        day.setMaxVolumeWeight(maxVolumeWeight);
+        day.setMaxVolumeReps(maxVolumeReps);
+        day.setTotalVolume(totalVolume);
+        day.setWeekStart(currentDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+        day.setMonthStart(currentDate.withDayOfMonth(1));
+
+        ExerciseStats.merge(stats, day);
+        daySink.accept(day);
+
+        currentDate = null;
+        setCount = 0;
+        bestWeight = null;
+        bestReps = null;
+        maxReps = null;
+        maxRepsWeight = null;
+        maxVolume = null;
+        maxVolumeWeight = null;
+        maxVolumeReps = null;
+        totalVolume = BigDecimal.ZERO;
+    }
+}
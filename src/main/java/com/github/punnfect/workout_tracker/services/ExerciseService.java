@@ -1,22 +1,19 @@
 package com.github.punnfect.workout_tracker.services;
 
-import com.github.punnfect.workout_tracker.entities.ExerciseList;
-import com.github.punnfect.workout_tracker.repository.ExerciseListRepo;
+import com.github.punnfect.workout_tracker.dto.CatalogEntryDto;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
 public class ExerciseService {
 
-    private final ExerciseListRepo exerciseListRepo;
+    private final CatalogCache catalogCache;
 
-    public ExerciseService(ExerciseListRepo exerciseListRepo) {
-        this.exerciseListRepo = exerciseListRepo;
+    public ExerciseService(CatalogCache catalogCache) {
+        this.catalogCache = catalogCache;
     }
 
-    //returns all exercise options in db
-    @Transactional(readOnly = true)
-    public List<ExerciseList> getAllExercises() { return exerciseListRepo.findAll(); }
-}
\ No newline at end of file
+    //returns all exercise options, served from the catalog cache
+    public List<CatalogEntryDto> getAllExercises() { return catalogCache.getExercises(); }
+}
@@ -0,0 +1,100 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.dto.ExerciseProgressStatsDto;
+import com.github.punnfect.workout_tracker.entities.ExerciseDailyProgress;
+import com.github.punnfect.workout_tracker.entities.ExercisePersonalRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// shared stat folding for range stats and the persisted personal records
+final class ExerciseStats {
+
+    private ExerciseStats() {
+    }
+
+    //folds daily rollup rows into summary stats in a single pass
+    static ExerciseProgressStatsDto fold(Iterable<ExerciseDailyProgress> days) {
+        ExerciseProgressStatsDto stats = new ExerciseProgressStatsDto();
+        for (ExerciseDailyProgress day : days) {
+            merge(stats, day);
+        }
+        return stats;
+    }
+
+    //merges one day into the stats, returns true if any record changed
+    //ties go to the earlier date, same as walking the history in order
+    static boolean merge(ExerciseProgressStatsDto stats, ExerciseDailyProgress day) {
+        LocalDate date = day.getWorkoutDate();
+        boolean changed = false;
+
+        // Find max weight
+        if (beats(day.getBestWeight(), date, stats.getMaxWeight(), stats.getMaxWeightDate())) {
+            stats.setMaxWeight(day.getBestWeight());
+            stats.setMaxWeightReps(day.getBestReps());
+            stats.setMaxWeightDate(date);
+            changed = true;
+        }
+
+        // Find max reps
+        if (beats(toDecimal(day.getMaxReps()), date, toDecimal(stats.getMaxReps()), stats.getMaxRepsDate())) {
+            stats.setMaxReps(day.getMaxReps());
+            stats.setMaxRepsWeight(day.getMaxRepsWeight());
+            stats.setMaxRepsDate(date);
+            changed = true;
+        }
+
+        // Find max volume
+        if (beats(day.getMaxVolume(), date, stats.getMaxVolume(), stats.getMaxVolumeDate())) {
+            stats.setMaxVolume(day.getMaxVolume());
+            stats.setMaxVolumeWeight(day.getMaxVolumeWeight());
+            stats.setMaxVolumeReps(day.getMaxVolumeReps());
+            stats.setMaxVolumeDate(date);
+            changed = true;
+        }
+
+        return changed;
+    }
+
+    //true if any of the records was set on the given day
+    static boolean heldOn(ExerciseProgressStatsDto stats, LocalDate date) {
+        return date.equals(stats.getMaxWeightDate())
+                || date.equals(stats.getMaxRepsDate())
+                || date.equals(stats.getMaxVolumeDate());
+    }
+
+    static ExerciseProgressStatsDto toDto(ExercisePersonalRecord record) {
+        return new ExerciseProgressStatsDto(
+                record.getMaxWeight(), record.getMaxWeightReps(), record.getMaxWeightDate(),
+                record.getMaxRepsWeight(), record.getMaxReps(), record.getMaxRepsDate(),
+                record.getMaxVolume(), record.getMaxVolumeWeight(), record.getMaxVolumeReps(), record.getMaxVolumeDate());
+    }
+
+    static void copyInto(ExerciseProgressStatsDto stats, ExercisePersonalRecord record) {
+        record.setMaxWeight(stats.getMaxWeight());
+        record.setMaxWeightReps(stats.getMaxWeightReps());
+        record.setMaxWeightDate(stats.getMaxWeightDate());
+        record.setMaxRepsWeight(stats.getMaxRepsWeight());
+        record.setMaxReps(stats.getMaxReps());
+        record.setMaxRepsDate(stats.getMaxRepsDate());
+        record.setMaxVolume(stats.getMaxVolume());
+        record.setMaxVolumeWeight(stats.getMaxVolumeWeight());
+        record.setMaxVolumeReps(stats.getMaxVolumeReps());
+        record.setMaxVolumeDate(stats.getMaxVolumeDate());
+    }
+
+    private static boolean beats(BigDecimal value, LocalDate date, BigDecimal current, LocalDate currentDate) {
+        if (value == null) {
+            return false;
+        }
+        if (current == null) {
+            return true;
+        }
+        int comparison = value.compareTo(current);
+        return comparison > 0 || (comparison == 0 && date.isBefore(currentDate));
+    }
+
+    private static BigDecimal toDecimal(Integer value) {
+        return value == null ? null : BigDecimal.valueOf(value);
+    }
+}
@@ -0,0 +1,173 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.punnfect.workout_tracker.dto.BodyMetricsRow;
+import com.github.punnfect.workout_tracker.dto.ImportRow;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/*
+Full history export, rows go straight from a forward only JDBC cursor to the response.
+Nothing is loaded into the persistence context, so memory stays flat with the size of the history.
+Workout rows use the ImportRow layout, so an export can be imported again.
+*/
+@Service
+public class ExportService {
+
+    // rows per round trip, with useCursorFetch MySQL streams from a server side cursor instead of buffering the result
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    // every set, every cardio session and every workout that has neither, grouped by workout
+    private static final String WORKOUT_ROWS_SQL = """
+            SELECT w.workout_id, w.workout_date, w.title, w.time_enter, w.time_leave, w.notes AS workout_notes,
+                   1 AS row_kind, el.name, s.set_number, s.weight, s.reps,
+                   NULL AS duration_minutes, NULL AS distance, s.notes, s.set_number AS seq
+            FROM workouts w
+            JOIN exercise_sets s ON s.workout_id = w.workout_id
+            JOIN exercise_list el ON el.exercise_list_id = s.exercise_list_id
+            WHERE w.user_id = ?
+            UNION ALL
+            SELECT w.workout_id, w.workout_date, w.title, w.time_enter, w.time_leave, w.notes,
+                   2, cl.name, NULL, NULL, NULL,
+                   c.duration_minutes, c.distance, c.notes, c.cardio_session_id
+            FROM workouts w
+            JOIN cardio_sessions c ON c.workout_id = w.workout_id
+            JOIN cardio_list cl ON cl.cardio_list_id = c.cardio_list_id
+            WHERE w.user_id = ?
+            UNION ALL
+            SELECT w.workout_id, w.workout_date, w.title, w.time_enter, w.time_leave, w.notes,
+                   0, NULL, NULL, NULL, NULL,
+                   NULL, NULL, NULL, 0
+            FROM workouts w
+            WHERE w.user_id = ?
+              AND NOT EXISTS (SELECT 1 FROM exercise_sets s WHERE s.workout_id = w.workout_id)
+              AND NOT EXISTS (SELECT 1 FROM cardio_sessions c WHERE c.workout_id = w.workout_id)
+            ORDER BY workout_date, workout_id, row_kind, name, seq
+            """;
+
+    private static final String BODY_METRICS_SQL = """
+            SELECT metric_date, weight_lbs, notes
+            FROM body_metrics
+            WHERE user_id = ?
+            ORDER BY metric_date, metric_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CurrentUserService currentUserService;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+
+    public ExportService(DataSource dataSource, CurrentUserService currentUserService, ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(EXPORT_FETCH_SIZE);
+        this.currentUserService = currentUserService;
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    // Streams the current user's workouts, sets and cardio sessions
+    public StreamingResponseBody exportWorkouts(DataFormat format, boolean gzip) {
+        // resolved on the request thread, the body is written later on an async thread without a security context
+        Long userId = currentUserService.getCurrentUserId();
+        ObjectWriter writer = writerFor(ImportRow.class, format);
+
+        return out -> stream(out, gzip, writer, rows -> jdbcTemplate.query(WORKOUT_ROWS_SQL,
+                (RowCallbackHandler) rs -> write(rows, toImportRow(rs)), userId, userId, userId));
+    }
+
+    // Streams the current user's body metrics
+    public StreamingResponseBody exportBodyMetrics(DataFormat format, boolean gzip) {
+        Long userId = currentUserService.getCurrentUserId();
+        ObjectWriter writer = writerFor(BodyMetricsRow.class, format);
+
+        return out -> stream(out, gzip, writer, rows -> jdbcTemplate.query(BODY_METRICS_SQL,
+                (RowCallbackHandler) rs -> write(rows, new BodyMetricsRow(
+                        toLocalDate(rs.getDate("metric_date")), rs.getBigDecimal("weight_lbs"), rs.getString("notes"))),
+                userId));
+    }
+
+    private ObjectWriter writerFor(Class<?> rowType, DataFormat format) {
+        if (format == DataFormat.CSV) {
+            return csvMapper.writerFor(rowType).with(csvMapper.schemaFor(rowType).withHeader());
+        }
+        return objectMapper.writerFor(rowType).withRootValueSeparator("\n");
+    }
+
+    private void stream(OutputStream out, boolean gzip, ObjectWriter writer, RowSource source) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+        try (SequenceWriter rows = writer.writeValues(target)) {
+            source.writeTo(rows);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void write(SequenceWriter rows, Object row) {
+        try {
+            rows.write(row);
+        } catch (IOException e) {
+            // client went away, unwinding the callback closes the cursor
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ImportRow toImportRow(ResultSet rs) throws SQLException {
+        ImportRow row = new ImportRow();
+        row.setWorkoutId(rs.getLong("workout_id"));
+        row.setDate(toLocalDate(rs.getDate("workout_date")));
+        row.setTitle(rs.getString("title"));
+        Time timeEnter = rs.getTime("time_enter");
+        row.setTimeEnter(timeEnter != null ? timeEnter.toLocalTime() : null);
+        Time timeLeave = rs.getTime("time_leave");
+        row.setTimeLeave(timeLeave != null ? timeLeave.toLocalTime() : null);
+        row.setWorkoutNotes(rs.getString("workout_notes"));
+
+        switch (rs.getInt("row_kind")) {
+            case 1 -> {
+                row.setType("exercise");
+                row.setSetNumber(rs.getInt("set_number"));
+                row.setWeight(rs.getBigDecimal("weight"));
+                row.setReps(rs.getObject("reps") != null ? rs.getInt("reps") : null);
+            }
+            case 2 -> {
+                row.setType("cardio");
+                row.setDurationMinutes(rs.getObject("duration_minutes") != null ? rs.getInt("duration_minutes") : null);
+                row.setDistance(rs.getBigDecimal("distance"));
+            }
+            default -> row.setType("workout");
+        }
+        row.setName(rs.getString("name"));
+        row.setNotes(rs.getString("notes"));
+        return row;
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        void writeTo(SequenceWriter rows);
+    }
+}
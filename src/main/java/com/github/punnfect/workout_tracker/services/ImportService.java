@@ -0,0 +1,525 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.punnfect.workout_tracker.dto.CatalogEntryDto;
+import com.github.punnfect.workout_tracker.dto.ImportJobDto;
+import com.github.punnfect.workout_tracker.dto.ImportRow;
+import com.github.punnfect.workout_tracker.entities.*;
+import com.github.punnfect.workout_tracker.events.WorkoutEvent;
+import com.github.punnfect.workout_tracker.events.WorkoutEventPipeline;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Bulk import of workout history from CSV or NDJSON files (see ImportRow for the format).
+The upload is copied to a temp file and parsed one row at a time on a background thread,
+rows are written in chunked transactions so memory stays flat no matter how big the file is.
+Progress lives in an in memory job registry the client polls.
+Rollups, workout documents and search entries of the imported history are rebuilt afterwards on the user's
+event lane (see WorkoutEvent.HistoryImported), in order with the saves they make at the same time.
+*/
+@Service
+public class ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    // rows written per transaction, the persistence context is cleared after each chunk
+    private static final int CHUNK_ROWS = 1000;
+    private static final int MAX_QUEUED_IMPORTS = 10;
+    private static final int MAX_REPORTED_ERRORS = 50;
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(24);
+
+    private static final BigDecimal MAX_WEIGHT = new BigDecimal("100000");
+    private static final BigDecimal MAX_DISTANCE = new BigDecimal("1000");
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogCache catalogCache;
+    private final CurrentUserService currentUserService;
+    private final WorkoutEventPipeline workoutEventPipeline;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    // imports run one at a time so they don't compete with each other for the same locks
+    private final ExecutorService importExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_IMPORTS), runnable -> {
+                Thread thread = new Thread(runnable, "workout-import");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public ImportService(EntityManager entityManager, TransactionTemplate transactionTemplate, CatalogCache catalogCache,
+                         CurrentUserService currentUserService, WorkoutEventPipeline workoutEventPipeline,
+                         ObjectMapper objectMapper) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.catalogCache = catalogCache;
+        this.currentUserService = currentUserService;
+        this.workoutEventPipeline = workoutEventPipeline;
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .addModule(new JavaTimeModule())
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .build();
+    }
+
+    // Stores the upload and queues the import for the current user, format falls back to the file extension
+    public ImportJobDto startImport(MultipartFile file, String format) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Import file is empty");
+        }
+
+        // the background thread has no security context, so the user is resolved here
+        Long userId = currentUserService.getCurrentUserId();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        DataFormat resolvedFormat = DataFormat.of(format == null || format.isBlank() ? file.getOriginalFilename() : format);
+
+        Path upload;
+        try {
+            upload = Files.createTempFile("workout-import-", "." + resolvedFormat.getExtension());
+            file.transferTo(upload);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not store import file", e);
+        }
+
+        pruneFinishedJobs();
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), userId, file.getOriginalFilename());
+        jobs.put(job.id, job);
+
+        try {
+            importExecutor.execute(() -> runImport(job, upload, resolvedFormat, authentication));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            deleteQuietly(upload);
+            throw new RuntimeException("Too many imports are queued, try again later", e);
+        }
+
+        log.info("Queued import {} of '{}' ({}) for user {}", job.id, file.getOriginalFilename(), resolvedFormat, userId);
+        return job.toDto();
+    }
+
+    // Progress of one of the current user's imports
+    public Optional<ImportJobDto> getJob(String jobId) {
+        Long userId = currentUserService.getCurrentUserId();
+        ImportJob job = jobs.get(jobId);
+        if (job == null || !job.userId.equals(userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(job.toDto());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        importExecutor.shutdownNow();
+    }
+
+    // runs as the importing user, so each chunk's commit only keeps their reads on the primary (see ReadWriteRoutingDataSource)
+    // and the HistoryImported event is handled as them
+    private void runImport(ImportJob job, Path upload, DataFormat format, Authentication authentication) {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        try {
+            importAs(job, upload, format);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void importAs(ImportJob job, Path upload, DataFormat format) {
+        job.status = ImportJobDto.Status.RUNNING;
+        ImportContext context = new ImportContext(job);
+        ImportJobDto.Status finalStatus = ImportJobDto.Status.COMPLETED;
+        String failure = null;
+
+        try (MappingIterator<ImportRow> rows = openRows(upload, format)) {
+            PendingWorkout current = null;
+
+            while (rows.hasNextValue()) {
+                // record number rather than file line, CSV headers and line numbering differ between formats
+                long rowNumber = job.rowsRead.incrementAndGet();
+
+                ImportRow row;
+                try {
+                    row = rows.nextValue();
+                } catch (DatabindException e) {
+                    // a value of the wrong type only costs that row, the iterator resyncs to the next one
+                    job.skip("Row " + rowNumber + ": " + e.getOriginalMessage());
+                    continue;
+                }
+
+                String error = validate(row);
+                if (error == null) {
+                    error = resolveName(row, context);
+                }
+                if (error == null) {
+                    if (current == null || !current.matches(row)) {
+                        current = new PendingWorkout(row);
+                        context.pending.add(current);
+                    }
+                    error = current.add(row);
+                }
+                if (error != null) {
+                    job.skip("Row " + rowNumber + ": " + error);
+                    continue;
+                }
+
+                if (++context.pendingRows >= CHUNK_ROWS) {
+                    writeChunk(context);
+                }
+            }
+            writeChunk(context);
+            log.info("Import {} finished: {} workouts, {} sets, {} cardio sessions, {} rows skipped",
+                    job.id, job.workoutsImported, job.exerciseSetsImported, job.cardioSessionsImported, job.rowsSkipped);
+        } catch (Exception e) {
+            // chunks that were already committed stay, the error tells the user where parsing stopped
+            log.warn("Import {} failed after {} rows", job.id, job.rowsRead, e);
+            finalStatus = ImportJobDto.Status.FAILED;
+            failure = "Import stopped after row " + job.rowsRead + ": " + e.getMessage();
+        } finally {
+            deleteQuietly(upload);
+        }
+
+        // committed chunks get their rollups, documents and search entries whether or not a later one failed,
+        // the job only reports finished once the rebuild is queued
+        publishImported(context);
+        job.finish(finalStatus, failure);
+    }
+
+    private MappingIterator<ImportRow> openRows(Path upload, DataFormat format) throws IOException {
+        if (format == DataFormat.CSV) {
+            return csvMapper.readerFor(ImportRow.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(upload.toFile());
+        }
+        return objectMapper.readerFor(ImportRow.class).readValues(upload.toFile());
+    }
+
+    // Writes every buffered row in one transaction, the workout still being read stays buffered for the next chunk
+    private void writeChunk(ImportContext context) {
+        if (context.pendingRows == 0) {
+            return;
+        }
+
+        ChunkCounts counts = new ChunkCounts();
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = entityManager.getReference(User.class, context.job.userId);
+
+            for (PendingWorkout pending : context.pending) {
+                Workout workout;
+                if (pending.workoutId == null) {
+                    workout = new Workout();
+                    workout.setUser(user);
+                    workout.setWorkoutDate(pending.date);
+                    workout.setTitle(pending.title);
+                    workout.setTimeEnter(pending.timeEnter);
+                    workout.setTimeLeave(pending.timeLeave);
+                    workout.setNotes(pending.notes);
+                    entityManager.persist(workout);
+                    pending.workoutId = workout.getId();
+                    counts.workouts++;
+                } else {
+                    workout = entityManager.getReference(Workout.class, pending.workoutId);
+                }
+
+                for (ImportRow row : pending.rows) {
+                    if (isCardio(row)) {
+                        Long cardioListId = context.cardioIds.get(CatalogCache.nameKey(row.getName()));
+                        CardioSession session = new CardioSession();
+                        session.setWorkout(workout);
+                        session.setCardioList(entityManager.getReference(CardioList.class, cardioListId));
+                        session.setDurationMinutes(row.getDurationMinutes());
+                        session.setDistance(row.getDistance());
+                        session.setNotes(row.getNotes());
+                        entityManager.persist(session);
+                        counts.cardioIds.add(cardioListId);
+                        counts.cardioSessions++;
+                    } else {
+                        Long exerciseListId = context.exerciseIds.get(CatalogCache.nameKey(row.getName()));
+                        ExerciseSet set = new ExerciseSet();
+                        set.setWorkout(workout);
+                        set.setExerciseList(entityManager.getReference(ExerciseList.class, exerciseListId));
+                        set.setSetNumber(row.getSetNumber());
+                        set.setWeight(row.getWeight());
+                        set.setReps(row.getReps());
+                        set.setNotes(row.getNotes());
+                        entityManager.persist(set);
+                        counts.exerciseIds.add(exerciseListId);
+                        counts.exerciseSets++;
+                    }
+                }
+            }
+
+            // batched inserts go out here, then the chunk's entities are dropped from memory
+            entityManager.flush();
+            entityManager.clear();
+        });
+
+        context.job.workoutsImported.addAndGet(counts.workouts);
+        context.job.exerciseSetsImported.addAndGet(counts.exerciseSets);
+        context.job.cardioSessionsImported.addAndGet(counts.cardioSessions);
+        context.touchedExerciseIds.addAll(counts.exerciseIds);
+        context.touchedCardioIds.addAll(counts.cardioIds);
+
+        // only the workout still being read carries over, without the rows just written
+        PendingWorkout open = context.pending.get(context.pending.size() - 1);
+        open.rows.clear();
+        context.pending.clear();
+        context.pending.add(open);
+        context.pendingRows = 0;
+    }
+
+    // Maps the row's exercise or activity to its catalog id, returns an error for names the catalog doesn't have.
+    // The catalog is shared by every user, an import only ever reads it
+    private String resolveName(ImportRow row, ImportContext context) {
+        if (isWorkoutOnly(row)) {
+            return null;
+        }
+        String key = CatalogCache.nameKey(row.getName());
+        if (isCardio(row)) {
+            if (!context.cardioIds.containsKey(key)) {
+                Optional<CatalogEntryDto> known = catalogCache.findCardioActivityByName(key);
+                if (known.isEmpty()) {
+                    return "unknown cardio activity '" + row.getName().trim() + "'";
+                }
+                context.cardioIds.put(key, known.get().getId());
+            }
+        } else if (!context.exerciseIds.containsKey(key)) {
+            Optional<CatalogEntryDto> known = catalogCache.findExerciseByName(key);
+            if (known.isEmpty()) {
+                return "unknown exercise '" + row.getName().trim() + "'";
+            }
+            context.exerciseIds.put(key, known.get().getId());
+        }
+        return null;
+    }
+
+    // Imported days bypass the per save events, so one event has the user's lane rebuild each touched exercise and
+    // activity, store the new workouts' documents and reindex them. On the lane the rebuild can't overlap the refresh
+    // of a save made during the import
+    private void publishImported(ImportContext context) {
+        if (context.job.workoutsImported.get() == 0) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> workoutEventPipeline.publish(new WorkoutEvent.HistoryImported(
+                    context.job.userId, Set.copyOf(context.touchedExerciseIds), Set.copyOf(context.touchedCardioIds))));
+        } catch (RuntimeException e) {
+            log.error("Import {} could not queue the rebuild of the imported history for user {}", context.job.id,
+                    context.job.userId, e);
+        }
+    }
+
+    // Returns why a row can't be imported, or null when it is fine
+    private String validate(ImportRow row) {
+        if (row.getDate() == null) {
+            return "date is required";
+        }
+        if (row.getType() != null && !row.getType().equalsIgnoreCase("exercise") && !row.getType().equalsIgnoreCase("cardio")
+                && !row.getType().equalsIgnoreCase("workout")) {
+            return "type must be 'exercise', 'cardio' or 'workout'";
+        }
+        if (row.getTitle() != null && row.getTitle().length() > 50) {
+            return "title is longer than 50 characters";
+        }
+        if (isWorkoutOnly(row)) {
+            return null;
+        }
+
+        if (row.getName() == null || row.getName().isBlank()) {
+            return "name is required";
+        }
+        if (row.getName().trim().length() > 100) {
+            return "name is longer than 100 characters";
+        }
+        if (row.getNotes() != null && row.getNotes().length() > 255) {
+            return "notes are longer than 255 characters";
+        }
+
+        if (isCardio(row)) {
+            if (row.getDistance() != null && (row.getDistance().signum() < 0 || row.getDistance().compareTo(MAX_DISTANCE) >= 0)) {
+                return "distance is out of range";
+            }
+            return null;
+        }
+
+        if (row.getWeight() == null) {
+            return "weight is required";
+        }
+        if (row.getWeight().signum() < 0 || row.getWeight().compareTo(MAX_WEIGHT) >= 0) {
+            return "weight is out of range";
+        }
+        if (row.getReps() == null || row.getReps() < 1) {
+            return "reps must be at least 1";
+        }
+        if (row.getSetNumber() != null && row.getSetNumber() < 1) {
+            return "set number must be at least 1";
+        }
+        return null;
+    }
+
+    private static boolean isCardio(ImportRow row) {
+        return "cardio".equalsIgnoreCase(row.getType());
+    }
+
+    // a workout with no sets or sessions, only carries the workout level fields
+    private static boolean isWorkoutOnly(ImportRow row) {
+        return "workout".equalsIgnoreCase(row.getType());
+    }
+
+    private void pruneFinishedJobs() {
+        Instant cutoff = Instant.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}", path, e);
+        }
+    }
+
+    // one workout being assembled from consecutive rows, rows are dropped once written
+    private static class PendingWorkout {
+        private final LocalDate date;
+        private final String title;
+        private final Long sourceId;
+        private final LocalTime timeEnter;
+        private final LocalTime timeLeave;
+        private final String notes;
+        private final List<ImportRow> rows = new ArrayList<>();
+
+        // set numbers already used per exercise name, kept across chunks
+        private final Map<String, Set<Integer>> setNumbers = new HashMap<>();
+        private Long workoutId;
+
+        private PendingWorkout(ImportRow first) {
+            this.date = first.getDate();
+            this.title = first.getTitle();
+            this.sourceId = first.getWorkoutId();
+            this.timeEnter = first.getTimeEnter();
+            this.timeLeave = first.getTimeLeave();
+            this.notes = first.getWorkoutNotes();
+        }
+
+        private boolean matches(ImportRow row) {
+            return date.equals(row.getDate()) && Objects.equals(title, row.getTitle()) && Objects.equals(sourceId, row.getWorkoutId());
+        }
+
+        // buffers the row, numbering sets that came without one, returns an error for duplicate set numbers
+        private String add(ImportRow row) {
+            if (isWorkoutOnly(row)) {
+                return null;
+            }
+            if (!isCardio(row)) {
+                Set<Integer> used = setNumbers.computeIfAbsent(CatalogCache.nameKey(row.getName()), name -> new HashSet<>());
+                if (row.getSetNumber() == null) {
+                    row.setSetNumber(used.stream().max(Integer::compare).orElse(0) + 1);
+                } else if (used.contains(row.getSetNumber())) {
+                    return "duplicate set number " + row.getSetNumber() + " for '" + row.getName().trim() + "'";
+                }
+                used.add(row.getSetNumber());
+            }
+            rows.add(row);
+            return null;
+        }
+    }
+
+    // state of one running import, only touched by the import thread
+    private static class ImportContext {
+        private final ImportJob job;
+        private final List<PendingWorkout> pending = new ArrayList<>();
+        // catalog ids by name key, of the names seen so far
+        private final Map<String, Long> exerciseIds = new HashMap<>();
+        private final Map<String, Long> cardioIds = new HashMap<>();
+        private final Set<Long> touchedExerciseIds = new HashSet<>();
+        private final Set<Long> touchedCardioIds = new HashSet<>();
+        private int pendingRows;
+
+        private ImportContext(ImportJob job) {
+            this.job = job;
+        }
+    }
+
+    // what one chunk wrote, only added to the job and the context once its transaction committed
+    private static class ChunkCounts {
+        private long workouts;
+        private long exerciseSets;
+        private long cardioSessions;
+        private final Set<Long> exerciseIds = new HashSet<>();
+        private final Set<Long> cardioIds = new HashSet<>();
+    }
+
+    // written by the import thread, read by status requests
+    private static class ImportJob {
+        private final String id;
+        private final Long userId;
+        private final String fileName;
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong rowsSkipped = new AtomicLong();
+        private final AtomicLong workoutsImported = new AtomicLong();
+        private final AtomicLong exerciseSetsImported = new AtomicLong();
+        private final AtomicLong cardioSessionsImported = new AtomicLong();
+        private final List<String> errors = new CopyOnWriteArrayList<>();
+        private volatile ImportJobDto.Status status = ImportJobDto.Status.QUEUED;
+        private volatile Instant finishedAt;
+
+        private ImportJob(String id, Long userId, String fileName) {
+            this.id = id;
+            this.userId = userId;
+            this.fileName = fileName;
+        }
+
+        private void skip(String error) {
+            rowsSkipped.incrementAndGet();
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        private void finish(ImportJobDto.Status finalStatus, String error) {
+            if (error != null) {
+                errors.add(error);
+            }
+            finishedAt = Instant.now();
+            status = finalStatus;
+        }
+
+        private ImportJobDto toDto() {
+            return new ImportJobDto(id, fileName, status, rowsRead.get(), rowsSkipped.get(), workoutsImported.get(),
+                    exerciseSetsImported.get(), cardioSessionsImported.get(), List.copyOf(errors), startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.dto.ExerciseProgressPointDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/*
+Largest-Triangle-Three-Buckets downsampling of a progress series (x = day, y = weight).
+The first and last points are always kept and the rest is split into buckets,
+each bucket keeps the point forming the largest triangle with the previously kept point and
+the average of the next bucket, which keeps the peaks and dips that give the chart its shape.
+
+PR days are never averaged away: pinned dates (the records shown in the stats) and days that beat
+every earlier weight or volume are kept outright and the buckets share what is left of maxPoints.
+When those record days alone would take more than a quarter of the budget they stop being kept
+outright, instead a bucket holding one picks among its record days only.
+The result is at most maxPoints + pinned.size() points.
+*/
+final class ProgressDownsampler {
+
+    static final int MIN_POINTS = 3;
+
+    private ProgressDownsampler() {
+    }
+
+    //points must be sorted by date, returned as is when they already fit
+    static List<ExerciseProgressPointDto> downsample(List<ExerciseProgressPointDto> points, int maxPoints,
+                                                     Set<LocalDate> pinned) {
+        int size = points.size();
+        if (maxPoints < MIN_POINTS) {
+            throw new IllegalArgumentException("maxPoints must be at least " + MIN_POINTS);
+        }
+        if (size <= maxPoints) {
+            return points;
+        }
+
+        double[] x = new double[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = points.get(i).getDate().toEpochDay();
+            y[i] = toDouble(points.get(i).getWeight());
+        }
+        boolean[] records = runningRecords(points);
+        int recordCount = 0;
+        for (boolean record : records) {
+            recordCount += record ? 1 : 0;
+        }
+        boolean keepRecords = recordCount <= maxPoints / 4;
+
+        boolean[] keep = new boolean[size];
+        keep[0] = true;
+        keep[size - 1] = true;
+
+        int buckets = Math.max(maxPoints - 2 - (keepRecords ? recordCount : 0), 1);
+        double bucketSize = (double) (size - 2) / buckets;
+        int anchor = 0;
+
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = Math.min((int) ((bucket + 1) * bucketSize) + 1, size - 1);
+
+            // average of the next bucket, the last bucket looks ahead to the final point
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+            if (bucket == buckets - 1) {
+                nextEnd = size;
+            }
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = end; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int nextCount = Math.max(nextEnd - end, 1);
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            boolean bucketHasRecord = false;
+            for (int i = start; i < end; i++) {
+                bucketHasRecord |= records[i];
+            }
+
+            int chosen = -1;
+            double bestArea = -1;
+            for (int i = start; i < end; i++) {
+                if (pinned.contains(points.get(i).getDate()) || (keepRecords && records[i])) {
+                    keep[i] = true;
+                }
+                if (bucketHasRecord && !keepRecords && !records[i]) {
+                    continue;
+                }
+                // twice the triangle area, only compared so the halving is skipped
+                double area = Math.abs((x[anchor] - avgX) * (y[i] - y[anchor]) - (x[anchor] - x[i]) * (avgY - y[anchor]));
+                if (area > bestArea) {
+                    bestArea = area;
+                    chosen = i;
+                }
+            }
+
+            if (chosen >= 0) {
+                keep[chosen] = true;
+                anchor = chosen;
+            }
+        }
+
+        List<ExerciseProgressPointDto> sampled = new ArrayList<>(maxPoints + pinned.size());
+        for (int i = 0; i < size; i++) {
+            if (keep[i]) {
+                sampled.add(points.get(i));
+            }
+        }
+        return sampled;
+    }
+
+    //true for days whose weight or volume beat every earlier day in the series
+    private static boolean[] runningRecords(List<ExerciseProgressPointDto> points) {
+        boolean[] records = new boolean[points.size()];
+        BigDecimal bestWeight = null;
+        BigDecimal bestVolume = null;
+        for (int i = 0; i < points.size(); i++) {
+            ExerciseProgressPointDto point = points.get(i);
+            if (beats(point.getWeight(), bestWeight)) {
+                bestWeight = point.getWeight();
+                records[i] = true;
+            }
+            if (beats(point.getVolume(), bestVolume)) {
+                bestVolume = point.getVolume();
+                records[i] = true;
+            }
+        }
+        return records;
+    }
+
+    private static boolean beats(BigDecimal value, BigDecimal best) {
+        return value != null && (best == null || value.compareTo(best) > 0);
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value == null ? 0 : value.doubleValue();
+    }
+}
@@ -0,0 +1,192 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.dto.ExerciseProgressStatsDto;
+import com.github.punnfect.workout_tracker.dto.ExerciseSetProgressRow;
+import com.github.punnfect.workout_tracker.entities.ExerciseDailyProgress;
+import com.github.punnfect.workout_tracker.entities.ExercisePersonalRecord;
+import com.github.punnfect.workout_tracker.entities.User;
+import com.github.punnfect.workout_tracker.repository.ExerciseDailyProgressRepo;
+import com.github.punnfect.workout_tracker.repository.ExerciseListRepo;
+import com.github.punnfect.workout_tracker.repository.ExercisePersonalRecordRepo;
+import com.github.punnfect.workout_tracker.repository.ExerciseSetRepo;
+import com.github.punnfect.workout_tracker.repository.UserRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/*
+Keeps the exercise_daily_progress rollup and exercise_personal_records in sync with exercise_sets.
+Every write path that touches sets calls back in here for the days it changed,
+so progress reads only ever see one row per training day and one PR row per exercise.
+*/
+@Service
+public class ProgressRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProgressRollupService.class);
+
+    private final ExerciseDailyProgressRepo dailyProgressRepo;
+    private final ExercisePersonalRecordRepo personalRecordRepo;
+    private final ExerciseSetRepo exerciseSetRepo;
+    private final ExerciseListRepo exerciseListRepo;
+    private final UserRepo userRepo;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProgressRollupService(ExerciseDailyProgressRepo dailyProgressRepo,
+                                 ExercisePersonalRecordRepo personalRecordRepo,
+                                 ExerciseSetRepo exerciseSetRepo,
+                                 ExerciseListRepo exerciseListRepo,
+                                 UserRepo userRepo,
+                                 TransactionTemplate transactionTemplate) {
+        this.dailyProgressRepo = dailyProgressRepo;
+        this.personalRecordRepo = personalRecordRepo;
+        this.exerciseSetRepo = exerciseSetRepo;
+        this.exerciseListRepo = exerciseListRepo;
+        this.userRepo = userRepo;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // recomputes the rollup rows of each exercise for a single day
+    @Transactional
+    public void refreshDays(User user, LocalDate workoutDate, Collection<Long> exerciseListIds) {
+        for (Long exerciseListId : exerciseListIds) {
+            refreshDay(user, exerciseListId, workoutDate);
+        }
+    }
+
+    // recomputes one rollup row from that day's sets, a day with no sets left is kept as a tombstone
+    @Transactional
+    public void refreshDay(User user, Long exerciseListId, LocalDate workoutDate) {
+        ExercisePersonalRecord record = findOrCreatePersonalRecord(user, exerciseListId);
+        long revision = record.getRevision() + 1;
+
+        List<ExerciseSetProgressRow> sets = exerciseSetRepo.findExerciseProgressByDateRange(
+                exerciseListId, user, workoutDate, workoutDate);
+
+        Optional<ExerciseDailyProgress> existing = dailyProgressRepo
+                .findByUserAndExerciseListIdAndWorkoutDate(user, exerciseListId, workoutDate);
+
+        List<ExerciseDailyProgress> refreshed = new ArrayList<>(1);
+        ExerciseProgressAggregator aggregator = new ExerciseProgressAggregator(
+                date -> existing.orElseGet(() -> newDay(user, exerciseListId, date)), refreshed::add);
+        for (ExerciseSetProgressRow set : sets) {
+            aggregator.accept(set.workoutDate(), set.weight(), set.reps());
+        }
+        aggregator.finish();
+
+        if (refreshed.isEmpty()) {
+            // delta clients learn about removed days from the tombstone's revision
+            existing.ifPresent(day -> {
+                clearDay(day);
+                day.setRevision(revision);
+                dailyProgressRepo.save(day);
+            });
+            updatePersonalRecord(record, workoutDate, null);
+            return;
+        }
+
+        ExerciseDailyProgress day = refreshed.get(0);
+        day.setRevision(revision);
+        dailyProgressRepo.save(day);
+        updatePersonalRecord(record, workoutDate, day);
+    }
+
+    // drops and rebuilds every rollup row and the PR row for a user/exercise in one pass over a set cursor
+    @Transactional
+    public void rebuild(User user, Long exerciseListId) {
+        ExercisePersonalRecord record = findOrCreatePersonalRecord(user, exerciseListId);
+        long revision = record.getRevision() + 1;
+
+        // tombstones go with the old rows, so clients holding an older revision have to refetch everything
+        dailyProgressRepo.deleteByUserAndExerciseListId(user, exerciseListId);
+        record.setResetRevision(revision);
+
+        ExerciseProgressAggregator aggregator = new ExerciseProgressAggregator(
+                date -> {
+                    ExerciseDailyProgress day = newDay(user, exerciseListId, date);
+                    day.setRevision(revision);
+                    return day;
+                },
+                dailyProgressRepo::save);
+
+        // scalar rows never enter the persistence context, so memory stays flat with the history
+        try (Stream<ExerciseSetProgressRow> sets = exerciseSetRepo.streamAllExerciseProgress(exerciseListId, user)) {
+            sets.forEach(set -> aggregator.accept(set.workoutDate(), set.weight(), set.reps()));
+        }
+
+        ExerciseStats.copyInto(aggregator.finish(), record);
+        saveNewRevision(record);
+    }
+
+    // rebuilds the rollup for every user, used to backfill existing history
+    // each exercise commits on its own, so the persistence context never holds more than one exercise's days
+    public void rebuildAll() {
+        for (User user : userRepo.findAll()) {
+            List<Long> exerciseListIds = exerciseSetRepo.findDistinctExerciseListIdsByUser(user);
+            for (Long exerciseListId : exerciseListIds) {
+                transactionTemplate.executeWithoutResult(status -> rebuild(user, exerciseListId));
+            }
+            log.info("Rebuilt progress rollup for user '{}' across {} exercises", user.getUsername(), exerciseListIds.size());
+        }
+    }
+
+    // merges a refreshed day into the PR row, only rescanning the exercise's days
+    // when one of its records was set on that day and may have gone down
+    private void updatePersonalRecord(ExercisePersonalRecord record, LocalDate workoutDate, ExerciseDailyProgress day) {
+        ExerciseProgressStatsDto stats = ExerciseStats.toDto(record);
+
+        if (ExerciseStats.heldOn(stats, workoutDate)) {
+            List<ExerciseDailyProgress> days = dailyProgressRepo.findLoggedDays(record.getUser(), record.getExerciseList().getId());
+            ExerciseStats.copyInto(ExerciseStats.fold(days), record);
+        } else if (day != null && ExerciseStats.merge(stats, day)) {
+            ExerciseStats.copyInto(stats, record);
+        }
+        saveNewRevision(record);
+    }
+
+    // the PR row outlives the exercise's history (stats go back to empty) so its revision never restarts
+    private ExercisePersonalRecord findOrCreatePersonalRecord(User user, Long exerciseListId) {
+        return personalRecordRepo.findByUserAndExerciseListId(user, exerciseListId)
+                .orElseGet(() -> {
+                    ExercisePersonalRecord record = new ExercisePersonalRecord();
+                    record.setUser(user);
+                    record.setExerciseList(exerciseListRepo.getReferenceById(exerciseListId));
+                    return record;
+                });
+    }
+
+    // every refresh moves the watermark, progress ETags are built from it
+    private void saveNewRevision(ExercisePersonalRecord record) {
+        record.setRevision(record.getRevision() + 1);
+        personalRecordRepo.save(record);
+    }
+
+    private static void clearDay(ExerciseDailyProgress day) {
+        day.setSetCount(0);
+        day.setBestWeight(null);
+        day.setBestReps(null);
+        day.setBestVolume(null);
+        day.setMaxReps(null);
+        day.setMaxRepsWeight(null);
+        day.setMaxVolume(null);
+        day.setMaxVolumeWeight(null);
+        day.setMaxVolumeReps(null);
+        day.setTotalVolume(null);
+    }
+
+    private ExerciseDailyProgress newDay(User user, Long exerciseListId, LocalDate workoutDate) {
+        ExerciseDailyProgress day = new ExerciseDailyProgress();
+        day.setUser(user);
+        day.setExerciseList(exerciseListRepo.getReferenceById(exerciseListId));
+        day.setWorkoutDate(workoutDate);
+        return day;
+    }
+}
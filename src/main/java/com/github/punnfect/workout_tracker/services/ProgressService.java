@@ -1,166 +1,201 @@
 package com.github.punnfect.workout_tracker.services;
 
+import com.github.punnfect.workout_tracker.dto.CatalogEntryDto;
+import com.github.punnfect.workout_tracker.dto.ExerciseProgressDeltaDto;
 import com.github.punnfect.workout_tracker.dto.ExerciseProgressDto;
 import com.github.punnfect.workout_tracker.dto.ExerciseProgressPointDto;
 import com.github.punnfect.workout_tracker.dto.ExerciseProgressStatsDto;
-import com.github.punnfect.workout_tracker.entities.ExerciseSet;
+import com.github.punnfect.workout_tracker.entities.ExerciseDailyProgress;
+import com.github.punnfect.workout_tracker.entities.ExercisePersonalRecord;
 import com.github.punnfect.workout_tracker.entities.User;
-import com.github.punnfect.workout_tracker.repository.ExerciseListRepo;
-import com.github.punnfect.workout_tracker.repository.ExerciseSetRepo;
-import com.github.punnfect.workout_tracker.repository.UserRepo;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import com.github.punnfect.workout_tracker.repository.ExerciseDailyProgressRepo;
+import com.github.punnfect.workout_tracker.repository.ExercisePersonalRecordRepo;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProgressService {
 
-    private final ExerciseSetRepo exerciseSetRepo;
-    private final ExerciseListRepo exerciseListRepo;
-    private final UserRepo userRepo;
+    // smallest maxPoints a downsampled series can honour (first, last and one bucket)
+    public static final int MIN_MAX_POINTS = ProgressDownsampler.MIN_POINTS;
+
+    private final ExerciseDailyProgressRepo dailyProgressRepo;
+    private final ExercisePersonalRecordRepo personalRecordRepo;
+    private final CatalogCache catalogCache;
+    private final CurrentUserService currentUserService;
+
+    public ProgressService(ExerciseDailyProgressRepo dailyProgressRepo,
+                           ExercisePersonalRecordRepo personalRecordRepo,
+                           CatalogCache catalogCache,
+                           CurrentUserService currentUserService) {
+        this.dailyProgressRepo = dailyProgressRepo;
+        this.personalRecordRepo = personalRecordRepo;
+        this.catalogCache = catalogCache;
+        this.currentUserService = currentUserService;
+    }
+
+    // Strong ETag for a progress response, built from the PR row revision that every rollup refresh bumps
+    // the user id keeps a shared browser cache from matching another user's response
+    @Transactional(readOnly = true)
+    public String getProgressETag(Long exerciseListId, LocalDate startDate, LocalDate endDate, Integer maxPoints) {
+        Long userId = currentUserService.getCurrentUserId();
+        long revision = personalRecordRepo.findRevision(currentUserService.getCurrentUser(), exerciseListId).orElse(0L);
 
-    public ProgressService(ExerciseSetRepo exerciseSetRepo,
-                           ExerciseListRepo exerciseListRepo,
-                           UserRepo userRepo) {
-        this.exerciseSetRepo = exerciseSetRepo;
-        this.exerciseListRepo = exerciseListRepo;
-        this.userRepo = userRepo;
+        // a renamed exercise changes the response without touching the rollup
+        String exerciseName = catalogCache.findExercise(exerciseListId)
+                .map(CatalogEntryDto::getName)
+                .orElseThrow(() -> new RuntimeException("Exercise not found with id: " + exerciseListId));
+
+        return "\"progress-" + userId + "-" + exerciseListId + "-" + revision
+                + "-" + (startDate != null && endDate != null ? startDate + "-" + endDate : "all")
+                + (maxPoints != null ? "-max" + maxPoints : "")
+                + "-" + Integer.toHexString(exerciseName.hashCode()) + "\"";
     }
 
-    //gets all exercise progress data for specified range
+    //gets all exercise progress data for specified range, downsampled to about maxPoints when given
     @Transactional(readOnly = true)
     public ExerciseProgressDto getExerciseProgress(Long exerciseListId,
                                                    LocalDate startDate,
-                                                   LocalDate endDate) {
-        User currentUser = getCurrentUser();
+                                                   LocalDate endDate,
+                                                   Integer maxPoints) {
+        User currentUser = currentUserService.getCurrentUser();
 
 
-        String exerciseName = exerciseListRepo.findById(exerciseListId)
-                .map(ex -> ex.getName())
+        String exerciseName = catalogCache.findExercise(exerciseListId)
+                .map(CatalogEntryDto::getName)
                 .orElseThrow(() -> new RuntimeException("Exercise not found with id: " + exerciseListId));
 
 
-        List<ExerciseSet> sets;
+        List<ExerciseDailyProgress> days;
         if (startDate != null && endDate != null) {
-            sets = exerciseSetRepo.findExerciseProgressByDateRange(
-                    exerciseListId, currentUser, startDate, endDate);
+            days = dailyProgressRepo.findLoggedDaysBetween(
+                    currentUser, exerciseListId, startDate, endDate);
         } else {
 
-            sets = exerciseSetRepo.findAllExerciseProgress(exerciseListId, currentUser);
+            days = dailyProgressRepo.findLoggedDays(currentUser, exerciseListId);
         }
 
-        // Convert to data points and only keep the best set per day
-        // Best set = highest weight, then if tied, highest reps
-        List<ExerciseProgressPointDto> dataPoints = sets.stream()
-                .collect(Collectors.groupingBy(set -> set.getWorkout().getWorkoutDate()))
-                .values()
-                .stream()
-                .map(setsPerDay -> {
-
-                    ExerciseSet bestSet = setsPerDay.stream()
-                            .max((s1, s2) -> {
-                                int weightComparison = s1.getWeight().compareTo(s2.getWeight());
-                                if (weightComparison != 0) {
-                                    return weightComparison;
-                                }
-                                // If weights are equal, compare reps
-                                return Integer.compare(s1.getReps(), s2.getReps());
-                            })
-                            .orElse(null);
-
-                    if (bestSet == null) return null;
-
-                    BigDecimal volume = bestSet.getWeight() != null && bestSet.getReps() != null
-                            ? bestSet.getWeight().multiply(BigDecimal.valueOf(bestSet.getReps()))
-                            : BigDecimal.ZERO;
-                    return new ExerciseProgressPointDto(
-                            bestSet.getWorkout().getWorkoutDate(),
-                            bestSet.getWeight(),
-                            bestSet.getReps(),
-                            volume
-                    );
-                })
-                .filter(point -> point != null)
-                .sorted((p1, p2) -> p1.getDate().compareTo(p2.getDate()))
+        // Rollup already holds the best set per day (highest weight, then highest reps)
+        List<ExerciseProgressPointDto> dataPoints = days.stream()
+                .map(ProgressService::toPoint)
                 .collect(Collectors.toList());
 
-        // Calculate statistics
-        ExerciseProgressStatsDto stats = calculateStats(sets);
-
-        return new ExerciseProgressDto(exerciseName, dataPoints, stats);
-    }
+        // All time stats come straight from the stored personal records, ranges fold the daily rows
+        ExerciseProgressStatsDto stats;
+        if (startDate != null && endDate != null) {
+            stats = ExerciseStats.fold(days);
+        } else {
+            stats = personalRecordRepo.findByUserAndExerciseListId(currentUser, exerciseListId)
+                    .map(ExerciseStats::toDto)
+                    .orElseGet(ExerciseProgressStatsDto::new);
+        }
 
-    //calculates summary stats
-    private ExerciseProgressStatsDto calculateStats(List<ExerciseSet> sets) {
-        if (sets.isEmpty()) {
-            return new ExerciseProgressStatsDto();
+        boolean sampled = maxPoints != null && dataPoints.size() > maxPoints;
+        if (sampled) {
+            dataPoints = ProgressDownsampler.downsample(dataPoints, maxPoints, recordDates(stats));
         }
 
-        ExerciseProgressStatsDto stats = new ExerciseProgressStatsDto();
+        return new ExerciseProgressDto(exerciseName, dataPoints, stats, sampled);
+    }
 
-        // Find max weight
-        ExerciseSet maxWeightSet = sets.stream()
-                .filter(s -> s.getWeight() != null)
-                .max((s1, s2) -> s1.getWeight().compareTo(s2.getWeight()))
-                .orElse(null);
+    // Points added, changed or removed since the client's version, plus stats for the requested range
+    // the version is "userId.revision", anything unusable (other user, older than the last rebuild) gets the full series
+    // once the all time series outgrows maxPoints it is no longer sent for caching, the response only holds
+    // the requested range, downsampled when that is still longer than maxPoints
+    @Transactional(readOnly = true)
+    public ExerciseProgressDeltaDto getExerciseProgressDelta(Long exerciseListId, String since,
+                                                             LocalDate startDate, LocalDate endDate,
+                                                             Integer maxPoints) {
+        Long userId = currentUserService.getCurrentUserId();
+        User currentUser = currentUserService.getCurrentUser();
+
+        String exerciseName = catalogCache.findExercise(exerciseListId)
+                .map(CatalogEntryDto::getName)
+                .orElseThrow(() -> new RuntimeException("Exercise not found with id: " + exerciseListId));
 
-        if (maxWeightSet != null) {
-            stats.setMaxWeight(maxWeightSet.getWeight());
-            stats.setMaxWeightReps(maxWeightSet.getReps());
-            stats.setMaxWeightDate(maxWeightSet.getWorkout().getWorkoutDate());
+        Optional<ExercisePersonalRecord> record = personalRecordRepo.findByUserAndExerciseListId(currentUser, exerciseListId);
+        long revision = record.map(ExercisePersonalRecord::getRevision).orElse(0L);
+        long resetRevision = record.map(ExercisePersonalRecord::getResetRevision).orElse(0L);
+
+        boolean hasRange = startDate != null && endDate != null;
+        List<ExerciseDailyProgress> rangeDays = hasRange
+                ? dailyProgressRepo.findLoggedDaysBetween(currentUser, exerciseListId, startDate, endDate)
+                : null;
+
+        ExerciseProgressStatsDto stats = hasRange
+                ? ExerciseStats.fold(rangeDays)
+                : record.map(ExerciseStats::toDto).orElseGet(ExerciseProgressStatsDto::new);
+
+        if (maxPoints != null && dailyProgressRepo.countLoggedDays(currentUser, exerciseListId) > maxPoints) {
+            List<ExerciseDailyProgress> days = hasRange ? rangeDays : dailyProgressRepo.findLoggedDays(currentUser, exerciseListId);
+            List<ExerciseProgressPointDto> dataPoints = ProgressDownsampler.downsample(
+                    days.stream().map(ProgressService::toPoint).collect(Collectors.toList()),
+                    maxPoints, recordDates(stats));
+            return new ExerciseProgressDeltaDto(exerciseName, userId + "." + revision, true, true, dataPoints,
+                    new ArrayList<>(), hasRange ? startDate : null, hasRange ? endDate : null, stats);
         }
 
-        // Find max reps
-        ExerciseSet maxRepsSet = sets.stream()
-                .filter(s -> s.getReps() != null)
-                .max((s1, s2) -> Integer.compare(s1.getReps(), s2.getReps()))
-                .orElse(null);
-
-        if (maxRepsSet != null) {
-            stats.setMaxReps(maxRepsSet.getReps());
-            stats.setMaxRepsWeight(maxRepsSet.getWeight());
-            stats.setMaxRepsDate(maxRepsSet.getWorkout().getWorkoutDate());
+        Long sinceRevision = parseVersion(since, userId);
+        boolean full = sinceRevision == null || sinceRevision < resetRevision || sinceRevision > revision;
+
+        List<ExerciseProgressPointDto> dataPoints = new ArrayList<>();
+        List<LocalDate> deletedDates = new ArrayList<>();
+        List<ExerciseDailyProgress> changed = full
+                ? dailyProgressRepo.findLoggedDays(currentUser, exerciseListId)
+                : dailyProgressRepo.findByUserAndExerciseListIdAndRevisionGreaterThanOrderByWorkoutDateAsc(
+                        currentUser, exerciseListId, sinceRevision);
+        for (ExerciseDailyProgress day : changed) {
+            if (day.getSetCount() > 0) {
+                dataPoints.add(toPoint(day));
+            } else {
+                deletedDates.add(day.getWorkoutDate());
+            }
         }
 
-        // Find max volume
-        ExerciseSet maxVolumeSet = sets.stream()
-                .filter(s -> s.getWeight() != null && s.getReps() != null)
-                .max((s1, s2) -> {
-                    BigDecimal vol1 = s1.getWeight().multiply(BigDecimal.valueOf(s1.getReps()));
-                    BigDecimal vol2 = s2.getWeight().multiply(BigDecimal.valueOf(s2.getReps()));
-                    return vol1.compareTo(vol2);
-                })
-                .orElse(null);
-
-        if (maxVolumeSet != null) {
-            stats.setMaxVolume(maxVolumeSet.getWeight()
-                    .multiply(BigDecimal.valueOf(maxVolumeSet.getReps())));
-            stats.setMaxVolumeWeight(maxVolumeSet.getWeight());
-            stats.setMaxVolumeReps(maxVolumeSet.getReps());
-            stats.setMaxVolumeDate(maxVolumeSet.getWorkout().getWorkoutDate());
-        }
+        return new ExerciseProgressDeltaDto(exerciseName, userId + "." + revision, full, false, dataPoints, deletedDates,
+                hasRange ? startDate : null, hasRange ? endDate : null, stats);
+    }
 
-        return stats;
+    private static ExerciseProgressPointDto toPoint(ExerciseDailyProgress day) {
+        return new ExerciseProgressPointDto(
+                day.getWorkoutDate(),
+                day.getBestWeight(),
+                day.getBestReps(),
+                day.getBestVolume());
     }
 
-    // helper method for getting user
-    private User getCurrentUser() {
-        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+    // days holding one of the records in the stats, kept by the downsampler whatever their shape
+    private static Set<LocalDate> recordDates(ExerciseProgressStatsDto stats) {
+        Set<LocalDate> dates = new HashSet<>();
+        Stream.of(stats.getMaxWeightDate(), stats.getMaxRepsDate(), stats.getMaxVolumeDate())
+                .filter(Objects::nonNull)
+                .forEach(dates::add);
+        return dates;
+    }
 
-        String username;
-        if (principal instanceof UserDetails) {
-            username = ((UserDetails) principal).getUsername();
-        } else {
-            username = principal.toString();
+    // revision from a "userId.revision" version, null when it is missing, malformed or someone else's
+    private static Long parseVersion(String version, Long userId) {
+        if (version == null) {
+            return null;
+        }
+        int dot = version.indexOf('.');
+        if (dot < 0 || !version.substring(0, dot).equals(String.valueOf(userId))) {
+            return null;
+        }
+        try {
+            return Long.parseLong(version.substring(dot + 1));
+        } catch (NumberFormatException e) {
+            return null;
         }
-
-        return userRepo.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Authenticated user '" + username + "' not found in the database"));
     }
 }
\ No newline at end of file
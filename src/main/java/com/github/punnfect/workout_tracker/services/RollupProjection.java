@@ -0,0 +1,58 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.entities.User;
+import com.github.punnfect.workout_tracker.events.WorkoutEvent;
+import com.github.punnfect.workout_tracker.events.WorkoutEventHandler;
+import com.github.punnfect.workout_tracker.repository.UserRepo;
+import jakarta.persistence.EntityManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Refreshes the exercise and cardio rollup rows (and with them the personal records) of the day an event touched,
+// or rebuilds them in full for every type an import logged
+@Component
+@Order(1)
+public class RollupProjection implements WorkoutEventHandler {
+
+    private final ProgressRollupService progressRollupService;
+    private final CardioRollupService cardioRollupService;
+    private final UserRepo userRepo;
+    private final EntityManager entityManager;
+
+    public RollupProjection(ProgressRollupService progressRollupService, CardioRollupService cardioRollupService,
+                            UserRepo userRepo, EntityManager entityManager) {
+        this.progressRollupService = progressRollupService;
+        this.cardioRollupService = cardioRollupService;
+        this.userRepo = userRepo;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void handle(WorkoutEvent event) {
+        User user = userRepo.getReferenceById(event.userId());
+        if (event instanceof WorkoutEvent.HistoryImported) {
+            rebuild(user, event);
+            return;
+        }
+        if (!event.exerciseListIds().isEmpty()) {
+            progressRollupService.refreshDays(user, event.workoutDate(), event.exerciseListIds());
+        }
+        if (!event.cardioListIds().isEmpty()) {
+            cardioRollupService.refreshDays(user, event.workoutDate(), event.cardioListIds());
+        }
+    }
+
+    // the persistence context is cleared after each type, so it never holds more than one type's days
+    private void rebuild(User user, WorkoutEvent event) {
+        for (Long exerciseListId : event.exerciseListIds()) {
+            progressRollupService.rebuild(user, exerciseListId);
+            entityManager.flush();
+            entityManager.clear();
+        }
+        for (Long cardioListId : event.cardioListIds()) {
+            cardioRollupService.rebuild(user, cardioListId);
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.dto.WorkoutDetailsView;
+import com.github.punnfect.workout_tracker.events.WorkoutEvent;
+import com.github.punnfect.workout_tracker.events.WorkoutEventHandler;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+// Reindexes a workout that changed for search, or drops it from the index once it is gone
+// after an import, reindexes the user from their stored documents, so it runs after DocumentProjection.
+// The change is committed to the index before the pipeline deletes the event, a crash before that replays it
+@Component
+@Order(3)
+public class SearchProjection implements WorkoutEventHandler {
+
+    private final WorkoutDetailsService workoutDetailsService;
+    private final WorkoutSearchService workoutSearchService;
+
+    public SearchProjection(WorkoutDetailsService workoutDetailsService, WorkoutSearchService workoutSearchService) {
+        this.workoutDetailsService = workoutDetailsService;
+        this.workoutSearchService = workoutSearchService;
+    }
+
+    @Override
+    public void handle(WorkoutEvent event) {
+        if (event instanceof WorkoutEvent.WorkoutDeleted) {
+            workoutSearchService.delete(event.workoutId());
+        } else if (event instanceof WorkoutEvent.HistoryImported) {
+            workoutSearchService.rebuild(event.userId());
+        } else {
+            Optional<WorkoutDetailsView> view = workoutDetailsService.getWorkoutDetails(event.workoutId(), event.userId());
+            if (view.isPresent()) {
+                workoutSearchService.index(view.get(), event.userId());
+            } else {
+                workoutSearchService.delete(event.workoutId());
+            }
+        }
+        workoutSearchService.commit();
+    }
+}
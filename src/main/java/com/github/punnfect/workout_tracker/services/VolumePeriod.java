@@ -0,0 +1,24 @@
+package com.github.punnfect.workout_tracker.services;
+
+import java.util.Locale;
+
+// Buckets for volume totals, each maps to a period start column on the daily rollup
+public enum VolumePeriod {
+    WEEK,
+    MONTH;
+
+    public static VolumePeriod of(String value) {
+        String name = value == null ? "" : value.toLowerCase(Locale.ROOT);
+        switch (name) {
+            case "":
+            case "week":
+            case "weekly":
+                return WEEK;
+            case "month":
+            case "monthly":
+                return MONTH;
+            default:
+                throw new IllegalArgumentException("Unsupported period '" + value + "', use week or month");
+        }
+    }
+}
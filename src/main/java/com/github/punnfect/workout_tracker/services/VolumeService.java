@@ -0,0 +1,82 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.dto.VolumeBucketDto;
+import com.github.punnfect.workout_tracker.dto.VolumePeriodRow;
+import com.github.punnfect.workout_tracker.dto.VolumeReportDto;
+import com.github.punnfect.workout_tracker.dto.VolumeSeriesDto;
+import com.github.punnfect.workout_tracker.entities.User;
+import com.github.punnfect.workout_tracker.repository.ExerciseDailyProgressRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/*
+Weekly and monthly training volume (sum of weight x reps), set counts and training day counts.
+The sums are GROUP BY queries over the daily rollup, so the database hands back one row per
+period (and muscle group) and no set ever has to be loaded to build them.
+*/
+@Service
+public class VolumeService {
+
+    private static final String UNASSIGNED_MUSCLE_GROUP = "Unassigned";
+
+    private final ExerciseDailyProgressRepo dailyProgressRepo;
+    private final CatalogCache catalogCache;
+    private final CurrentUserService currentUserService;
+
+    public VolumeService(ExerciseDailyProgressRepo dailyProgressRepo,
+                         CatalogCache catalogCache,
+                         CurrentUserService currentUserService) {
+        this.dailyProgressRepo = dailyProgressRepo;
+        this.catalogCache = catalogCache;
+        this.currentUserService = currentUserService;
+    }
+
+    // volume of one exercise per week or month, null dates mean all time
+    @Transactional(readOnly = true)
+    public VolumeReportDto getExerciseVolume(Long exerciseListId, VolumePeriod period,
+                                             LocalDate startDate, LocalDate endDate) {
+        catalogCache.findExercise(exerciseListId)
+                .orElseThrow(() -> new RuntimeException("Exercise not found with id: " + exerciseListId));
+
+        User currentUser = currentUserService.getCurrentUser();
+        List<VolumePeriodRow> rows = period == VolumePeriod.MONTH
+                ? dailyProgressRepo.sumMonthlyVolume(currentUser, exerciseListId, startDate, endDate)
+                : dailyProgressRepo.sumWeeklyVolume(currentUser, exerciseListId, startDate, endDate);
+
+        return toReport(period, startDate, endDate, rows);
+    }
+
+    // volume of every muscle group per week or month, one series per group
+    @Transactional(readOnly = true)
+    public VolumeReportDto getMuscleGroupVolume(VolumePeriod period, LocalDate startDate, LocalDate endDate) {
+        User currentUser = currentUserService.getCurrentUser();
+        List<VolumePeriodRow> rows = period == VolumePeriod.MONTH
+                ? dailyProgressRepo.sumMonthlyVolumeByMuscleGroup(currentUser, startDate, endDate)
+                : dailyProgressRepo.sumWeeklyVolumeByMuscleGroup(currentUser, startDate, endDate);
+
+        return toReport(period, startDate, endDate, rows);
+    }
+
+    // rows arrive ordered by label then period, so this only splits them into series
+    private static VolumeReportDto toReport(VolumePeriod period, LocalDate startDate, LocalDate endDate,
+                                            List<VolumePeriodRow> rows) {
+        Map<String, List<VolumeBucketDto>> bucketsByLabel = new LinkedHashMap<>();
+        for (VolumePeriodRow row : rows) {
+            String label = Objects.requireNonNullElse(row.label(), UNASSIGNED_MUSCLE_GROUP);
+            bucketsByLabel.computeIfAbsent(label, key -> new ArrayList<>())
+                    .add(new VolumeBucketDto(row.periodStart(), row.volume(), row.setCount(), row.dayCount()));
+        }
+
+        List<VolumeSeriesDto> series = new ArrayList<>(bucketsByLabel.size());
+        bucketsByLabel.forEach((label, buckets) -> series.add(new VolumeSeriesDto(label, buckets)));
+
+        return new VolumeReportDto(period.name().toLowerCase(), startDate, endDate, series);
+    }
+}
@@ -0,0 +1,211 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.dto.WorkoutCardioView;
+import com.github.punnfect.workout_tracker.dto.WorkoutDetailsView;
+import com.github.punnfect.workout_tracker.dto.WorkoutExerciseView;
+import com.github.punnfect.workout_tracker.dto.WorkoutSetView;
+import com.github.punnfect.workout_tracker.repository.WorkoutDocumentRepo;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/*
+Workout page read model. Saved workouts are served from their stored document (see WorkoutDocumentService and DocumentProjection),
+a primary key lookup or an in memory hit. Workouts without one are built from one flat query that returns the
+workout header on every row, followed by its sets (ordered by exercise and set number) and then its cardio sessions,
+and a single pass over the rows groups the sets by exercise. It runs as a native query so it shares the transaction
+and shows up in the Hibernate statistics, but nothing enters the persistence context.
+The same query builds the missing documents in batches (backfillDocuments).
+*/
+@Service
+public class WorkoutDetailsService {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkoutDetailsService.class);
+
+    // workouts built and stored per backfill transaction
+    private static final int BACKFILL_BATCH = 200;
+
+    // kind 1 rows are sets (one row with null set columns when the workout has none), kind 2 rows are cardio sessions
+    private static final String WORKOUT_DETAILS_SQL = """
+            SELECT w.workout_id, w.title, w.workout_date, w.time_enter, w.time_leave, w.notes AS workout_notes,
+                   1 AS row_kind, s.set_id AS row_id, s.exercise_list_id AS type_id, el.name AS type_name,
+                   s.set_number, s.weight, s.reps, NULL AS duration_minutes, NULL AS distance, s.notes
+            FROM workouts w
+            LEFT JOIN exercise_sets s ON s.workout_id = w.workout_id
+            LEFT JOIN exercise_list el ON el.exercise_list_id = s.exercise_list_id
+            WHERE w.workout_id IN (:workoutIds) AND w.user_id = :userId
+            UNION ALL
+            SELECT w.workout_id, w.title, w.workout_date, w.time_enter, w.time_leave, w.notes,
+                   2, c.cardio_session_id, c.cardio_list_id, cl.name,
+                   NULL, NULL, NULL, c.duration_minutes, c.distance, c.notes
+            FROM workouts w
+            JOIN cardio_sessions c ON c.workout_id = w.workout_id
+            JOIN cardio_list cl ON cl.cardio_list_id = c.cardio_list_id
+            WHERE w.workout_id IN (:workoutIds) AND w.user_id = :userId
+            ORDER BY workout_id, row_kind, type_id, set_number, row_id
+            """;
+
+    // column positions in WORKOUT_DETAILS_SQL
+    private static final int WORKOUT_ID = 0, TITLE = 1, WORKOUT_DATE = 2, TIME_ENTER = 3, TIME_LEAVE = 4,
+            WORKOUT_NOTES = 5, ROW_KIND = 6, ROW_ID = 7, TYPE_ID = 8, TYPE_NAME = 9, SET_NUMBER = 10, WEIGHT = 11,
+            REPS = 12, DURATION_MINUTES = 13, DISTANCE = 14, NOTES = 15;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final CurrentUserService currentUserService;
+    private final WorkoutDocumentService workoutDocumentService;
+    private final WorkoutDocumentRepo workoutDocumentRepo;
+
+    public WorkoutDetailsService(EntityManager entityManager, TransactionTemplate transactionTemplate,
+                                 CurrentUserService currentUserService, WorkoutDocumentService workoutDocumentService,
+                                 WorkoutDocumentRepo workoutDocumentRepo) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.currentUserService = currentUserService;
+        this.workoutDocumentService = workoutDocumentService;
+        this.workoutDocumentRepo = workoutDocumentRepo;
+    }
+
+    // the current user's workout with its sets and cardio, empty when it does not exist or belongs to someone else
+    @Transactional(readOnly = true)
+    public Optional<WorkoutDetailsView> getWorkoutDetails(Long workoutId) {
+        return getWorkoutDetails(workoutId, currentUserService.getCurrentUserId());
+    }
+
+    // the same for a given user, used off the request thread (see SearchProjection)
+    @Transactional(readOnly = true)
+    public Optional<WorkoutDetailsView> getWorkoutDetails(Long workoutId, Long userId) {
+        Optional<WorkoutDetailsView> stored = workoutDocumentService.find(workoutId, userId);
+        if (stored.isPresent()) {
+            return stored;
+        }
+        return Optional.ofNullable(loadViews(List.of(workoutId), userId).get(workoutId));
+    }
+
+    // Stores the current state of one workout as its document, or drops the document when the workout is gone
+    public void rebuildDocument(Long workoutId, Long userId) {
+        WorkoutDetailsView view = loadViews(List.of(workoutId), userId).get(workoutId);
+        if (view == null) {
+            workoutDocumentService.remove(workoutId);
+        } else {
+            workoutDocumentService.store(view, userId);
+        }
+    }
+
+    // Stores a document for each of the user's workouts that has none, returns how many were written
+    public int backfillDocuments(Long userId) {
+        int written = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<Long> workoutIds = transactionTemplate.execute(status -> {
+                List<Long> ids = workoutDocumentRepo.findUndocumentedWorkoutIds(userId, from, Limit.of(BACKFILL_BATCH));
+                if (!ids.isEmpty()) {
+                    workoutDocumentService.insertAll(loadViews(ids, userId).values(), userId);
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+                return ids;
+            });
+            if (workoutIds == null || workoutIds.isEmpty()) {
+                break;
+            }
+            written += workoutIds.size();
+            afterId = workoutIds.get(workoutIds.size() - 1);
+        }
+        if (written > 0) {
+            log.info("Stored {} workout documents for user {}", written, userId);
+        }
+        return written;
+    }
+
+    // Builds the views of the given workouts that belong to the user, keyed by workout id
+    private Map<Long, WorkoutDetailsView> loadViews(List<Long> workoutIds, Long userId) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(WORKOUT_DETAILS_SQL)
+                .setParameter("workoutIds", workoutIds)
+                .setParameter("userId", userId)
+                .getResultList();
+
+        // rows arrive sorted by workout and then exercise, so a new group starts whenever either id changes
+        Map<Long, WorkoutDetailsView> views = new LinkedHashMap<>();
+        WorkoutDetailsView view = null;
+        WorkoutExerciseView currentExercise = null;
+        for (Object[] row : rows) {
+            Long workoutId = toLong(row[WORKOUT_ID]);
+            if (view == null || !view.getId().equals(workoutId)) {
+                view = new WorkoutDetailsView(
+                        workoutId,
+                        (String) row[TITLE],
+                        toLocalDate(row[WORKOUT_DATE]),
+                        toLocalTime(row[TIME_ENTER]),
+                        toLocalTime(row[TIME_LEAVE]),
+                        (String) row[WORKOUT_NOTES],
+                        new ArrayList<>(),
+                        new ArrayList<>());
+                views.put(workoutId, view);
+                currentExercise = null;
+            }
+
+            if (row[ROW_ID] == null) {
+                continue;
+            }
+            Long typeId = toLong(row[TYPE_ID]);
+
+            if (toInteger(row[ROW_KIND]) == 2) {
+                view.getCardioSessions().add(new WorkoutCardioView(
+                        toLong(row[ROW_ID]),
+                        typeId,
+                        (String) row[TYPE_NAME],
+                        toInteger(row[DURATION_MINUTES]),
+                        (BigDecimal) row[DISTANCE],
+                        (String) row[NOTES]));
+                continue;
+            }
+
+            if (currentExercise == null || !currentExercise.getExerciseListId().equals(typeId)) {
+                currentExercise = new WorkoutExerciseView(typeId, (String) row[TYPE_NAME], new ArrayList<>());
+                view.getExercises().add(currentExercise);
+            }
+            currentExercise.getSets().add(new WorkoutSetView(
+                    toLong(row[ROW_ID]),
+                    toInteger(row[SET_NUMBER]),
+                    (BigDecimal) row[WEIGHT],
+                    toInteger(row[REPS]),
+                    (String) row[NOTES]));
+        }
+        return views;
+    }
+
+    // the driver picks the Java types of native columns, so numbers and temporals are converted here
+    private static Long toLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    private static Integer toInteger(Object value) {
+        return value == null ? null : ((Number) value).intValue();
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static LocalTime toLocalTime(Object value) {
+        return value instanceof Time time ? time.toLocalTime() : (LocalTime) value;
+    }
+}
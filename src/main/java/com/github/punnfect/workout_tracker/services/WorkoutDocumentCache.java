@@ -0,0 +1,114 @@
+package com.github.punnfect.workout_tracker.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+Bounded LRU of serialized workout documents in front of the workout_documents table, keyed by workout id.
+Writes land here only after their transaction commits (see WorkoutDocumentService).
+A reader that loaded a document from the table only caches it when no write or evict happened
+while it was reading, otherwise it could put back a copy that was replaced in the meantime.
+*/
+@Component
+public class WorkoutDocumentCache {
+
+    private final int capacity;
+    private final Map<Long, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // bumped by every put after a write and every evict, guarded by entries
+    private long generation;
+
+    public WorkoutDocumentCache(@Value("${app.workout-documents.cache-size:2000}") int capacity, MeterRegistry meterRegistry) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > WorkoutDocumentCache.this.capacity;
+            }
+        };
+
+        FunctionCounter.builder("workout.document.cache.requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .description("Workout page reads served from the in memory document cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("workout.document.cache.requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .description("Workout page reads that went to the database")
+                .register(meterRegistry);
+        Gauge.builder("workout.document.cache.size", this, WorkoutDocumentCache::size)
+                .description("Workout documents held in memory")
+                .register(meterRegistry);
+    }
+
+    // the document when it is cached and belongs to the user
+    public Optional<String> get(Long workoutId, Long userId) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(workoutId);
+        }
+        if (entry == null || !entry.userId().equals(userId)) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(entry.document());
+    }
+
+    // taken before reading the table, handed back to putIfUnchanged
+    public long generation() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    // caches a document read from the table, skipped when something was written or evicted since generation
+    public void putIfUnchanged(Long workoutId, Long userId, String document, long generation) {
+        synchronized (entries) {
+            if (this.generation == generation) {
+                entries.put(workoutId, new Entry(userId, document));
+            }
+        }
+    }
+
+    // caches a document that was just committed
+    public void put(Long workoutId, Long userId, String document) {
+        synchronized (entries) {
+            generation++;
+            entries.put(workoutId, new Entry(userId, document));
+        }
+    }
+
+    public void evict(Long workoutId) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(workoutId);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record Entry(Long userId, String document) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.punnfect.workout_tracker.dto.CatalogEntryDto;
+import com.github.punnfect.workout_tracker.dto.WorkoutCardioView;
+import com.github.punnfect.workout_tracker.dto.WorkoutDetailsView;
+import com.github.punnfect.workout_tracker.dto.WorkoutExerciseView;
+import com.github.punnfect.workout_tracker.entities.WorkoutDocument;
+import com.github.punnfect.workout_tracker.repository.WorkoutDocumentRepo;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/*
+Write and lookup side of the workout_documents table and its in memory LRU.
+WorkoutService drops a workout's document in the transaction that changes the workout, DocumentProjection stores
+the new one once that change has been handled, and the cache follows each of those once its transaction commits.
+In between, and for workouts never documented, pages are read through WorkoutDetailsService's flat query.
+Exercise and activity names in a document are only a snapshot, find() replaces them with the current catalog names.
+*/
+@Service
+public class WorkoutDocumentService {
+
+    // documents read per page by forEachStored
+    private static final int PAGE_SIZE = 500;
+
+    private final EntityManager entityManager;
+    private final WorkoutDocumentRepo workoutDocumentRepo;
+    private final WorkoutDocumentCache workoutDocumentCache;
+    private final CatalogCache catalogCache;
+    private final ObjectMapper objectMapper;
+
+    public WorkoutDocumentService(EntityManager entityManager, WorkoutDocumentRepo workoutDocumentRepo,
+                                  WorkoutDocumentCache workoutDocumentCache, CatalogCache catalogCache,
+                                  ObjectMapper objectMapper) {
+        this.entityManager = entityManager;
+        this.workoutDocumentRepo = workoutDocumentRepo;
+        this.workoutDocumentCache = workoutDocumentCache;
+        this.catalogCache = catalogCache;
+        this.objectMapper = objectMapper;
+    }
+
+    // the stored document of the user's workout, from memory when it is cached
+    public Optional<WorkoutDetailsView> find(Long workoutId, Long userId) {
+        Optional<String> cached = workoutDocumentCache.get(workoutId, userId);
+        if (cached.isPresent()) {
+            return Optional.of(withCatalogNames(fromJson(cached.get())));
+        }
+
+        long generation = workoutDocumentCache.generation();
+        Optional<WorkoutDocument> stored = workoutDocumentRepo.findByWorkoutIdAndUserId(workoutId, userId);
+        stored.ifPresent(document ->
+                workoutDocumentCache.putIfUnchanged(workoutId, userId, document.getDocument(), generation));
+        return stored.map(document -> withCatalogNames(fromJson(document.getDocument())));
+    }
+
+    // Inserts or replaces one document, an unchanged document is left alone
+    public void store(WorkoutDetailsView view, Long userId) {
+        String document = toJson(view);
+
+        WorkoutDocument stored = entityManager.find(WorkoutDocument.class, view.getId());
+        if (stored == null) {
+            stored = new WorkoutDocument(view.getId(), userId);
+            stored.setDocument(document);
+            stored.setUpdatedAt(LocalDateTime.now());
+            entityManager.persist(stored);
+        } else if (!document.equals(stored.getDocument())) {
+            stored.setDocument(document);
+            stored.setUpdatedAt(LocalDateTime.now());
+        }
+
+        afterCommit(() -> workoutDocumentCache.put(view.getId(), userId, document));
+    }
+
+    // Inserts documents for workouts known to have none, used by the backfill
+    public void insertAll(Collection<WorkoutDetailsView> views, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        for (WorkoutDetailsView view : views) {
+            WorkoutDocument document = new WorkoutDocument(view.getId(), userId);
+            document.setDocument(toJson(view));
+            document.setUpdatedAt(now);
+            entityManager.persist(document);
+        }
+    }
+
+    // Hands every stored document of the user (of all users when userId is null) with its owner's id to the action,
+    // a page at a time in workout id order, used to rebuild the search index
+    public void forEachStored(Long userId, BiConsumer<WorkoutDetailsView, Long> action) {
+        long afterId = 0;
+        while (true) {
+            List<WorkoutDocument> page = userId == null
+                    ? workoutDocumentRepo.findByWorkoutIdGreaterThanOrderByWorkoutId(afterId, Limit.of(PAGE_SIZE))
+                    : workoutDocumentRepo.findByUserIdAndWorkoutIdGreaterThanOrderByWorkoutId(userId, afterId, Limit.of(PAGE_SIZE));
+            if (page.isEmpty()) {
+                return;
+            }
+            for (WorkoutDocument document : page) {
+                action.accept(fromJson(document.getDocument()), document.getUserId());
+            }
+            afterId = page.get(page.size() - 1).getWorkoutId();
+        }
+    }
+
+    // Drops the document of a workout that is changing or gone
+    public void remove(Long workoutId) {
+        workoutDocumentRepo.deleteByWorkoutId(workoutId);
+        afterCommit(() -> workoutDocumentCache.evict(workoutId));
+    }
+
+    // exercises and activities can be renamed after a document was written, the ids in it are what stays true
+    private WorkoutDetailsView withCatalogNames(WorkoutDetailsView view) {
+        for (WorkoutExerciseView exercise : view.getExercises()) {
+            catalogCache.findExercise(exercise.getExerciseListId())
+                    .map(CatalogEntryDto::getName)
+                    .ifPresent(exercise::setName);
+        }
+        for (WorkoutCardioView cardio : view.getCardioSessions()) {
+            catalogCache.findCardioActivity(cardio.getCardioListId())
+                    .map(CatalogEntryDto::getName)
+                    .ifPresent(cardio::setName);
+        }
+        return view;
+    }
+
+    private String toJson(WorkoutDetailsView view) {
+        try {
+            return objectMapper.writeValueAsString(view);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize workout " + view.getId(), e);
+        }
+    }
+
+    private WorkoutDetailsView fromJson(String document) {
+        try {
+            return objectMapper.readValue(document, WorkoutDetailsView.class);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not read workout document", e);
+        }
+    }
+
+    // the cache must not see a document before other transactions can
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
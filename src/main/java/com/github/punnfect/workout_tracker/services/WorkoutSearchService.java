@@ -0,0 +1,247 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.dto.WorkoutCardioView;
+import com.github.punnfect.workout_tracker.dto.WorkoutDetailsView;
+import com.github.punnfect.workout_tracker.dto.WorkoutExerciseView;
+import com.github.punnfect.workout_tracker.dto.WorkoutSetView;
+import com.github.punnfect.workout_tracker.dto.WorkoutSummaryDto;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+Full text search over workout titles, workout notes and set/cardio notes, backed by an embedded Lucene index.
+There is one Lucene document per workout, filtered by user and by date, so a search never touches the database.
+SearchProjection keeps it current after each save or delete, and rebuild() fills it from the stored workout
+documents at startup (when its size disagrees with the workouts table) and after an import.
+index() and delete() make a change visible to the next search straight away, SearchProjection then calls commit()
+before the event's outbox row is deleted, so a change that a crash keeps off the disk is still in the outbox and
+replays. Lanes committing at the same time share one commit, a commit with nothing new to write is skipped.
+The index lives in app.search.index-dir, or in memory when that is blank (tests).
+*/
+@Service
+public class WorkoutSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkoutSearchService.class);
+
+    public static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 200;
+
+    private static final String ID = "id", USER = "user", DATE = "date", TITLE = "title", NOTES = "notes",
+            SET_NOTES = "setNotes";
+
+    // a title hit ranks above the same words in the notes
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(TITLE, 3f, NOTES, 1.5f, SET_NOTES, 1f);
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter indexWriter;
+    private final SearcherManager searcherManager;
+    private final WorkoutDocumentService workoutDocumentService;
+
+    public WorkoutSearchService(@Value("${app.search.index-dir:}") String indexDir,
+                                WorkoutDocumentService workoutDocumentService) throws IOException {
+        this.workoutDocumentService = workoutDocumentService;
+        if (indexDir.isBlank()) {
+            this.directory = new ByteBuffersDirectory();
+        } else {
+            Path path = Path.of(indexDir);
+            Files.createDirectories(path);
+            this.directory = FSDirectory.open(path);
+        }
+        this.indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(indexWriter, null);
+    }
+
+    // The current user's workouts matching the text (Lucene query syntax: words, "phrases", prefix*, OR, -exclude),
+    // optionally limited to a date range. Best matches first, newest first on ties or when there is no text
+    public List<WorkoutSummaryDto> search(Long userId, String text, LocalDate from, LocalDate to, int limit) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(USER, userId.toString())), BooleanClause.Occur.FILTER);
+        if (from != null || to != null) {
+            long lower = from == null ? Long.MIN_VALUE : from.toEpochDay();
+            long upper = to == null ? Long.MAX_VALUE : to.toEpochDay();
+            query.add(LongPoint.newRangeQuery(DATE, lower, upper), BooleanClause.Occur.FILTER);
+        }
+        boolean hasText = text != null && !text.isBlank();
+        if (hasText) {
+            query.add(parse(text.trim()), BooleanClause.Occur.MUST);
+        }
+
+        Sort sort = hasText
+                ? new Sort(SortField.FIELD_SCORE, new SortField(DATE, SortField.Type.LONG, true))
+                : new Sort(new SortField(DATE, SortField.Type.LONG, true), new SortField(ID, SortField.Type.LONG, true));
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                ScoreDoc[] hits = searcher.search(query.build(), Math.max(1, Math.min(limit, MAX_LIMIT)), sort).scoreDocs;
+                List<WorkoutSummaryDto> results = new ArrayList<>(hits.length);
+                for (ScoreDoc hit : hits) {
+                    Document document = searcher.storedFields().document(hit.doc);
+                    results.add(new WorkoutSummaryDto(
+                            Long.valueOf(document.get(ID)),
+                            LocalDate.ofEpochDay(document.getField(DATE).numericValue().longValue()),
+                            document.get(TITLE)));
+                }
+                return results;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Workout search failed", e);
+        }
+    }
+
+    // Adds or replaces one workout and makes it searchable, commit() writes it to disk
+    public void index(WorkoutDetailsView view, Long userId) {
+        try {
+            indexWriter.updateDocument(new Term(ID, view.getId().toString()), toDocument(view, userId));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not index workout " + view.getId(), e);
+        }
+    }
+
+    public void delete(Long workoutId) {
+        try {
+            indexWriter.deleteDocuments(new Term(ID, workoutId.toString()));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not remove workout " + workoutId + " from the search index", e);
+        }
+    }
+
+    // Reindexes every stored workout document of the user, or of everyone (replacing the whole index) when userId is null
+    public int rebuild(Long userId) {
+        int[] indexed = {0};
+        try {
+            if (userId == null) {
+                indexWriter.deleteAll();
+            }
+            workoutDocumentService.forEachStored(userId, (view, ownerId) -> {
+                try {
+                    indexWriter.updateDocument(new Term(ID, view.getId().toString()), toDocument(view, ownerId));
+                } catch (IOException e) {
+                    throw new RuntimeException("Could not index workout " + view.getId(), e);
+                }
+                indexed[0]++;
+            });
+            indexWriter.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not rebuild the search index", e);
+        }
+        log.info("Indexed {} workouts for search{}", indexed[0], userId == null ? "" : " for user " + userId);
+        return indexed[0];
+    }
+
+    // workouts currently in the index, compared with the workouts table at startup
+    public int indexedCount() {
+        return indexWriter.getDocStats().numDocs;
+    }
+
+    // Writes the changes made so far to disk, nothing to do when another caller's commit already covered them
+    public void commit() {
+        try {
+            if (indexWriter.hasUncommittedChanges()) {
+                indexWriter.commit();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not commit the search index", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        commit();
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    // free text is parsed as a query, text that isn't valid syntax (a stray quote or bracket, a dangling AND) is searched
+    // literally. escape() leaves the operators alone, lower case they are ordinary words
+    private Query parse(String text) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                new String[]{TITLE, NOTES, SET_NOTES}, analyzer, FIELD_BOOSTS);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            return parser.parse(text);
+        } catch (ParseException e) {
+            try {
+                return parser.parse(QueryParser.escape(text.toLowerCase(Locale.ROOT)));
+            } catch (ParseException escaped) {
+                throw new RuntimeException("Could not parse search text: " + text, escaped);
+            }
+        }
+    }
+
+    private static Document toDocument(WorkoutDetailsView view, Long userId) {
+        Document document = new Document();
+        document.add(new StringField(ID, view.getId().toString(), Field.Store.YES));
+        document.add(new NumericDocValuesField(ID, view.getId()));
+        document.add(new StringField(USER, userId.toString(), Field.Store.NO));
+
+        long epochDay = view.getWorkoutDate().toEpochDay();
+        document.add(new LongPoint(DATE, epochDay));
+        document.add(new NumericDocValuesField(DATE, epochDay));
+        document.add(new StoredField(DATE, epochDay));
+
+        document.add(new TextField(TITLE, view.getTitle() == null ? "" : view.getTitle(), Field.Store.YES));
+        if (view.getNotes() != null) {
+            document.add(new TextField(NOTES, view.getNotes(), Field.Store.NO));
+        }
+        for (WorkoutExerciseView exercise : view.getExercises()) {
+            for (WorkoutSetView set : exercise.getSets()) {
+                if (set.getNotes() != null) {
+                    document.add(new TextField(SET_NOTES, set.getNotes(), Field.Store.NO));
+                }
+            }
+        }
+        for (WorkoutCardioView cardio : view.getCardioSessions()) {
+            if (cardio.getNotes() != null) {
+                document.add(new TextField(SET_NOTES, cardio.getNotes(), Field.Store.NO));
+            }
+        }
+        return document;
+    }
+}
@@ -2,44 +2,63 @@ package com.github.punnfect.workout_tracker.services;
 
 import com.github.punnfect.workout_tracker.dto.CardioSessionDto;
 import com.github.punnfect.workout_tracker.dto.ExerciseSetDto;
+import com.github.punnfect.workout_tracker.dto.WorkoutHistoryPageDto;
 import com.github.punnfect.workout_tracker.dto.WorkoutSummaryDto;
 import com.github.punnfect.workout_tracker.entities.*;
+import com.github.punnfect.workout_tracker.events.WorkoutEvent;
+import com.github.punnfect.workout_tracker.events.WorkoutEventPipeline;
 import com.github.punnfect.workout_tracker.repository.*;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 @Service
 public class WorkoutService {
 
+    public static final int HISTORY_PAGE_SIZE = 20;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final WorkoutRepo workoutRepo;
-    private final UserRepo userRepo;
+    private final CurrentUserService currentUserService;
     private final CardioSessionRepo cardioSessionRepo;
     private final CardioListRepo cardioListRepo;
     private final ExerciseSetRepo exerciseSetRepo;
     private final ExerciseListRepo exerciseListRepo;
-
-    public WorkoutService(WorkoutRepo workoutRepo, UserRepo userRepo, CardioSessionRepo cardioSessionRepo,
-                          CardioListRepo cardioListRepo, ExerciseSetRepo exerciseSetRepo, ExerciseListRepo exerciseListRepo) {
+    private final CatalogCache catalogCache;
+    private final WorkoutDocumentService workoutDocumentService;
+    private final WorkoutEventPipeline workoutEventPipeline;
+    private final EntityManager entityManager;
+
+    public WorkoutService(WorkoutRepo workoutRepo, CurrentUserService currentUserService, CardioSessionRepo cardioSessionRepo,
+                          CardioListRepo cardioListRepo, ExerciseSetRepo exerciseSetRepo, ExerciseListRepo exerciseListRepo,
+                          CatalogCache catalogCache, WorkoutDocumentService workoutDocumentService,
+                          WorkoutEventPipeline workoutEventPipeline, EntityManager entityManager) {
         this.workoutRepo = workoutRepo;
-        this.userRepo = userRepo;
+        this.currentUserService = currentUserService;
         this.cardioSessionRepo = cardioSessionRepo;
         this.cardioListRepo = cardioListRepo;
         this.exerciseSetRepo = exerciseSetRepo;
         this.exerciseListRepo = exerciseListRepo;
+        this.catalogCache = catalogCache;
+        this.workoutDocumentService = workoutDocumentService;
+        this.workoutEventPipeline = workoutEventPipeline;
+        this.entityManager = entityManager;
     }
 
     // Creates a new base workout with only workoutDate to a user
     @Transactional
     public Workout createNewWorkout(LocalDate workoutDate, String title) {
-        User currentUser = getCurrentUser();
+        User currentUser = currentUserService.getCurrentUser();
 
         Workout newWorkout = new Workout();
         newWorkout.setUser(currentUser);
@@ -50,124 +69,286 @@ public class WorkoutService {
     }
 
     // Will save entire workout entered by user
+    // Rollups and the stored document catch up after commit, see the WorkoutEventHandlers
     @Transactional
     public Workout saveWorkoutDetails(Long workoutId, String workoutNotes, LocalTime timeEnter, LocalTime timeLeave,
                                       List<ExerciseSetDto> exerciseSets, List<CardioSessionDto> cardioSessions) {
 
-        Workout workout = workoutRepo.findById(workoutId)
+        Workout workout = workoutRepo.findForEditById(workoutId)
                 .orElseThrow(() -> new RuntimeException("Workout not found with id: " + workoutId));
 
         workout.setNotes(workoutNotes);
         workout.setTimeEnter(timeEnter);
         workout.setTimeLeave(timeLeave);
 
-        // Clear existing sets and sessions (more efficient than deleteAll)
-        workout.getExerciseSets().clear();
-        workout.getCardioSessions().clear();
-        workoutRepo.flush(); // Ensure deletions are processed before adding new ones
+        // Only exercises and activities whose rows were inserted, changed or removed need their rollup rows refreshed
+        Set<Long> affectedExerciseIds = new HashSet<>();
+        Set<Long> affectedCardioIds = new HashSet<>();
+        // Resolve every referenced type up front so a bad id fails before anything is written
+        Map<Long, ExerciseList> exerciseTypes = resolveTypes(
+                distinctIds(exerciseSets, ExerciseSetDto::getExerciseListId),
+                id -> catalogCache.findExercise(id).isPresent(), exerciseListRepo, ExerciseList::getId, "Exercise");
+        Map<Long, CardioList> cardioTypes = resolveTypes(
+                distinctIds(cardioSessions, CardioSessionDto::getCardioListId),
+                id -> catalogCache.findCardioActivity(id).isPresent(), cardioListRepo, CardioList::getId, "Cardio activity");
+
+        mergeExerciseSets(workout, exerciseSets, exerciseTypes, affectedExerciseIds);
+        mergeCardioSessions(workout, cardioSessions, cardioTypes, affectedCardioIds);
+
+        // A save that changes nothing has nothing to publish
+        boolean changed = entityManager.unwrap(Session.class).isDirty();
+        Workout saved = workoutRepo.saveAndFlush(workout);
+        if (changed) {
+            workoutDocumentService.remove(saved.getId());
+            workoutEventPipeline.publish(new WorkoutEvent.WorkoutSaved(saved.getUser().getId(), saved.getId(),
+                    saved.getWorkoutDate(), affectedExerciseIds, affectedCardioIds));
+        }
+
+        return saved;
+    }
+
+    // Returns one page of workout history in summary form, newest first
+    // beforeDate/beforeId is the cursor from the previous page, null for the first page
+    @Transactional(readOnly = true)
+    public WorkoutHistoryPageDto getWorkoutHistoryPage(LocalDate beforeDate, Long beforeId, int pageSize) {
+        User currentUser = currentUserService.getCurrentUser();
+        pageSize = Math.max(1, Math.min(pageSize, MAX_HISTORY_PAGE_SIZE));
+
+        // Fetch one extra row to know if another page exists without a count query
+        Limit limit = Limit.of(pageSize + 1);
+        List<WorkoutSummaryDto> workouts = beforeDate != null && beforeId != null
+                ? workoutRepo.findHistoryPageBefore(currentUser, beforeDate, beforeId, limit)
+                : workoutRepo.findHistoryFirstPage(currentUser, limit);
+
+        boolean hasMore = workouts.size() > pageSize;
+        if (hasMore) {
+            workouts = workouts.subList(0, pageSize);
+        }
+
+        WorkoutSummaryDto last = workouts.isEmpty() ? null : workouts.get(workouts.size() - 1);
+        return new WorkoutHistoryPageDto(
+                workouts,
+                hasMore,
+                last != null ? last.getWorkoutDate() : null,
+                last != null ? last.getId() : null);
+    }
+
+    // Deletes an entire workout and all associated sets/sessions
+    @Transactional
+    public void deleteWorkout(Long workoutId) {
+        Optional<Workout> workoutOpt = workoutRepo.findForEditById(workoutId);
+        if (workoutOpt.isEmpty()) {
+            return;
+        }
+
+        Workout workout = workoutOpt.get();
+        Set<Long> affectedExerciseIds = exerciseListIds(workout);
+        Set<Long> affectedCardioIds = cardioListIds(workout);
+
+        workoutRepo.delete(workout);
+        workoutRepo.flush();
+        workoutDocumentService.remove(workoutId);
+
+        workoutEventPipeline.publish(new WorkoutEvent.WorkoutDeleted(workout.getUser().getId(), workoutId,
+                workout.getWorkoutDate(), affectedExerciseIds, affectedCardioIds));
+    }
+
+    // Deletes an exercise set from a workout
+    @Transactional
+    public void deleteExerciseSet(Long exerciseSetId) {
+        Optional<ExerciseSet> setOpt = exerciseSetRepo.findWithWorkoutById(exerciseSetId);
+        if (setOpt.isEmpty()) {
+            return;
+        }
+
+        ExerciseSet set = setOpt.get();
+        Workout workout = set.getWorkout();
+
+        exerciseSetRepo.delete(set);
+        exerciseSetRepo.flush();
+        workoutDocumentService.remove(workout.getId());
+
+        workoutEventPipeline.publish(new WorkoutEvent.SetDeleted(workout.getUser().getId(), workout.getId(),
+                workout.getWorkoutDate(), set.getExerciseList().getId()));
+    }
+
+    // Deletes a cardio session from a workout
+    @Transactional
+    public void deleteCardioSession(Long cardioSessionId) {
+        Optional<CardioSession> sessionOpt = cardioSessionRepo.findWithWorkoutById(cardioSessionId);
+        if (sessionOpt.isEmpty()) {
+            return;
+        }
+
+        CardioSession session = sessionOpt.get();
+        Workout workout = session.getWorkout();
+
+        cardioSessionRepo.delete(session);
+        cardioSessionRepo.flush();
+        workoutDocumentService.remove(workout.getId());
+
+        workoutEventPipeline.publish(new WorkoutEvent.CardioSessionDeleted(workout.getUser().getId(), workout.getId(),
+                workout.getWorkoutDate(), session.getCardioList().getId()));
+    }
+
+    // Matches incoming sets to existing rows by (exercise, set number) so only real changes hit the database
+    // Unmatched rows are dropped from the collection and removed by orphanRemoval
+    private void mergeExerciseSets(Workout workout, List<ExerciseSetDto> exerciseSets, Map<Long, ExerciseList> exerciseTypes,
+                                   Set<Long> affectedExerciseIds) {
+        Map<SetKey, ExerciseSet> existing = new HashMap<>();
+        for (ExerciseSet set : workout.getExerciseSets()) {
+            existing.put(new SetKey(set.getExerciseList().getId(), set.getSetNumber()), set);
+        }
 
-        if (exerciseSets != null && !exerciseSets.isEmpty()) {
+        Set<SetKey> seen = new HashSet<>();
+        if (exerciseSets != null) {
             for (ExerciseSetDto setDto : exerciseSets) {
                 if (setDto == null || setDto.getExerciseListId() == null) {
                     continue;
                 }
 
-                ExerciseList exerciseType = exerciseListRepo.findById(setDto.getExerciseListId())
-                        .orElseThrow(() -> new RuntimeException("Exercise not found with id: " + setDto.getExerciseListId()));
+                SetKey key = new SetKey(setDto.getExerciseListId(), setDto.getSetNumber());
+                if (!seen.add(key)) {
+                    throw new RuntimeException("Duplicate set number " + setDto.getSetNumber() + " for exercise id: " + setDto.getExerciseListId());
+                }
 
-                ExerciseSet newSet = new ExerciseSet();
-                newSet.setWorkout(workout);
-                newSet.setExerciseList(exerciseType);
-                newSet.setSetNumber(setDto.getSetNumber());
-                newSet.setWeight(setDto.getWeight());
-                newSet.setReps(setDto.getReps());
-                newSet.setNotes(setDto.getNotes());
+                ExerciseSet set = existing.remove(key);
+                if (set == null) {
+                    set = new ExerciseSet();
+                    set.setWorkout(workout);
+                    set.setExerciseList(exerciseTypes.get(key.exerciseListId()));
+                    set.setSetNumber(setDto.getSetNumber());
+                    workout.getExerciseSets().add(set);
+                    affectedExerciseIds.add(key.exerciseListId());
+                } else if (!sameValue(set.getWeight(), setDto.getWeight()) || !Objects.equals(set.getReps(), setDto.getReps())) {
+                    affectedExerciseIds.add(key.exerciseListId());
+                }
 
-                workout.getExerciseSets().add(newSet);
+                // Unchanged values leave the entity clean, so dirty checking skips the UPDATE
+                if (!sameValue(set.getWeight(), setDto.getWeight())) {
+                    set.setWeight(setDto.getWeight());
+                }
+                set.setReps(setDto.getReps());
+                set.setNotes(setDto.getNotes());
             }
         }
 
-        if (cardioSessions != null && !cardioSessions.isEmpty()) {
+        for (ExerciseSet removed : existing.values()) {
+            workout.getExerciseSets().remove(removed);
+            affectedExerciseIds.add(removed.getExerciseList().getId());
+        }
+    }
+
+    // Cardio has no set number, so sessions are matched by activity and their order within that activity
+    private void mergeCardioSessions(Workout workout, List<CardioSessionDto> cardioSessions, Map<Long, CardioList> cardioTypes,
+                                     Set<Long> affectedCardioIds) {
+        Map<Long, Deque<CardioSession>> existing = new HashMap<>();
+        workout.getCardioSessions().stream()
+                .sorted(Comparator.comparing(CardioSession::getId))
+                .forEach(session -> existing.computeIfAbsent(session.getCardioList().getId(), id -> new ArrayDeque<>()).add(session));
+
+        if (cardioSessions != null) {
             for (CardioSessionDto sessionDto : cardioSessions) {
                 if (sessionDto == null || sessionDto.getCardioListId() == null) {
                     continue;
                 }
 
-                CardioList cardioType = cardioListRepo.findById(sessionDto.getCardioListId())
-                        .orElseThrow(() -> new RuntimeException("Cardio activity not found with id: " + sessionDto.getCardioListId()));
-
-                CardioSession newSession = new CardioSession();
-                newSession.setWorkout(workout);
-                newSession.setCardioList(cardioType);
-                newSession.setDurationMinutes(sessionDto.getDurationMinutes());
-                newSession.setDistance(sessionDto.getDistance());
-                newSession.setNotes(sessionDto.getNotes());
+                Deque<CardioSession> matches = existing.get(sessionDto.getCardioListId());
+                CardioSession session = matches != null ? matches.poll() : null;
+                if (session == null) {
+                    session = new CardioSession();
+                    session.setWorkout(workout);
+                    session.setCardioList(cardioTypes.get(sessionDto.getCardioListId()));
+                    workout.getCardioSessions().add(session);
+                    affectedCardioIds.add(sessionDto.getCardioListId());
+                } else if (!Objects.equals(session.getDurationMinutes(), sessionDto.getDurationMinutes())
+                        || !sameValue(session.getDistance(), sessionDto.getDistance())) {
+                    affectedCardioIds.add(sessionDto.getCardioListId());
+                }
 
-                workout.getCardioSessions().add(newSession);
+                session.setDurationMinutes(sessionDto.getDurationMinutes());
+                if (!sameValue(session.getDistance(), sessionDto.getDistance())) {
+                    session.setDistance(sessionDto.getDistance());
+                }
+                session.setNotes(sessionDto.getNotes());
             }
         }
 
-        return workoutRepo.save(workout);
+        for (Deque<CardioSession> unmatched : existing.values()) {
+            workout.getCardioSessions().removeAll(unmatched);
+            unmatched.forEach(session -> affectedCardioIds.add(session.getCardioList().getId()));
+        }
     }
 
-    // Returns entire workout history in summary form
-    @Transactional(readOnly = true)
-    public List<WorkoutSummaryDto> getWorkoutHistoryForCurrentUser() {
-        User currentUser = getCurrentUser();
-        List<Workout> workouts = workoutRepo.findByUserOrderByWorkoutDateDesc(currentUser);
-
-        return workouts.stream()
-                .map(workout -> new WorkoutSummaryDto(
-                        workout.getId(),
-                        workout.getWorkoutDate(),
-                        workout.getTitle()))
-                .collect(Collectors.toList());
+    // Distinct non-null type ids referenced by the submitted rows
+    private static <D> Set<Long> distinctIds(List<D> dtos, Function<D, Long> idOf) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (dtos != null) {
+            for (D dto : dtos) {
+                if (dto != null && idOf.apply(dto) != null) {
+                    ids.add(idOf.apply(dto));
+                }
+            }
+        }
+        return ids;
     }
 
-    // Returns the entire workout by ID with all related data (uses 2 queries to avoid MultipleBagFetchException)
-    @Transactional(readOnly = true)
-    public Optional<Workout> getWorkoutDetails(Long workoutId) {
-        // Execute first query to fetch workout with exercise sets
-        Optional<Workout> workoutOpt = workoutRepo.findByIdWithExerciseSets(workoutId);
+    // Maps each id to a reference proxy (no SELECT). Ids missing from the catalog cache get one IN query
+    // in case the cache is stale, anything still unknown fails with the full list of bad ids
+    private <T> Map<Long, T> resolveTypes(Set<Long> ids, Predicate<Long> inCatalog, JpaRepository<T, Long> repo,
+                                          Function<T, Long> idOf, String typeName) {
+        Set<Long> unknown = new TreeSet<>();
+        for (Long id : ids) {
+            if (!inCatalog.test(id)) {
+                unknown.add(id);
+            }
+        }
 
-        if (workoutOpt.isPresent()) {
-            // Execute second query to fetch cardio sessions (Hibernate will merge into existing entity)
-            workoutRepo.findByIdWithCardioSessions(workoutId);
+        if (!unknown.isEmpty()) {
+            List<T> found = repo.findAllById(unknown);
+            if (!found.isEmpty()) {
+                catalogCache.invalidate();
+                found.forEach(type -> unknown.remove(idOf.apply(type)));
+            }
+            if (!unknown.isEmpty()) {
+                throw new RuntimeException(typeName + " not found with ids: " + unknown);
+            }
         }
 
-        return workoutOpt;
+        Map<Long, T> types = new HashMap<>();
+        for (Long id : ids) {
+            types.put(id, repo.getReferenceById(id));
+        }
+        return types;
     }
 
-    // Deletes an entire workout and all associated sets/sessions
-    @Transactional
-    public void deleteWorkout(Long workoutId) {
-        workoutRepo.deleteById(workoutId);
+    // BigDecimal equals() is scale sensitive (100 vs 100.00), compare numerically instead
+    private static boolean sameValue(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
     }
 
-    // Deletes an exercise set from a workout
-    @Transactional
-    public void deleteExerciseSet(Long exerciseSetId) {
-        exerciseSetRepo.deleteById(exerciseSetId);
+    private record SetKey(Long exerciseListId, Integer setNumber) {
     }
 
-    // Deletes a cardio session from a workout
-    @Transactional
-    public void deleteCardioSession(Long cardioSessionId) {
-        cardioSessionRepo.deleteById(cardioSessionId);
+    // Collects the distinct exercise ids currently logged on a workout
+    private Set<Long> exerciseListIds(Workout workout) {
+        Set<Long> ids = new HashSet<>();
+        if (workout.getExerciseSets() != null) {
+            for (ExerciseSet set : workout.getExerciseSets()) {
+                ids.add(set.getExerciseList().getId());
+            }
+        }
+        return ids;
     }
 
-    // Helper function for matching a user by their username
-    private User getCurrentUser() {
-        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-
-        String username;
-        if (principal instanceof UserDetails) {
-            username = ((UserDetails) principal).getUsername();
-        } else {
-            username = principal.toString();
+    // Collects the distinct cardio activity ids currently logged on a workout
+    private Set<Long> cardioListIds(Workout workout) {
+        Set<Long> ids = new HashSet<>();
+        if (workout.getCardioSessions() != null) {
+            for (CardioSession session : workout.getCardioSessions()) {
+                ids.add(session.getCardioList().getId());
+            }
         }
-
-        return userRepo.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Authenticated user '" + username + "' not found in the database"));
+        return ids;
     }
 }
\ No newline at end of file
@@ -1,4 +1,4 @@
-// home.js - Handles workout search and filtering on the home page
+// home.js - Handles workout search, filtering and history paging on the home page
 
 // Debounce function to delay search execution
 function debounce(func, wait) {
@@ -13,54 +13,167 @@ function debounce(func, wait) {
     };
 }
 
-// Search and filter workouts
-function filterWorkouts() {
-    const titleSearch = document.getElementById('titleSearch').value.toLowerCase().trim();
+// Searches titles and notes on the server (/api/workouts/search), the date filter narrows it to that day.
+// Results replace the history list until both fields are cleared
+let searchRequest = 0;
+
+async function searchWorkouts() {
+    const titleSearch = document.getElementById('titleSearch').value.trim();
     const dateSearch = document.getElementById('dateSearch').value;
-    const workoutItems = document.querySelectorAll('.workout-item');
+    const workoutList = document.getElementById('workoutList');
+    const searchResults = document.getElementById('searchResults');
+    const sentinel = document.getElementById('historySentinel');
     const noResultsMessage = document.getElementById('noResultsMessage');
     const resultCount = document.getElementById('resultCount');
 
-    let visibleCount = 0;
+    // Responses can arrive out of order, only the latest search is shown
+    const request = ++searchRequest;
 
-    workoutItems.forEach(item => {
-        const title = item.getAttribute('data-title').toLowerCase();
-        const date = item.getAttribute('data-date');
+    if (titleSearch === '' && dateSearch === '') {
+        searchResults.replaceChildren();
+        searchResults.classList.add('d-none');
+        workoutList.classList.remove('d-none');
+        if (sentinel) sentinel.classList.remove('d-none');
+        noResultsMessage.style.display = 'none';
+        resultCount.textContent = '';
+        return;
+    }
 
-        let matchesTitle = true;
-        let matchesDate = true;
+    const params = new URLSearchParams();
+    if (titleSearch !== '') {
+        params.set('q', titleSearch);
+    }
+    if (dateSearch !== '') {
+        params.set('from', dateSearch);
+        params.set('to', dateSearch);
+    }
 
-        // Check title match
-        if (titleSearch !== '') {
-            matchesTitle = title.includes(titleSearch);
+    try {
+        const response = await fetch(`/api/workouts/search?${params}`, {
+            headers: { 'Accept': 'application/json' }
+        });
+        if (!response.ok) {
+            throw new Error(`Search request failed with status ${response.status}`);
         }
 
-        // Check date match
-        if (dateSearch !== '') {
-            matchesDate = date === dateSearch;
+        const workouts = await response.json();
+        if (request !== searchRequest) {
+            return;
         }
 
-        // Show or hide based on both criteria
-        if (matchesTitle && matchesDate) {
-            item.classList.remove('d-none');
-            visibleCount++;
-        } else {
-            item.classList.add('d-none');
+        searchResults.replaceChildren(...workouts.map(createWorkoutItem));
+        searchResults.classList.remove('d-none');
+        workoutList.classList.add('d-none');
+        if (sentinel) sentinel.classList.add('d-none');
+
+        // Show/hide "no results" message and update result count
+        noResultsMessage.style.display = workouts.length === 0 ? 'block' : 'none';
+        resultCount.textContent = `Showing ${workouts.length} workout${workouts.length !== 1 ? 's' : ''}`;
+    } catch (error) {
+        console.error('Error searching workouts:', error);
+    }
+}
+
+// Formats a yyyy-MM-dd string the same way the server renders it (e.g. January 05, 2025)
+function formatWorkoutDate(isoDate) {
+    const [year, month, day] = isoDate.split('-').map(Number);
+    return new Date(year, month - 1, day).toLocaleDateString('en-US', {
+        year: 'numeric',
+        month: 'long',
+        day: '2-digit'
+    });
+}
+
+// Builds a history row matching the server rendered markup
+function createWorkoutItem(workout) {
+    const csrfToken = document.querySelector('meta[name="_csrf"]').getAttribute('content');
+    const csrfParameter = document.querySelector('meta[name="_csrf_parameter"]').getAttribute('content');
+
+    const item = document.createElement('div');
+    item.className = 'list-item workout-item';
+    item.setAttribute('data-title', workout.title || '');
+    item.setAttribute('data-date', workout.workoutDate);
+
+    const link = document.createElement('a');
+    link.href = `/workout/${workout.id}`;
+    link.className = 'list-item-content';
+
+    const title = document.createElement('h5');
+    title.className = 'list-item-title';
+    title.textContent = workout.title;
+
+    const date = document.createElement('small');
+    date.className = 'list-item-subtitle';
+    date.textContent = formatWorkoutDate(workout.workoutDate);
+
+    link.appendChild(title);
+    link.appendChild(date);
+
+    const form = document.createElement('form');
+    form.action = `/workouts/${workout.id}/delete`;
+    form.method = 'post';
+    form.className = 'list-item-actions';
+
+    const csrfInput = document.createElement('input');
+    csrfInput.type = 'hidden';
+    csrfInput.name = csrfParameter;
+    csrfInput.value = csrfToken;
+
+    const deleteButton = document.createElement('button');
+    deleteButton.type = 'submit';
+    deleteButton.className = 'btn-close';
+    deleteButton.addEventListener('click', function(event) {
+        if (!confirm('Are you sure you want to delete this workout?')) {
+            event.preventDefault();
         }
     });
 
-    // Show/hide "no results" message
-    if (visibleCount === 0) {
-        noResultsMessage.style.display = 'block';
-    } else {
-        noResultsMessage.style.display = 'none';
+    form.appendChild(csrfInput);
+    form.appendChild(deleteButton);
+
+    item.appendChild(link);
+    item.appendChild(form);
+    return item;
+}
+
+// Fetches the next page of history using the keyset cursor stored on the list
+let loadingWorkouts = false;
+
+async function loadMoreWorkouts() {
+    const workoutList = document.getElementById('workoutList');
+    const sentinel = document.getElementById('historySentinel');
+
+    if (!workoutList || loadingWorkouts || workoutList.getAttribute('data-has-more') !== 'true') {
+        return;
     }
 
-    // Update result count
-    if (titleSearch !== '' || dateSearch !== '') {
-        resultCount.textContent = `Showing ${visibleCount} workout${visibleCount !== 1 ? 's' : ''}`;
-    } else {
-        resultCount.textContent = '';
+    loadingWorkouts = true;
+    try {
+        const params = new URLSearchParams({
+            beforeDate: workoutList.getAttribute('data-next-date'),
+            beforeId: workoutList.getAttribute('data-next-id')
+        });
+        const response = await fetch(`/api/workouts/history?${params}`, {
+            headers: { 'Accept': 'application/json' }
+        });
+        if (!response.ok) {
+            throw new Error(`History request failed with status ${response.status}`);
+        }
+
+        const page = await response.json();
+        page.workouts.forEach(workout => workoutList.appendChild(createWorkoutItem(workout)));
+
+        workoutList.setAttribute('data-has-more', String(page.hasMore));
+        workoutList.setAttribute('data-next-date', page.nextBeforeDate || '');
+        workoutList.setAttribute('data-next-id', page.nextBeforeId || '');
+
+        if (!page.hasMore && sentinel) {
+            sentinel.remove();
+        }
+    } catch (error) {
+        console.error('Error loading more workouts:', error);
+    } finally {
+        loadingWorkouts = false;
     }
 }
 
@@ -71,21 +184,38 @@ document.addEventListener('DOMContentLoaded', function() {
     const clearButton = document.getElementById('clearSearch');
 
     if (titleSearch) {
-        // Debounced title search (1 second delay)
-        const debouncedFilter = debounce(filterWorkouts, 1000);
-        titleSearch.addEventListener('input', debouncedFilter);
+        // Debounced search, the index answers quickly so a short pause is enough
+        const debouncedSearch = debounce(searchWorkouts, 300);
+        titleSearch.addEventListener('input', debouncedSearch);
     }
 
     if (dateSearch) {
         // Immediate date search
-        dateSearch.addEventListener('change', filterWorkouts);
+        dateSearch.addEventListener('change', searchWorkouts);
     }
 
     if (clearButton) {
         clearButton.addEventListener('click', function() {
             if (titleSearch) titleSearch.value = '';
             if (dateSearch) dateSearch.value = '';
-            filterWorkouts();
+            searchWorkouts();
         });
     }
+
+    const sentinel = document.getElementById('historySentinel');
+    const loadMoreButton = document.getElementById('loadMoreWorkouts');
+
+    if (loadMoreButton) {
+        loadMoreButton.addEventListener('click', loadMoreWorkouts);
+    }
+
+    if (sentinel && 'IntersectionObserver' in window) {
+        // Infinite scroll, load the next page shortly before the end of the list is visible
+        const observer = new IntersectionObserver(entries => {
+            if (entries.some(entry => entry.isIntersecting)) {
+                loadMoreWorkouts();
+            }
+        }, { rootMargin: '200px' });
+        observer.observe(sentinel);
+    }
 });
\ No newline at end of file
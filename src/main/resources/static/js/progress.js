@@ -1,52 +1,222 @@
 // progress.js - Handles Chart.js rendering for exercise progress
+// Each exercise's all time series is cached in localStorage with the version it was fetched at,
+// /api/progress/{id}/delta then only sends the days that changed since, and the chart is drawn
+// from the merged series filtered to the selected range.
+// Once a history is longer than MAX_CHART_POINTS days the server only sends the selected range,
+// downsampled when needed, and that is drawn as is while the cached series is dropped
+
+const SERIES_CACHE_PREFIX = 'progressSeries:';
+const MAX_CHART_POINTS = 500;
+
+let progressChart = null;
 
 document.addEventListener('DOMContentLoaded', function() {
-    // Only render chart if we have progress data
-    if (typeof window.progressData === 'undefined' || window.progressData === null) {
-        console.log('No progress data available to chart');
+    const form = document.getElementById('progressForm');
+    if (!form) {
         return;
     }
 
-    const data = window.progressData;
-    console.log('Progress data loaded:', data);
+    form.addEventListener('submit', function(event) {
+        event.preventDefault();
+        loadProgress(new FormData(form));
+    });
 
-    // Check if we have data points
-    if (!data.dataPoints || data.dataPoints.length === 0) {
-        console.log('No data points to display');
-        const canvas = document.getElementById('progressChart');
-        if (canvas) {
-            const ctx = canvas.getContext('2d');
-            ctx.font = '20px Arial';
-            ctx.fillStyle = '#6c757d';
-            ctx.textAlign = 'center';
-            ctx.fillText('No workout data found for this exercise in the selected time range',
-                canvas.width / 2, canvas.height / 2);
+    // page opened with an exercise already selected (bookmark, reload)
+    if (document.getElementById('exerciseId').value) {
+        loadProgress(new FormData(form));
+    }
+});
+
+// Fetches what changed for the form's exercise, merges it into the cached series and redraws
+function loadProgress(formData) {
+    const params = new URLSearchParams();
+    for (const [key, value] of formData.entries()) {
+        if (value) {
+            params.append(key, value);
         }
+    }
+
+    const exerciseId = params.get('exerciseId');
+    if (!exerciseId) {
         return;
     }
 
-    // Prepare data for Chart.js - convert dates to JavaScript Date objects
-    const chartData = data.dataPoints.map(point => {
-        console.log('Processing point:', point);
-        return {
-            x: new Date(point.date),
-            y: parseFloat(point.weight),
-            reps: point.reps,
-            volume: parseFloat(point.volume)
-        };
-    });
+    const cached = readSeries(exerciseId);
+    const apiParams = new URLSearchParams(params);
+    apiParams.delete('exerciseId');
+    apiParams.set('maxPoints', MAX_CHART_POINTS);
+    if (cached) {
+        apiParams.set('since', cached.version);
+    }
 
-    console.log('Chart data prepared:', chartData);
+    fetch(`/api/progress/${encodeURIComponent(exerciseId)}/delta?${apiParams}`, {
+        headers: { 'Accept': 'application/json' }
+    })
+        .then(response => {
+            if (!response.ok) {
+                throw new Error(`Request failed with status ${response.status}`);
+            }
+            return response.json();
+        })
+        .then(delta => {
+            let points;
+            if (delta.rangeOnly) {
+                points = delta.dataPoints;
+                removeSeries(exerciseId);
+            } else {
+                points = mergeSeries(cached, delta);
+                writeSeries(exerciseId, { version: delta.version, points: points });
+            }
+
+            history.replaceState(null, '', `/progress?${params}`);
+            hideError();
+            renderProgress({
+                exerciseName: delta.exerciseName,
+                dataPoints: points.filter(point => inRange(point.date, delta.startDate, delta.endDate)),
+                stats: delta.stats
+            });
+        })
+        .catch(error => {
+            console.error('Failed to load progress data:', error);
+            showError('Failed to load progress data: ' + error.message);
+        });
+}
+
+// Applies a delta to the cached points, a full response replaces them
+function mergeSeries(cached, delta) {
+    if (delta.full || !cached) {
+        return delta.dataPoints;
+    }
+
+    const byDate = new Map(cached.points.map(point => [point.date, point]));
+    delta.deletedDates.forEach(date => byDate.delete(date));
+    delta.dataPoints.forEach(point => byDate.set(point.date, point));
+
+    // ISO dates sort correctly as strings
+    return Array.from(byDate.values()).sort((a, b) => a.date.localeCompare(b.date));
+}
 
-    // Get canvas context
-    const ctx = document.getElementById('progressChart');
-    if (!ctx) {
+function inRange(date, startDate, endDate) {
+    return (!startDate || date >= startDate) && (!endDate || date <= endDate);
+}
+
+function readSeries(exerciseId) {
+    try {
+        const stored = localStorage.getItem(SERIES_CACHE_PREFIX + exerciseId);
+        return stored ? JSON.parse(stored) : null;
+    } catch (e) {
+        return null;
+    }
+}
+
+function writeSeries(exerciseId, series) {
+    try {
+        localStorage.setItem(SERIES_CACHE_PREFIX + exerciseId, JSON.stringify(series));
+    } catch (e) {
+        // storage full or disabled, the next load just asks for the full series again
+        console.warn('Could not cache progress series:', e);
+    }
+}
+
+function removeSeries(exerciseId) {
+    try {
+        localStorage.removeItem(SERIES_CACHE_PREFIX + exerciseId);
+    } catch (e) {
+        // storage disabled, nothing was cached
+    }
+}
+
+function renderProgress(data) {
+    document.getElementById('progressSection').style.display = '';
+    document.getElementById('progressEmpty').style.display = 'none';
+    document.getElementById('progressTitle').textContent = data.exerciseName + ' - Weight Progress';
+
+    renderStats(data.stats || {});
+    renderChart(data);
+}
+
+function renderStats(stats) {
+    renderStat('maxWeightStat', stats.maxWeight, 'primary',
+        `${stats.maxWeight} lbs`,
+        `${stats.maxWeightReps} reps on ${formatDate(stats.maxWeightDate)}`);
+    renderStat('maxRepsStat', stats.maxReps, 'success',
+        `${stats.maxReps} reps`,
+        `at ${stats.maxRepsWeight} lbs on ${formatDate(stats.maxRepsDate)}`);
+    renderStat('maxVolumeStat', stats.maxVolume, 'warning',
+        `${stats.maxVolume} lbs`,
+        `${stats.maxVolumeWeight} lbs × ${stats.maxVolumeReps} reps on ${formatDate(stats.maxVolumeDate)}`);
+}
+
+function renderStat(elementId, value, style, valueText, metaText) {
+    const container = document.getElementById(elementId);
+    container.replaceChildren();
+
+    if (value === null || value === undefined) {
+        const empty = document.createElement('p');
+        empty.className = 'text-muted';
+        empty.textContent = 'No data';
+        container.appendChild(empty);
+        return;
+    }
+
+    const valueElement = document.createElement('h2');
+    valueElement.className = 'stat-card-value ' + style;
+    valueElement.textContent = valueText;
+
+    const meta = document.createElement('p');
+    meta.className = 'stat-card-meta mb-0';
+    meta.textContent = metaText;
+
+    container.append(valueElement, meta);
+}
+
+// Dates arrive as yyyy-MM-dd, parsed as local dates so they don't shift a day in negative UTC offsets
+function formatDate(isoDate) {
+    if (!isoDate) {
+        return '';
+    }
+    const [year, month, day] = isoDate.split('-').map(Number);
+    return new Date(year, month - 1, day).toLocaleDateString('en-US', {
+        year: 'numeric',
+        month: 'short',
+        day: '2-digit'
+    });
+}
+
+function renderChart(data) {
+    const canvas = document.getElementById('progressChart');
+    if (!canvas) {
         console.error('Canvas element not found');
         return;
     }
 
-    // Create the chart
-    const chart = new Chart(ctx, {
+    if (progressChart) {
+        progressChart.destroy();
+        progressChart = null;
+    }
+
+    // Check if we have data points
+    if (!data.dataPoints || data.dataPoints.length === 0) {
+        console.log('No data points to display');
+        const ctx = canvas.getContext('2d');
+        ctx.clearRect(0, 0, canvas.width, canvas.height);
+        ctx.font = '20px Arial';
+        ctx.fillStyle = '#6c757d';
+        ctx.textAlign = 'center';
+        ctx.fillText('No workout data found for this exercise in the selected time range',
+            canvas.width / 2, canvas.height / 2);
+        return;
+    }
+
+    // Prepare data for Chart.js - convert dates to JavaScript Date objects
+    const chartData = data.dataPoints.map(point => ({
+        x: new Date(point.date),
+        y: parseFloat(point.weight),
+        reps: point.reps,
+        volume: parseFloat(point.volume)
+    }));
+
+    progressChart = new Chart(canvas, {
         type: 'scatter',
         data: {
             datasets: [{
@@ -153,7 +323,14 @@ document.addEventListener('DOMContentLoaded', function() {
             }
         }
     });
+}
+
+function showError(message) {
+    const alert = document.getElementById('progressError');
+    alert.querySelector('span').textContent = message;
+    alert.style.display = '';
+}
 
-    console.log('Chart created:', chart);
-    console.log('Chart rendered successfully');
-});
\ No newline at end of file
+function hideError() {
+    document.getElementById('progressError').style.display = 'none';
+}
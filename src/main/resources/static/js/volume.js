@@ -0,0 +1,153 @@
+// volume.js - Weekly/monthly training volume chart on the progress page
+// Totals are summed by the database, /api/volume returns one bucket per period and this only draws them
+
+const VOLUME_COLORS = [
+    'rgba(54, 162, 235, 0.7)',
+    'rgba(255, 159, 64, 0.7)',
+    'rgba(75, 192, 192, 0.7)',
+    'rgba(255, 99, 132, 0.7)',
+    'rgba(153, 102, 255, 0.7)',
+    'rgba(255, 205, 86, 0.7)',
+    'rgba(201, 203, 207, 0.7)'
+];
+
+let volumeChart = null;
+
+document.addEventListener('DOMContentLoaded', function() {
+    const form = document.getElementById('progressForm');
+    if (!form || !document.getElementById('volumeChart')) {
+        return;
+    }
+
+    form.addEventListener('submit', function() {
+        loadVolume(form);
+    });
+    document.getElementById('volumePeriod').addEventListener('change', () => loadVolume(form));
+    document.getElementById('volumeScope').addEventListener('change', () => loadVolume(form));
+
+    if (document.getElementById('exerciseId').value) {
+        loadVolume(form);
+    }
+});
+
+// Fetches the totals for the form's exercise (or every muscle group) and range
+function loadVolume(form) {
+    const params = new URLSearchParams();
+    for (const [key, value] of new FormData(form).entries()) {
+        if (value && key !== 'exerciseId') {
+            params.append(key, value);
+        }
+    }
+    params.set('period', document.getElementById('volumePeriod').value);
+
+    const exerciseId = document.getElementById('exerciseId').value;
+    const byMuscleGroup = document.getElementById('volumeScope').value === 'muscleGroups';
+    if (!exerciseId && !byMuscleGroup) {
+        return;
+    }
+
+    const url = byMuscleGroup
+        ? `/api/volume/muscle-groups?${params}`
+        : `/api/volume/exercises/${encodeURIComponent(exerciseId)}?${params}`;
+
+    fetch(url, { headers: { 'Accept': 'application/json' } })
+        .then(response => {
+            if (!response.ok) {
+                throw new Error(`Request failed with status ${response.status}`);
+            }
+            return response.json();
+        })
+        .then(renderVolumeChart)
+        .catch(error => {
+            console.error('Failed to load volume data:', error);
+        });
+}
+
+function renderVolumeChart(report) {
+    const canvas = document.getElementById('volumeChart');
+
+    if (volumeChart) {
+        volumeChart.destroy();
+        volumeChart = null;
+    }
+
+    const datasets = report.series.map((series, index) => ({
+        label: series.name,
+        data: series.buckets.map(bucket => ({
+            x: bucket.periodStart,
+            y: parseFloat(bucket.volume),
+            sets: bucket.setCount,
+            days: bucket.dayCount
+        })),
+        backgroundColor: VOLUME_COLORS[index % VOLUME_COLORS.length]
+    }));
+
+    if (datasets.length === 0) {
+        const ctx = canvas.getContext('2d');
+        ctx.clearRect(0, 0, canvas.width, canvas.height);
+        ctx.font = '20px Arial';
+        ctx.fillStyle = '#6c757d';
+        ctx.textAlign = 'center';
+        ctx.fillText('No volume logged in the selected time range', canvas.width / 2, canvas.height / 2);
+        return;
+    }
+
+    const monthly = report.period === 'month';
+
+    volumeChart = new Chart(canvas, {
+        type: 'bar',
+        data: { datasets: datasets },
+        options: {
+            responsive: true,
+            maintainAspectRatio: true,
+            aspectRatio: 2.5,
+            plugins: {
+                legend: {
+                    display: datasets.length > 1
+                },
+                tooltip: {
+                    callbacks: {
+                        title: function(context) {
+                            const prefix = monthly ? '' : 'Week of ';
+                            return prefix + new Date(context[0].parsed.x).toLocaleDateString('en-US', {
+                                year: 'numeric',
+                                month: monthly ? 'long' : 'short',
+                                day: monthly ? undefined : 'numeric'
+                            });
+                        },
+                        label: function(context) {
+                            const bucket = context.raw;
+                            return [
+                                `${context.dataset.label}: ${bucket.y.toFixed(0)} lbs`,
+                                `Sets: ${bucket.sets}`,
+                                `Days: ${bucket.days}`
+                            ];
+                        }
+                    }
+                }
+            },
+            scales: {
+                x: {
+                    type: 'time',
+                    stacked: true,
+                    time: {
+                        unit: monthly ? 'month' : 'week',
+                        isoWeekday: true,
+                        displayFormats: {
+                            week: 'MMM dd',
+                            month: 'MMM yyyy'
+                        }
+                    }
+                },
+                y: {
+                    stacked: true,
+                    beginAtZero: true,
+                    title: {
+                        display: true,
+                        text: 'Volume (lbs)'
+                    }
+                }
+            }
+        }
+    });
+}
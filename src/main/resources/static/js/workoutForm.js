@@ -236,6 +236,41 @@ window.addCardio = function() {
 }
 
 
+/**
+ * Rebuilds the exercise blocks and cardio rows the workout already holds,
+ * so saving the form keeps them instead of replacing them with an empty list
+ */
+function prefillWorkout() {
+    (window.existingExercises || []).forEach(exercise => {
+        const blockIndex = exerciseBlockIndex;
+        addExercise();
+
+        const select = document.getElementById(`exercise-select-${blockIndex}`);
+        select.value = exercise.exerciseListId;
+        select.setAttribute('data-first-set-added', 'true');
+
+        const setContainerId = `sets-container-${blockIndex}`;
+        exercise.sets.forEach(set => {
+            addSet(setContainerId, select.id);
+            const row = document.getElementById(setContainerId).lastElementChild;
+            row.querySelector('[name$=".weight"]').value = set.weight ?? '';
+            row.querySelector('[name$=".reps"]').value = set.reps ?? '';
+            row.querySelector('[name$=".notes"]').value = set.notes ?? '';
+        });
+    });
+    updateExerciseDropdowns();
+
+    (window.existingCardio || []).forEach(session => {
+        addCardio();
+        const row = document.getElementById('cardio-container').lastElementChild;
+        row.querySelector('[name$=".cardioListId"]').value = session.cardioListId;
+        row.querySelector('[name$=".durationMinutes"]').value = session.durationMinutes ?? '';
+        row.querySelector('[name$=".distance"]').value = session.distance ?? '';
+        row.querySelector('[name$=".notes"]').value = session.notes ?? '';
+    });
+}
+
+
 document.addEventListener('DOMContentLoaded', function() {
     try {
 
@@ -243,6 +278,8 @@ document.addEventListener('DOMContentLoaded', function() {
             console.warn('Exercise or cardio data not fully loaded');
         }
 
+        prefillWorkout();
+
         console.log('Workout form initialized successfully');
     } catch (error) {
         console.error('Error initializing workout form:', error);
@@ -0,0 +1,130 @@
+package com.github.punnfect.workout_tracker;
+
+import com.github.punnfect.workout_tracker.dto.BodyMetricsPointDto;
+import com.github.punnfect.workout_tracker.dto.BodyMetricsRow;
+import com.github.punnfect.workout_tracker.services.BodyMetricsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Stored 7 and 30 day averages after writes in the middle of a series, checked against a recount of the raw weights
+// each test logs into a year of its own so the series don't overlap
+class BodyMetricsServiceTests extends IntegrationTestBase {
+
+    @Autowired
+    private BodyMetricsService bodyMetricsService;
+
+    @Test
+    void insertInTheMiddleMovesTheFollowingTwentyNineDays() {
+        LocalDate start = LocalDate.of(2001, 1, 1);
+        // every other day for 80 days, so there are gaps to insert into
+        List<BodyMetricsRow> rows = new ArrayList<>();
+        for (int day = 0; day < 80; day += 2) {
+            rows.add(new BodyMetricsRow(start.plusDays(day), weight(180 + day % 7), null));
+        }
+        bodyMetricsService.ingest(rows);
+        Map<LocalDate, BodyMetricsPointDto> before = series(start);
+
+        LocalDate inserted = start.plusDays(31);
+        bodyMetricsService.ingest(List.of(new BodyMetricsRow(inserted, weight(230), null)));
+        Map<LocalDate, BodyMetricsPointDto> after = series(start);
+
+        assertAveragesMatchRecount(after);
+        assertThat(after.get(inserted).getAverage7DayLbs()).isNotNull();
+        for (LocalDate date : before.keySet()) {
+            boolean inWindow = !date.isBefore(inserted) && date.isBefore(inserted.plusDays(30));
+            assertThat(after.get(date).getAverage30DayLbs().equals(before.get(date).getAverage30DayLbs()))
+                    .as("30 day average of %s", date).isEqualTo(!inWindow);
+            assertThat(after.get(date).getAverage7DayLbs().equals(before.get(date).getAverage7DayLbs()))
+                    .as("7 day average of %s", date).isEqualTo(date.isBefore(inserted) || !date.isBefore(inserted.plusDays(7)));
+        }
+    }
+
+    @Test
+    void deleteInTheMiddleDropsTheEntryFromTheFollowingAverages() {
+        LocalDate start = LocalDate.of(2002, 1, 1);
+        List<BodyMetricsRow> rows = new ArrayList<>();
+        for (int day = 0; day < 70; day++) {
+            rows.add(new BodyMetricsRow(start.plusDays(day), weight(day == 20 ? 260 : 175 + day % 3), null));
+        }
+        bodyMetricsService.ingest(rows);
+        Map<LocalDate, BodyMetricsPointDto> before = series(start);
+
+        LocalDate deleted = start.plusDays(20);
+        bodyMetricsService.deleteEntry(deleted);
+        Map<LocalDate, BodyMetricsPointDto> after = series(start);
+
+        assertThat(after).doesNotContainKey(deleted).hasSize(69);
+        assertAveragesMatchRecount(after);
+        // the outlier only weighed on the days whose windows held it
+        assertThat(after.get(start.plusDays(49)).getAverage30DayLbs())
+                .isLessThan(before.get(start.plusDays(49)).getAverage30DayLbs());
+        assertThat(after.get(start.plusDays(50)).getAverage30DayLbs())
+                .isEqualTo(before.get(start.plusDays(50)).getAverage30DayLbs());
+        assertThat(after.get(start.plusDays(26)).getAverage7DayLbs())
+                .isLessThan(before.get(start.plusDays(26)).getAverage7DayLbs());
+        assertThat(after.get(start.plusDays(27)).getAverage7DayLbs())
+                .isEqualTo(before.get(start.plusDays(27)).getAverage7DayLbs());
+        assertThat(after.get(start.plusDays(19))).isEqualTo(before.get(start.plusDays(19)));
+    }
+
+    @Test
+    void changedWeightAndNotesOnlyUpdateTheEntry() {
+        LocalDate start = LocalDate.of(2003, 1, 1);
+        bodyMetricsService.ingest(List.of(
+                new BodyMetricsRow(start, weight(200), "morning"),
+                new BodyMetricsRow(start.plusDays(1), weight(202), null),
+                new BodyMetricsRow(start.plusDays(2), weight(204), null)));
+
+        // a null weight keeps the stored one, the new weight of the middle day reaches the day after it
+        bodyMetricsService.ingest(List.of(
+                new BodyMetricsRow(start, null, "after coffee"),
+                new BodyMetricsRow(start.plusDays(1), weight(212), null)));
+        Map<LocalDate, BodyMetricsPointDto> after = series(start);
+
+        assertThat(after.get(start).getWeightLbs()).isEqualByComparingTo("200");
+        assertThat(after.get(start).getNotes()).isEqualTo("after coffee");
+        assertThat(after.get(start.plusDays(2)).getAverage7DayLbs()).isEqualByComparingTo("205.33");
+        assertThat(after.get(start.plusDays(2)).getAverage30DayLbs()).isEqualByComparingTo("205.33");
+        assertAveragesMatchRecount(after);
+    }
+
+    // every entry's stored averages against the mean of the raw weights in its trailing 7 and 30 days
+    private static void assertAveragesMatchRecount(Map<LocalDate, BodyMetricsPointDto> entries) {
+        for (BodyMetricsPointDto entry : entries.values()) {
+            assertThat(entry.getAverage7DayLbs()).as("7 day average of %s", entry.getDate())
+                    .isEqualTo(recount(entries, entry.getDate(), 7));
+            assertThat(entry.getAverage30DayLbs()).as("30 day average of %s", entry.getDate())
+                    .isEqualTo(recount(entries, entry.getDate(), 30));
+        }
+    }
+
+    private static BigDecimal recount(Map<LocalDate, BodyMetricsPointDto> entries, LocalDate date, int days) {
+        List<BigDecimal> weights = entries.values().stream()
+                .filter(entry -> !entry.getDate().isAfter(date) && entry.getDate().isAfter(date.minusDays(days)))
+                .map(BodyMetricsPointDto::getWeightLbs)
+                .toList();
+        return weights.stream().reduce(BigDecimal.ZERO, BigDecimal::add)
+                .divide(BigDecimal.valueOf(weights.size()), 2, RoundingMode.HALF_UP);
+    }
+
+    // the test's whole year
+    private Map<LocalDate, BodyMetricsPointDto> series(LocalDate start) {
+        return bodyMetricsService.getSeries(start, start.plusYears(1).minusDays(1)).getPoints().stream()
+                .collect(Collectors.toMap(BodyMetricsPointDto::getDate, Function.identity()));
+    }
+
+    private static BigDecimal weight(int lbs) {
+        return BigDecimal.valueOf(lbs).setScale(2);
+    }
+}
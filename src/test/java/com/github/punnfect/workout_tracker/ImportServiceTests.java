@@ -0,0 +1,182 @@
+package com.github.punnfect.workout_tracker;
+
+import com.github.punnfect.workout_tracker.dto.ExerciseProgressDto;
+import com.github.punnfect.workout_tracker.dto.ExerciseProgressPointDto;
+import com.github.punnfect.workout_tracker.dto.ImportJobDto;
+import com.github.punnfect.workout_tracker.dto.WorkoutSummaryDto;
+import com.github.punnfect.workout_tracker.entities.CardioList;
+import com.github.punnfect.workout_tracker.entities.ExerciseList;
+import com.github.punnfect.workout_tracker.entities.User;
+import com.github.punnfect.workout_tracker.repository.CardioListRepo;
+import com.github.punnfect.workout_tracker.repository.ExerciseListRepo;
+import com.github.punnfect.workout_tracker.repository.WorkoutDocumentRepo;
+import com.github.punnfect.workout_tracker.services.CardioProgressService;
+import com.github.punnfect.workout_tracker.services.CatalogCache;
+import com.github.punnfect.workout_tracker.services.ImportService;
+import com.github.punnfect.workout_tracker.services.ProgressService;
+import com.github.punnfect.workout_tracker.services.WorkoutSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A finished import leaves rollups, stored documents and search entries behind, all built on the user's event lane
+class ImportServiceTests extends IntegrationTestBase {
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private ProgressService progressService;
+
+    @Autowired
+    private CardioProgressService cardioProgressService;
+
+    @Autowired
+    private WorkoutSearchService workoutSearchService;
+
+    @Autowired
+    private WorkoutDocumentRepo workoutDocumentRepo;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private ExerciseListRepo exerciseListRepo;
+
+    @Autowired
+    private CardioListRepo cardioListRepo;
+
+    private User user;
+
+    @BeforeEach
+    void logInAsOwnUser() {
+        user = createUser("import");
+        logInAs(user);
+    }
+
+    @Test
+    void importedHistoryIsRolledUpDocumentedAndIndexed() throws InterruptedException {
+        String suffix = Long.toString(System.nanoTime());
+        ExerciseList exercise = new ExerciseList();
+        exercise.setName("Import Press " + suffix);
+        exercise = exerciseListRepo.save(exercise);
+        CardioList activity = new CardioList();
+        activity.setName("Import Bike " + suffix);
+        activity = cardioListRepo.save(activity);
+        String csv = """
+                date,title,type,name,setNumber,weight,reps,durationMinutes,distance,notes
+                2024-03-04,Push,exercise,import press %1$s,1,100,5,,,
+                2024-03-04,Push,exercise,Import Press %1$s,2,105,3,,,felt heavy
+                2024-03-04,Push,cardio,Import Bike %1$s,,,,20,6.5,
+                2024-03-08,Push again,exercise,Import Press %1$s,1,110,2,,,
+                """.formatted(suffix);
+
+        ImportJobDto job = importService.startImport(
+                new MockMultipartFile("file", "history.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)), null);
+        job = awaitFinished(job.getId());
+        awaitEvents();
+
+        assertThat(job.getStatus()).isEqualTo(ImportJobDto.Status.COMPLETED);
+        assertThat(job.getWorkoutsImported()).isEqualTo(2);
+
+        assertThat(progressService.getExerciseProgress(exercise.getId(), null, null, null).getDataPoints())
+                .extracting(ExerciseProgressPointDto::getDate)
+                .containsExactly(LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 8));
+        assertThat(cardioProgressService.getCardioProgress(activity.getId(), null, null).getDataPoints()).hasSize(1);
+
+        List<WorkoutSummaryDto> found = workoutSearchService.search(user.getId(), "heavy", null, null, 10);
+        assertThat(found).extracting(WorkoutSummaryDto::getTitle).containsExactly("Push");
+        assertThat(workoutSearchService.search(user.getId(), null, null, null, 10)).hasSize(2)
+                .allSatisfy(workout -> assertThat(workoutDocumentRepo.findByWorkoutIdAndUserId(workout.getId(), user.getId())).isPresent());
+    }
+
+    // the catalog is shared by every user, names it doesn't have cost their rows instead of adding entries for everyone
+    @Test
+    void rowsWithUnknownNamesAreSkipped() throws InterruptedException {
+        String suffix = Long.toString(System.nanoTime());
+        ExerciseList exercise = new ExerciseList();
+        exercise.setName("Import Row " + suffix);
+        exercise = exerciseListRepo.save(exercise);
+        String csv = """
+                date,title,type,name,setNumber,weight,reps,durationMinutes,distance
+                2024-06-03,Pull,exercise,Import Row %1$s,1,80,8,,
+                2024-06-03,Pull,exercise,Import Rwo %1$s,1,80,8,,
+                2024-06-03,Pull,cardio,Import Skierg %1$s,,,,10,2
+                """.formatted(suffix);
+        int exercises = catalogCache.getExercises().size();
+        int activities = catalogCache.getCardioActivities().size();
+
+        ImportJobDto job = importService.startImport(
+                new MockMultipartFile("file", "history.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)), null);
+        job = awaitFinished(job.getId());
+        awaitEvents();
+
+        assertThat(job.getStatus()).isEqualTo(ImportJobDto.Status.COMPLETED);
+        assertThat(job.getWorkoutsImported()).isEqualTo(1);
+        assertThat(job.getExerciseSetsImported()).isEqualTo(1);
+        assertThat(job.getCardioSessionsImported()).isZero();
+        assertThat(job.getRowsSkipped()).isEqualTo(2);
+        assertThat(job.getErrors()).containsExactly(
+                "Row 2: unknown exercise 'Import Rwo " + suffix + "'",
+                "Row 3: unknown cardio activity 'Import Skierg " + suffix + "'");
+        assertThat(catalogCache.getExercises()).hasSize(exercises);
+        assertThat(catalogCache.getCardioActivities()).hasSize(activities);
+        assertThat(progressService.getExerciseProgress(exercise.getId(), null, null, null).getDataPoints()).hasSize(1);
+    }
+
+    // the first chunk commits, then a line that isn't JSON stops the import, what was committed is still rebuilt
+    @Test
+    void importThatFailsAfterAChunkStillRebuildsTheCommittedDays() throws InterruptedException {
+        ExerciseList exercise = new ExerciseList();
+        exercise.setName("Import Squat " + System.nanoTime());
+        exercise = exerciseListRepo.save(exercise);
+
+        // 100 days of 10 sets fill the first chunk exactly, day 101 is still buffered when the import fails
+        LocalDate first = LocalDate.of(2023, 1, 2);
+        StringBuilder ndjson = new StringBuilder();
+        for (int day = 0; day <= 100; day++) {
+            for (int set = 1; set <= 10; set++) {
+                ndjson.append(String.format(
+                        "{\"date\":\"%s\",\"title\":\"Squat day\",\"name\":\"%s\",\"setNumber\":%d,\"weight\":%d,\"reps\":5%s}%n",
+                        first.plusDays(day), exercise.getName(), set, day == 100 ? 300 : 100 + day,
+                        day == 0 && set == 1 ? ",\"notes\":\"chalk ran out\"" : ""));
+            }
+        }
+        ndjson.append("{\"date\": \"2023-04-12\", \"name\n");
+
+        ImportJobDto job = importService.startImport(new MockMultipartFile("file", "history.ndjson",
+                "application/x-ndjson", ndjson.toString().getBytes(StandardCharsets.UTF_8)), null);
+        job = awaitFinished(job.getId());
+        awaitEvents();
+
+        assertThat(job.getStatus()).isEqualTo(ImportJobDto.Status.FAILED);
+        assertThat(job.getWorkoutsImported()).isEqualTo(100);
+
+        ExerciseProgressDto progress = progressService.getExerciseProgress(exercise.getId(), null, null, null);
+        assertThat(progress.getDataPoints()).hasSize(100)
+                .extracting(ExerciseProgressPointDto::getDate).endsWith(first.plusDays(99));
+        assertThat(progress.getStats().getMaxWeight()).isEqualByComparingTo("199");
+
+        assertThat(workoutSearchService.search(user.getId(), "chalk", null, null, 10))
+                .extracting(WorkoutSummaryDto::getWorkoutDate).containsExactly(first);
+        assertThat(workoutSearchService.search(user.getId(), "squat", null, null, 200)).hasSize(100);
+    }
+
+    private ImportJobDto awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ImportJobDto job = importService.getJob(jobId).orElseThrow();
+            if (job.getFinishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Import " + jobId + " did not finish");
+    }
+}
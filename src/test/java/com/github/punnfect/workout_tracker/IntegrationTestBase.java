@@ -0,0 +1,70 @@
+package com.github.punnfect.workout_tracker;
+
+import com.github.punnfect.workout_tracker.entities.User;
+import com.github.punnfect.workout_tracker.events.WorkoutEventPipeline;
+import com.github.punnfect.workout_tracker.repository.UserRepo;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Shared fixture for the tests that run against the in memory H2 database (application-test.properties),
+// every test runs as the seeded admin user with the Hibernate statistics at hand.
+// All subclasses share one context and so one database, catalog names they create must not collide
+@SpringBootTest
+@ActiveProfiles("test")
+public abstract class IntegrationTestBase {
+
+    @Autowired
+    protected WorkoutEventPipeline workoutEventPipeline;
+
+    @Autowired
+    protected UserRepo userRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    protected User admin;
+    protected Statistics statistics;
+
+    @BeforeEach
+    void logIn() {
+        admin = userRepo.findByUsername("admin").orElseThrow();
+        logInAs(admin);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void logOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // a user of the test's own, for tests that must only see the history they create
+    protected User createUser(String prefix) {
+        User user = new User();
+        user.setUsername(prefix + "-" + System.nanoTime());
+        user.setPassword("unused");
+        return userRepo.save(user);
+    }
+
+    protected void logInAs(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, Collections.emptyList()));
+    }
+
+    // rollups and documents are written on the event pipeline's lanes, checks only start once they are done
+    protected void awaitEvents() {
+        assertThat(workoutEventPipeline.awaitIdle(Duration.ofSeconds(10))).isTrue();
+    }
+}
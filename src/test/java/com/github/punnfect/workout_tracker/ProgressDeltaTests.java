@@ -0,0 +1,184 @@
+package com.github.punnfect.workout_tracker;
+
+import com.github.punnfect.workout_tracker.dto.ExerciseProgressDeltaDto;
+import com.github.punnfect.workout_tracker.dto.ExerciseProgressPointDto;
+import com.github.punnfect.workout_tracker.dto.ExerciseSetDto;
+import com.github.punnfect.workout_tracker.dto.WorkoutSetView;
+import com.github.punnfect.workout_tracker.entities.ExerciseList;
+import com.github.punnfect.workout_tracker.entities.Workout;
+import com.github.punnfect.workout_tracker.repository.ExerciseListRepo;
+import com.github.punnfect.workout_tracker.services.ProgressRollupService;
+import com.github.punnfect.workout_tracker.services.ProgressService;
+import com.github.punnfect.workout_tracker.services.WorkoutDetailsService;
+import com.github.punnfect.workout_tracker.services.WorkoutService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// /api/progress/{id}/delta: what a client holding a given version is sent back
+class ProgressDeltaTests extends IntegrationTestBase {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2026, 1, 5);
+
+    @Autowired
+    private ProgressService progressService;
+
+    @Autowired
+    private ProgressRollupService progressRollupService;
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    @Autowired
+    private WorkoutDetailsService workoutDetailsService;
+
+    @Autowired
+    private ExerciseListRepo exerciseListRepo;
+
+    private Long exerciseListId;
+
+    @BeforeEach
+    void createExercise() {
+        ExerciseList exercise = new ExerciseList();
+        exercise.setName("Delta Press " + System.nanoTime());
+        exerciseListId = exerciseListRepo.save(exercise).getId();
+    }
+
+    @Test
+    void noVersionGetsTheFullSeries() {
+        logDay(FIRST_DAY, 100);
+        logDay(FIRST_DAY.plusDays(2), 105);
+
+        ExerciseProgressDeltaDto delta = delta(null);
+
+        assertThat(delta.isFull()).isTrue();
+        assertThat(delta.isRangeOnly()).isFalse();
+        assertThat(delta.getVersion()).startsWith(admin.getId() + ".");
+        assertThat(delta.getDataPoints()).extracting(ExerciseProgressPointDto::getDate)
+                .containsExactly(FIRST_DAY, FIRST_DAY.plusDays(2));
+        assertThat(delta.getDeletedDates()).isEmpty();
+    }
+
+    @Test
+    void currentVersionOnlyGetsWhatChangedSince() {
+        logDay(FIRST_DAY, 100);
+        String version = delta(null).getVersion();
+
+        assertThat(delta(version).isFull()).isFalse();
+        assertThat(delta(version).getDataPoints()).isEmpty();
+
+        logDay(FIRST_DAY.plusDays(3), 110);
+        ExerciseProgressDeltaDto delta = delta(version);
+
+        assertThat(delta.isFull()).isFalse();
+        assertThat(delta.getVersion()).isNotEqualTo(version);
+        assertThat(delta.getDataPoints()).singleElement().satisfies(point -> {
+            assertThat(point.getDate()).isEqualTo(FIRST_DAY.plusDays(3));
+            assertThat(point.getWeight()).isEqualByComparingTo("110");
+        });
+    }
+
+    @Test
+    void emptiedDayComesBackAsDeletedDate() {
+        logDay(FIRST_DAY, 100);
+        Workout emptied = logDay(FIRST_DAY.plusDays(1), 102);
+        String version = delta(null).getVersion();
+
+        for (WorkoutSetView set : workoutDetailsService.getWorkoutDetails(emptied.getId()).orElseThrow()
+                .getExercises().get(0).getSets()) {
+            workoutService.deleteExerciseSet(set.getId());
+        }
+        awaitEvents();
+        ExerciseProgressDeltaDto delta = delta(version);
+
+        assertThat(delta.isFull()).isFalse();
+        assertThat(delta.getDataPoints()).isEmpty();
+        assertThat(delta.getDeletedDates()).containsExactly(FIRST_DAY.plusDays(1));
+        // a full fetch leaves the tombstone out
+        assertThat(delta(null).getDataPoints()).extracting(ExerciseProgressPointDto::getDate).containsExactly(FIRST_DAY);
+    }
+
+    @Test
+    void unusableVersionsGetTheFullSeries() {
+        logDay(FIRST_DAY, 100);
+        String version = delta(null).getVersion();
+        long revision = Long.parseLong(version.substring(version.indexOf('.') + 1));
+
+        for (String since : List.of("garbage", admin.getId() + ".", admin.getId() + ".x", "." + revision,
+                (admin.getId() + 1) + "." + revision, admin.getId() + "." + (revision + 1))) {
+            ExerciseProgressDeltaDto delta = delta(since);
+            assertThat(delta.isFull()).as("since %s", since).isTrue();
+            assertThat(delta.getDataPoints()).as("since %s", since).hasSize(1);
+        }
+    }
+
+    @Test
+    void versionFromBeforeARebuildGetsTheFullSeries() {
+        logDay(FIRST_DAY, 100);
+        Workout emptied = logDay(FIRST_DAY.plusDays(1), 102);
+        String version = delta(null).getVersion();
+        workoutService.deleteWorkout(emptied.getId());
+        awaitEvents();
+
+        // the rebuild drops the tombstone, so the old version can't be told about the deleted day
+        progressRollupService.rebuild(admin, exerciseListId);
+        ExerciseProgressDeltaDto delta = delta(version);
+
+        assertThat(delta.isFull()).isTrue();
+        assertThat(delta.getDeletedDates()).isEmpty();
+        assertThat(delta.getDataPoints()).extracting(ExerciseProgressPointDto::getDate).containsExactly(FIRST_DAY);
+    }
+
+    @Test
+    void seriesLongerThanMaxPointsIsSentForTheRangeOnly() {
+        for (int day = 0; day < 6; day++) {
+            logDay(FIRST_DAY.plusDays(day), 100 + day);
+        }
+        String version = delta(null).getVersion();
+
+        ExerciseProgressDeltaDto ranged = progressService.getExerciseProgressDelta(
+                exerciseListId, version, FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(3), 5);
+        assertThat(ranged.isRangeOnly()).isTrue();
+        assertThat(ranged.isFull()).isTrue();
+        assertThat(ranged.getStartDate()).isEqualTo(FIRST_DAY.plusDays(1));
+        assertThat(ranged.getDataPoints()).extracting(ExerciseProgressPointDto::getDate)
+                .containsExactly(FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(2), FIRST_DAY.plusDays(3));
+        assertThat(ranged.getStats().getMaxWeight()).isEqualByComparingTo("103");
+
+        ExerciseProgressDeltaDto allTime = progressService.getExerciseProgressDelta(exerciseListId, version, null, null, 5);
+        assertThat(allTime.isRangeOnly()).isTrue();
+        assertThat(allTime.getDataPoints()).hasSizeLessThanOrEqualTo(5)
+                .extracting(ExerciseProgressPointDto::getDate).contains(FIRST_DAY, FIRST_DAY.plusDays(5));
+
+        // a maxPoints the series still fits in keeps the delta
+        assertThat(progressService.getExerciseProgressDelta(exerciseListId, version, null, null, 6).isRangeOnly()).isFalse();
+    }
+
+    private ExerciseProgressDeltaDto delta(String since) {
+        return progressService.getExerciseProgressDelta(exerciseListId, since, null, null, null);
+    }
+
+    // one workout on the day with two sets of the exercise, the heavier one at the given weight
+    private Workout logDay(LocalDate date, int weight) {
+        List<ExerciseSetDto> sets = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            ExerciseSetDto set = new ExerciseSetDto();
+            set.setExerciseListId(exerciseListId);
+            set.setSetNumber(i);
+            set.setWeight(BigDecimal.valueOf(weight - 4 + i * 2));
+            set.setReps(5);
+            sets.add(set);
+        }
+        Workout workout = workoutService.createNewWorkout(date, "Delta");
+        workoutService.saveWorkoutDetails(workout.getId(), null, null, null, sets, new ArrayList<>());
+        awaitEvents();
+        return workout;
+    }
+}
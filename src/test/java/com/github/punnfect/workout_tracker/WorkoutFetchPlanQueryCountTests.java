@@ -0,0 +1,184 @@
+package com.github.punnfect.workout_tracker;
+
+import com.github.punnfect.workout_tracker.dto.CardioSessionDto;
+import com.github.punnfect.workout_tracker.dto.ExerciseSetDto;
+import com.github.punnfect.workout_tracker.dto.WorkoutCardioView;
+import com.github.punnfect.workout_tracker.dto.WorkoutDetailsView;
+import com.github.punnfect.workout_tracker.dto.WorkoutExerciseView;
+import com.github.punnfect.workout_tracker.dto.WorkoutSetView;
+import com.github.punnfect.workout_tracker.entities.CardioList;
+import com.github.punnfect.workout_tracker.entities.ExerciseList;
+import com.github.punnfect.workout_tracker.entities.Workout;
+import com.github.punnfect.workout_tracker.repository.CardioListRepo;
+import com.github.punnfect.workout_tracker.repository.ExerciseListRepo;
+import com.github.punnfect.workout_tracker.services.ProgressService;
+import com.github.punnfect.workout_tracker.services.WorkoutDetailsService;
+import com.github.punnfect.workout_tracker.services.WorkoutDocumentCache;
+import com.github.punnfect.workout_tracker.services.WorkoutService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Fixed query counts for each controller path with every association lazy, runs on an in memory H2 database
+// Each path runs once to warm the catalog and second level caches, the second run is the one counted
+class WorkoutFetchPlanQueryCountTests extends IntegrationTestBase {
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    @Autowired
+    private WorkoutDetailsService workoutDetailsService;
+
+    @Autowired
+    private WorkoutDocumentCache workoutDocumentCache;
+
+    @Autowired
+    private ProgressService progressService;
+
+    @Autowired
+    private ExerciseListRepo exerciseListRepo;
+
+    @Autowired
+    private CardioListRepo cardioListRepo;
+
+    // home page and /api/workouts/history
+    @Test
+    void historyPageIsOneQuery() {
+        loggedWorkout("Summary");
+
+        workoutService.getWorkoutHistoryPage(null, null, WorkoutService.HISTORY_PAGE_SIZE);
+        statistics.clear();
+        workoutService.getWorkoutHistoryPage(null, null, WorkoutService.HISTORY_PAGE_SIZE);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // /workout/{id} and /workouts/{id}/add, the document stored by the save is one key lookup, then served from memory
+    @Test
+    void workoutDetailsAreOneLookupThenCached() {
+        Workout workout = loggedWorkout("Detail");
+        workoutDocumentCache.clear();
+
+        statistics.clear();
+        WorkoutDetailsView details = workoutDetailsService.getWorkoutDetails(workout.getId()).orElseThrow();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        assertThat(workoutDetailsService.getWorkoutDetails(workout.getId())).contains(details);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        assertThat(details.getExercises()).singleElement()
+                .satisfies(exercise -> assertThat(exercise.getSets()).extracting(WorkoutSetView::getSetNumber).containsExactly(1, 2, 3));
+        assertThat(details.getCardioSessions()).extracting(WorkoutCardioView::getName).containsExactly("Detail Rowing");
+    }
+
+    // a change drops the document at once and the event pipeline stores the new one, reads in between use the flat query
+    @Test
+    void changedWorkoutIsReadFromFlatQueryUntilItsDocumentIsRebuilt() {
+        Workout workout = loggedWorkout("Rebuild");
+        WorkoutDetailsView stored = workoutDetailsService.getWorkoutDetails(workout.getId()).orElseThrow();
+
+        workoutService.deleteCardioSession(stored.getCardioSessions().get(0).getId());
+        WorkoutDetailsView beforeRebuild = workoutDetailsService.getWorkoutDetails(workout.getId()).orElseThrow();
+        assertThat(beforeRebuild.getCardioSessions()).isEmpty();
+
+        awaitEvents();
+        statistics.clear();
+        WorkoutDetailsView details = workoutDetailsService.getWorkoutDetails(workout.getId()).orElseThrow();
+
+        assertThat(details).isEqualTo(beforeRebuild);
+        assertThat(details.getExercises()).isEqualTo(stored.getExercises());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    // /workouts/{id}/save with nothing changed: load the workout with its sets, then its cardio sessions
+    @Test
+    void unchangedSaveIsTwoQueries() {
+        Workout workout = loggedWorkout("Edit");
+        WorkoutDetailsView details = workoutDetailsService.getWorkoutDetails(workout.getId()).orElseThrow();
+        List<ExerciseSetDto> sets = toDtos(details.getExercises());
+        List<CardioSessionDto> sessions = toCardioDtos(details.getCardioSessions());
+
+        statistics.clear();
+        workoutService.saveWorkoutDetails(workout.getId(), null, null, null, sets, sessions);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    // /api/progress/{id}: the PR row and the daily rollup rows, the user and exercise are never loaded
+    @Test
+    void progressIsTwoQueries() {
+        Workout workout = loggedWorkout("Progress");
+        Long exerciseListId = workoutDetailsService.getWorkoutDetails(workout.getId()).orElseThrow()
+                .getExercises().get(0).getExerciseListId();
+
+        progressService.getExerciseProgress(exerciseListId, null, null, null);
+        statistics.clear();
+        progressService.getExerciseProgress(exerciseListId, null, null, null);
+
+        assertThat(statistics.getEntityFetchCount()).as("entity fetches reading progress").isZero();
+        assertThat(statistics.getPrepareStatementCount()).as("statements prepared reading progress").isEqualTo(2);
+    }
+
+    // a workout with three sets of one exercise and one cardio session
+    private Workout loggedWorkout(String prefix) {
+        ExerciseList exercise = new ExerciseList();
+        exercise.setName(prefix + " Bench");
+        exercise = exerciseListRepo.save(exercise);
+        CardioList activity = new CardioList();
+        activity.setName(prefix + " Rowing");
+        activity = cardioListRepo.save(activity);
+
+        List<ExerciseSetDto> sets = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            ExerciseSetDto set = new ExerciseSetDto();
+            set.setExerciseListId(exercise.getId());
+            set.setSetNumber(i);
+            set.setWeight(BigDecimal.valueOf(100 + i));
+            set.setReps(5);
+            sets.add(set);
+        }
+        CardioSessionDto session = new CardioSessionDto();
+        session.setCardioListId(activity.getId());
+        session.setDurationMinutes(20);
+        session.setDistance(BigDecimal.valueOf(3));
+
+        Workout workout = workoutService.createNewWorkout(LocalDate.now(), prefix);
+        workoutService.saveWorkoutDetails(workout.getId(), null, null, null, sets, new ArrayList<>(List.of(session)));
+        awaitEvents();
+        return workout;
+    }
+
+    private static List<ExerciseSetDto> toDtos(List<WorkoutExerciseView> exercises) {
+        List<ExerciseSetDto> dtos = new ArrayList<>();
+        for (WorkoutExerciseView exercise : exercises) {
+            for (WorkoutSetView set : exercise.getSets()) {
+                ExerciseSetDto dto = new ExerciseSetDto();
+                dto.setExerciseListId(exercise.getExerciseListId());
+                dto.setSetNumber(set.getSetNumber());
+                dto.setWeight(set.getWeight());
+                dto.setReps(set.getReps());
+                dtos.add(dto);
+            }
+        }
+        return dtos;
+    }
+
+    private static List<CardioSessionDto> toCardioDtos(List<WorkoutCardioView> sessions) {
+        List<CardioSessionDto> dtos = new ArrayList<>();
+        for (WorkoutCardioView session : sessions) {
+            CardioSessionDto dto = new CardioSessionDto();
+            dto.setCardioListId(session.getCardioListId());
+            dto.setDurationMinutes(session.getDurationMinutes());
+            dto.setDistance(session.getDistance());
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+}
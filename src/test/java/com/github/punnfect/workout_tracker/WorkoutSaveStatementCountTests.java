@@ -0,0 +1,86 @@
+package com.github.punnfect.workout_tracker;
+
+import com.github.punnfect.workout_tracker.dto.ExerciseSetDto;
+import com.github.punnfect.workout_tracker.entities.ExerciseList;
+import com.github.punnfect.workout_tracker.entities.ExerciseSet;
+import com.github.punnfect.workout_tracker.entities.Workout;
+import com.github.punnfect.workout_tracker.repository.ExerciseListRepo;
+import com.github.punnfect.workout_tracker.services.WorkoutService;
+import org.hibernate.stat.EntityStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Benchmarks JDBC statements per workout save, runs on an in memory H2 database
+class WorkoutSaveStatementCountTests extends IntegrationTestBase {
+
+    private static final int SET_COUNT = 30;
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    @Autowired
+    private ExerciseListRepo exerciseListRepo;
+
+    @Test
+    void savingThirtySetWorkoutBatchesInserts() {
+        Workout workout = workoutService.createNewWorkout(LocalDate.now(), "Statement count");
+        List<ExerciseSetDto> sets = thirtySets("Batched insert");
+
+        statistics.clear();
+        workoutService.saveWorkoutDetails(workout.getId(), null, null, null, sets, new ArrayList<>());
+        // includes the rollup and document writes the save's event triggers
+        awaitEvents();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(statements)
+                .as("statements prepared saving a %d set workout (%d entity inserts)", SET_COUNT, statistics.getEntityInsertCount())
+                .isLessThan(SET_COUNT);
+    }
+
+    @Test
+    void editingOneSetOnlyUpdatesThatRow() {
+        Workout workout = workoutService.createNewWorkout(LocalDate.now(), "Statement count edit");
+        List<ExerciseSetDto> sets = thirtySets("Single edit");
+        workoutService.saveWorkoutDetails(workout.getId(), null, null, null, sets, new ArrayList<>());
+        awaitEvents();
+
+        sets.get(7).setReps(8);
+
+        statistics.clear();
+        workoutService.saveWorkoutDetails(workout.getId(), null, null, null, sets, new ArrayList<>());
+        EntityStatistics setStatistics = statistics.getEntityStatistics(ExerciseSet.class.getName());
+
+        String statements = "after editing one rep count, " + statistics.getPrepareStatementCount() + " statements prepared";
+        assertThat(setStatistics.getInsertCount()).as(statements).isZero();
+        assertThat(setStatistics.getDeleteCount()).as(statements).isZero();
+        assertThat(setStatistics.getUpdateCount()).as(statements).isEqualTo(1);
+    }
+
+    // Three exercises with ten numbered sets each
+    private List<ExerciseSetDto> thirtySets(String prefix) {
+        List<ExerciseList> exercises = new ArrayList<>();
+        for (String name : List.of("Bench", "Squat", "Row")) {
+            ExerciseList exercise = new ExerciseList();
+            exercise.setName(prefix + " " + name);
+            exercises.add(exerciseListRepo.save(exercise));
+        }
+
+        List<ExerciseSetDto> sets = new ArrayList<>();
+        for (int i = 0; i < SET_COUNT; i++) {
+            ExerciseSetDto set = new ExerciseSetDto();
+            set.setExerciseListId(exercises.get(i % exercises.size()).getId());
+            set.setSetNumber(i / exercises.size() + 1);
+            set.setWeight(BigDecimal.valueOf(100 + i));
+            set.setReps(5);
+            sets.add(set);
+        }
+        return sets;
+    }
+}
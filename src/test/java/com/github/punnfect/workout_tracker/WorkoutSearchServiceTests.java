@@ -0,0 +1,129 @@
+package com.github.punnfect.workout_tracker;
+
+import com.github.punnfect.workout_tracker.dto.ExerciseSetDto;
+import com.github.punnfect.workout_tracker.dto.WorkoutSummaryDto;
+import com.github.punnfect.workout_tracker.entities.ExerciseList;
+import com.github.punnfect.workout_tracker.entities.User;
+import com.github.punnfect.workout_tracker.entities.Workout;
+import com.github.punnfect.workout_tracker.repository.ExerciseListRepo;
+import com.github.punnfect.workout_tracker.services.WorkoutSearchService;
+import com.github.punnfect.workout_tracker.services.WorkoutService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// /api/workouts/search, answered by the search index alone, which follows saves and deletes through the event pipeline
+class WorkoutSearchServiceTests extends IntegrationTestBase {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 5, 6);
+
+    @Autowired
+    private WorkoutSearchService workoutSearchService;
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    @Autowired
+    private ExerciseListRepo exerciseListRepo;
+
+    private User user;
+
+    @BeforeEach
+    void logInAsOwnUser() {
+        user = createUser("search");
+        logInAs(user);
+    }
+
+    @Test
+    void searchIsServedFromTheIndex() {
+        Workout workout = loggedWorkout(MONDAY, "Push", "Grip gave out early", "Left shoulder twinge on the last rep");
+
+        statistics.clear();
+        assertThat(search("grip")).containsExactly(workout.getId());
+        assertThat(search("\"shoulder twinge\" push")).containsExactly(workout.getId());
+        assertThat(search("twin*")).containsExactly(workout.getId());
+        assertThat(search("\"twinge shoulder\"")).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        workoutService.deleteWorkout(workout.getId());
+        awaitEvents();
+        assertThat(search("grip")).isEmpty();
+    }
+
+    // a stray quote or bracket or a dangling operator is not query syntax, the words are searched as typed
+    @Test
+    void invalidSyntaxIsSearchedLiterally() {
+        Workout workout = loggedWorkout(MONDAY, "Pull", "Grip and forearms gave out early", null);
+
+        assertThat(search("\"grip gave")).containsExactly(workout.getId());
+        assertThat(search("grip (early")).containsExactly(workout.getId());
+        assertThat(search("forearms AND")).containsExactly(workout.getId());
+        assertThat(search("(elbow")).isEmpty();
+    }
+
+    @Test
+    void onlyTheUsersOwnWorkoutsAreFound() {
+        Workout own = loggedWorkout(MONDAY, "Legs", "Knee felt fine", null);
+        User other = createUser("search");
+        logInAs(other);
+        Workout others = loggedWorkout(MONDAY, "Legs", "Knee felt fine", null);
+
+        assertThat(workoutSearchService.search(user.getId(), "knee", null, null, 10))
+                .extracting(WorkoutSummaryDto::getId).containsExactly(own.getId());
+        assertThat(workoutSearchService.search(other.getId(), "knee", null, null, 10))
+                .extracting(WorkoutSummaryDto::getId).containsExactly(others.getId());
+        assertThat(workoutSearchService.search(user.getId(), null, null, null, 10))
+                .extracting(WorkoutSummaryDto::getId).containsExactly(own.getId());
+    }
+
+    // both bounds are inclusive, either may be left open, without text the newest workout comes first
+    @Test
+    void datesLimitTheRange() {
+        Workout monday = loggedWorkout(MONDAY, "Easy run", "Calf tight", null);
+        Workout wednesday = loggedWorkout(MONDAY.plusDays(2), "Tempo", "Calf tight", null);
+        Workout friday = loggedWorkout(MONDAY.plusDays(4), "Intervals", "Calf tight", null);
+
+        assertThat(search(null, MONDAY.plusDays(2), MONDAY.plusDays(2))).containsExactly(wednesday.getId());
+        assertThat(search(null, MONDAY.plusDays(1), null)).containsExactly(friday.getId(), wednesday.getId());
+        assertThat(search(null, null, MONDAY.plusDays(3))).containsExactly(wednesday.getId(), monday.getId());
+        assertThat(search("calf", MONDAY, MONDAY.plusDays(4)))
+                .containsExactlyInAnyOrder(monday.getId(), wednesday.getId(), friday.getId());
+        assertThat(search("calf", MONDAY.plusDays(5), null)).isEmpty();
+    }
+
+    private List<Long> search(String text) {
+        return search(text, null, null);
+    }
+
+    private List<Long> search(String text, LocalDate from, LocalDate to) {
+        return workoutSearchService.search(user.getId(), text, from, to, 10).stream()
+                .map(WorkoutSummaryDto::getId)
+                .toList();
+    }
+
+    // a workout with one set of an exercise of its own, with the given notes
+    private Workout loggedWorkout(LocalDate date, String title, String notes, String setNotes) {
+        ExerciseList exercise = new ExerciseList();
+        exercise.setName("Search " + title + " " + System.nanoTime());
+        exercise = exerciseListRepo.save(exercise);
+
+        ExerciseSetDto set = new ExerciseSetDto();
+        set.setExerciseListId(exercise.getId());
+        set.setSetNumber(1);
+        set.setWeight(BigDecimal.valueOf(60));
+        set.setReps(8);
+        set.setNotes(setNotes);
+
+        Workout workout = workoutService.createNewWorkout(date, title);
+        workoutService.saveWorkoutDetails(workout.getId(), notes, null, null, new ArrayList<>(List.of(set)), new ArrayList<>());
+        awaitEvents();
+        return workout;
+    }
+}
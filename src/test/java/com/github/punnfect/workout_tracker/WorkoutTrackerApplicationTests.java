@@ -2,8 +2,11 @@ package com.github.punnfect.workout_tracker;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
+// on the test profile like every other context, a context on another database would share and close its JCache caches
 @SpringBootTest
+@ActiveProfiles("test")
 class WorkoutTrackerApplicationTests {
 
 	@Test
@@ -0,0 +1,112 @@
+package com.github.punnfect.workout_tracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Routing between two H2 databases standing in for the primary and the replica, each knows which one it is
+class ReadWriteRoutingDataSourceTests {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void startPools() {
+        primary = pool("primary");
+        replica = pool("replica");
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, Duration.ofMinutes(1)));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void closePools() {
+        SecurityContextHolder.clearContext();
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void readOnlyWorkGoesToTheReplica() {
+        logInAs("alice");
+
+        assertThat(databaseIn(readOnly)).isEqualTo("replica");
+        assertThat(databaseIn(readWrite)).isEqualTo("primary");
+        // outside a transaction there is nothing to say the work is read only
+        assertThat(database()).isEqualTo("primary");
+    }
+
+    // after a save only that user's reads stay on the primary, the replica may not have the change yet
+    @Test
+    void readsFollowTheUsersOwnWrites() {
+        logInAs("alice");
+        assertThat(databaseIn(readOnly)).isEqualTo("replica");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE marker SET saves = saves + 1"));
+
+        assertThat(databaseIn(readOnly)).isEqualTo("primary");
+        logInAs("bob");
+        assertThat(databaseIn(readOnly)).isEqualTo("replica");
+    }
+
+    // a commit with no user behind it (startup seeding, a catalog change) keeps everyone on the primary
+    @Test
+    void writesWithoutAUserPinEveryone() {
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE marker SET saves = saves + 1"));
+
+        logInAs("alice");
+        assertThat(databaseIn(readOnly)).isEqualTo("primary");
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenTheReplicaFails() {
+        logInAs("alice");
+        assertThat(databaseIn(readOnly)).isEqualTo("replica");
+
+        replica.close();
+
+        assertThat(databaseIn(readOnly)).isEqualTo("primary");
+        assertThat(databaseIn(readOnly)).isEqualTo("primary");
+    }
+
+    private String databaseIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> database());
+    }
+
+    private String database() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl("jdbc:h2:mem:routing-" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(2);
+        new JdbcTemplate(dataSource).execute("CREATE TABLE marker (name VARCHAR(20), saves INT)");
+        new JdbcTemplate(dataSource).update("INSERT INTO marker VALUES (?, 0)", name);
+        return dataSource;
+    }
+
+    private static void logInAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, Collections.emptyList()));
+    }
+}
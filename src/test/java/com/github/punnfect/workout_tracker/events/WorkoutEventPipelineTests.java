@@ -0,0 +1,169 @@
+package com.github.punnfect.workout_tracker.events;
+
+import com.github.punnfect.workout_tracker.IntegrationTestBase;
+import com.github.punnfect.workout_tracker.dto.ExerciseSetDto;
+import com.github.punnfect.workout_tracker.entities.ExerciseList;
+import com.github.punnfect.workout_tracker.entities.User;
+import com.github.punnfect.workout_tracker.entities.Workout;
+import com.github.punnfect.workout_tracker.entities.WorkoutOutboxEvent;
+import com.github.punnfect.workout_tracker.repository.ExerciseListRepo;
+import com.github.punnfect.workout_tracker.repository.WorkoutOutboxRepo;
+import com.github.punnfect.workout_tracker.services.ProgressService;
+import com.github.punnfect.workout_tracker.services.WorkoutService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A user's events are handled in order: one left in the outbox holds their later events back until it is dealt with
+// runs as a user of its own so the event it leaves stuck never holds back another test's events
+class WorkoutEventPipelineTests extends IntegrationTestBase {
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    @Autowired
+    private ProgressService progressService;
+
+    @Autowired
+    private WorkoutOutboxRepo workoutOutboxRepo;
+
+    @Autowired
+    private ExerciseListRepo exerciseListRepo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.events.lanes:4}")
+    private int laneCount;
+
+    private User user;
+    // events the test leaves stuck in the outbox, removed afterwards
+    private final List<Long> stuckIds = new ArrayList<>();
+
+    @BeforeEach
+    void logInAsOwnUser() {
+        user = createUser("pipeline");
+        logInAs(user);
+    }
+
+    @AfterEach
+    void removeStuckEvents() {
+        workoutOutboxRepo.deleteAllById(stuckIds);
+    }
+
+    @Test
+    void laterEventsWaitBehindAnEventLeftInTheOutbox() {
+        Long stuck = stuckEvent(user, 0);
+
+        Long exerciseListId = loggedWorkout();
+
+        assertThat(pendingIds()).hasSize(2).first().isEqualTo(stuck);
+        assertThat(progressService.getExerciseProgress(exerciseListId, null, null, null).getDataPoints()).isEmpty();
+
+        // once it is given up on the sweep delivers what was held behind it
+        transactionTemplate.executeWithoutResult(status -> {
+            WorkoutOutboxEvent event = workoutOutboxRepo.findById(stuck).orElseThrow();
+            event.setAttempts(WorkoutEventPipeline.MAX_DELIVERIES);
+        });
+        workoutEventPipeline.sweep();
+        awaitEvents();
+
+        assertThat(pendingIds()).containsExactly(stuck);
+        assertThat(progressService.getExerciseProgress(exerciseListId, null, null, null).getDataPoints()).hasSize(1);
+    }
+
+    // The save is still queued when the sweep runs, so the sweep only queues the stuck event, behind it.
+    // The save is held, and handled on the lane as soon as the stuck event is given up rather than at the next sweep
+    @Test
+    void heldEventsFollowAsSoonAsTheEventAheadIsGivenUp() {
+        Long stuck = stuckEvent(user, WorkoutEventPipeline.MAX_DELIVERIES - 1);
+
+        // another user's unreadable event keeps the lane busy with its retries while the save queues up behind it
+        User neighbour = createUser("pipeline-neighbour");
+        while (Math.floorMod(neighbour.getId().hashCode(), laneCount) != Math.floorMod(user.getId().hashCode(), laneCount)) {
+            neighbour = createUser("pipeline-neighbour");
+        }
+        User busy = neighbour;
+        transactionTemplate.executeWithoutResult(status -> {
+            workoutEventPipeline.publish(new WorkoutEvent.WorkoutSaved(busy.getId(), null, null, Set.of(), Set.of()));
+            WorkoutOutboxEvent published = workoutOutboxRepo.findByUserIdAndAttemptsLessThanOrderByIdAsc(
+                    busy.getId(), WorkoutEventPipeline.MAX_DELIVERIES, Limit.of(1)).get(0);
+            published.setEventType("Unreadable");
+            stuckIds.add(published.getId());
+        });
+
+        Long exerciseListId = savedWorkout();
+        workoutEventPipeline.sweep();
+        awaitEvents();
+
+        assertThat(pendingIds()).containsExactly(stuck);
+        assertThat(progressService.getExerciseProgress(exerciseListId, null, null, null).getDataPoints()).hasSize(1);
+    }
+
+    @Test
+    void eventsWithNothingAheadAreHandledAtOnce() {
+        Long exerciseListId = loggedWorkout();
+
+        assertThat(pendingIds()).isEmpty();
+        assertThat(progressService.getExerciseProgress(exerciseListId, null, null, null).getDataPoints()).hasSize(1);
+    }
+
+    // saves one set of a new exercise and waits for the lanes, returns the exercise
+    private Long loggedWorkout() {
+        Long exerciseListId = savedWorkout();
+        awaitEvents();
+        return exerciseListId;
+    }
+
+    // saves one set of a new exercise, returns the exercise
+    private Long savedWorkout() {
+        ExerciseList exercise = new ExerciseList();
+        exercise.setName("Pipeline Curl " + System.nanoTime());
+        Long exerciseListId = exerciseListRepo.save(exercise).getId();
+
+        ExerciseSetDto set = new ExerciseSetDto();
+        set.setExerciseListId(exerciseListId);
+        set.setSetNumber(1);
+        set.setWeight(BigDecimal.valueOf(40));
+        set.setReps(10);
+        Workout workout = workoutService.createNewWorkout(LocalDate.now(), "Pipeline");
+        workoutService.saveWorkoutDetails(workout.getId(), null, null, null, new ArrayList<>(List.of(set)), new ArrayList<>());
+        return exerciseListId;
+    }
+
+    // an event no handler can read, it fails every delivery and stays behind. Not queued on a lane
+    private Long stuckEvent(User owner, int attempts) {
+        Long id = transactionTemplate.execute(status -> {
+            WorkoutOutboxEvent event = new WorkoutOutboxEvent();
+            event.setUserId(owner.getId());
+            event.setEventType("Unreadable");
+            event.setPayload("{}");
+            event.setCreatedAt(LocalDateTime.now());
+            event.setAttempts(attempts);
+            return workoutOutboxRepo.save(event).getId();
+        });
+        stuckIds.add(id);
+        return id;
+    }
+
+    private List<Long> pendingIds() {
+        return workoutOutboxRepo.findAll().stream()
+                .filter(event -> event.getUserId().equals(user.getId()))
+                .map(WorkoutOutboxEvent::getId)
+                .sorted()
+                .toList();
+    }
+}
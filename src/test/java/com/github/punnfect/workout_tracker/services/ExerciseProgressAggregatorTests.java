@@ -0,0 +1,112 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.dto.ExerciseProgressStatsDto;
+import com.github.punnfect.workout_tracker.entities.ExerciseDailyProgress;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Per-day rollup rows and running stats of the single pass aggregator
+class ExerciseProgressAggregatorTests {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+
+    private final List<ExerciseDailyProgress> days = new ArrayList<>();
+    private final ExerciseProgressAggregator aggregator = new ExerciseProgressAggregator(date -> {
+        ExerciseDailyProgress day = new ExerciseDailyProgress();
+        day.setWorkoutDate(date);
+        return day;
+    }, days::add);
+
+    @Test
+    void oneRowPerDayWithItsBestSet() {
+        aggregator.accept(MONDAY, decimal(100), 5);
+        aggregator.accept(MONDAY, decimal(110), 3);
+        aggregator.accept(MONDAY, decimal(110), 4);
+        aggregator.accept(MONDAY.plusDays(3), decimal(90), 8);
+        aggregator.finish();
+
+        assertThat(days).hasSize(2);
+        ExerciseDailyProgress first = days.get(0);
+        assertThat(first.getWorkoutDate()).isEqualTo(MONDAY);
+        assertThat(first.getSetCount()).isEqualTo(3);
+        // heaviest weight wins, a tie on weight goes to more reps
+        assertThat(first.getBestWeight()).isEqualByComparingTo("110");
+        assertThat(first.getBestReps()).isEqualTo(4);
+        assertThat(first.getBestVolume()).isEqualByComparingTo("440");
+        assertThat(first.getMaxReps()).isEqualTo(5);
+        assertThat(first.getMaxRepsWeight()).isEqualByComparingTo("100");
+        assertThat(first.getMaxVolume()).isEqualByComparingTo("500");
+        assertThat(first.getTotalVolume()).isEqualByComparingTo("1270");
+        assertThat(first.getWeekStart()).isEqualTo(MONDAY);
+        assertThat(first.getMonthStart()).isEqualTo(MONDAY.withDayOfMonth(1));
+
+        assertThat(days.get(1).getWorkoutDate()).isEqualTo(MONDAY.plusDays(3));
+        assertThat(days.get(1).getSetCount()).isEqualTo(1);
+        assertThat(days.get(1).getWeekStart()).isEqualTo(MONDAY);
+    }
+
+    @Test
+    void bodyweightSetsCountTowardMaxRepsOnly() {
+        aggregator.accept(MONDAY, decimal(60), 8);
+        aggregator.accept(MONDAY, null, 15);
+        ExerciseProgressStatsDto stats = aggregator.finish();
+
+        ExerciseDailyProgress day = days.get(0);
+        assertThat(day.getSetCount()).isEqualTo(2);
+        assertThat(day.getMaxReps()).isEqualTo(15);
+        assertThat(day.getMaxRepsWeight()).isNull();
+        assertThat(day.getBestWeight()).isEqualByComparingTo("60");
+        assertThat(day.getMaxVolume()).isEqualByComparingTo("480");
+        assertThat(day.getTotalVolume()).isEqualByComparingTo("480");
+
+        assertThat(stats.getMaxReps()).isEqualTo(15);
+        assertThat(stats.getMaxRepsWeight()).isNull();
+        assertThat(stats.getMaxRepsDate()).isEqualTo(MONDAY);
+    }
+
+    @Test
+    void dayOfOnlyBodyweightSetsHasNoBestSet() {
+        aggregator.accept(MONDAY, null, 12);
+        aggregator.accept(MONDAY, null, 10);
+        ExerciseProgressStatsDto stats = aggregator.finish();
+
+        ExerciseDailyProgress day = days.get(0);
+        assertThat(day.getMaxReps()).isEqualTo(12);
+        assertThat(day.getBestWeight()).isNull();
+        assertThat(day.getBestVolume()).isEqualByComparingTo("0");
+        assertThat(day.getMaxVolume()).isNull();
+
+        assertThat(stats.getMaxWeight()).isNull();
+        assertThat(stats.getMaxVolume()).isNull();
+        assertThat(stats.getMaxReps()).isEqualTo(12);
+    }
+
+    @Test
+    void statsKeepTheEarliestDayOfATie() {
+        aggregator.accept(MONDAY, decimal(100), 5);
+        aggregator.accept(MONDAY.plusDays(2), decimal(100), 5);
+        ExerciseProgressStatsDto stats = aggregator.finish();
+
+        assertThat(stats.getMaxWeightDate()).isEqualTo(MONDAY);
+        assertThat(stats.getMaxRepsDate()).isEqualTo(MONDAY);
+        assertThat(stats.getMaxVolumeDate()).isEqualTo(MONDAY);
+    }
+
+    @Test
+    void nothingAcceptedIsNoRowsAndEmptyStats() {
+        ExerciseProgressStatsDto stats = aggregator.finish();
+
+        assertThat(days).isEmpty();
+        assertThat(stats).isEqualTo(new ExerciseProgressStatsDto());
+    }
+
+    private static BigDecimal decimal(int value) {
+        return BigDecimal.valueOf(value);
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.dto.ExerciseProgressStatsDto;
+import com.github.punnfect.workout_tracker.entities.ExerciseDailyProgress;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Folding rollup rows into personal records, the same rules the single pass rebuild applies
+class ExerciseStatsTests {
+
+    private static final LocalDate DAY_ONE = LocalDate.of(2026, 3, 2);
+    private static final LocalDate DAY_TWO = DAY_ONE.plusDays(2);
+    private static final LocalDate DAY_THREE = DAY_ONE.plusDays(5);
+
+    @Test
+    void foldTakesEachRecordFromItsOwnDay() {
+        ExerciseProgressStatsDto stats = ExerciseStats.fold(List.of(
+                day(DAY_ONE, 140, 2, 8, 100, 700, 100, 7),
+                day(DAY_TWO, 120, 5, 12, 80, 960, 80, 12),
+                day(DAY_THREE, null, null, 20, null, null, null, null)));
+
+        assertThat(stats.getMaxWeight()).isEqualByComparingTo("140");
+        assertThat(stats.getMaxWeightReps()).isEqualTo(2);
+        assertThat(stats.getMaxWeightDate()).isEqualTo(DAY_ONE);
+        // a bodyweight day still holds the max reps record
+        assertThat(stats.getMaxReps()).isEqualTo(20);
+        assertThat(stats.getMaxRepsWeight()).isNull();
+        assertThat(stats.getMaxRepsDate()).isEqualTo(DAY_THREE);
+        assertThat(stats.getMaxVolume()).isEqualByComparingTo("960");
+        assertThat(stats.getMaxVolumeWeight()).isEqualByComparingTo("80");
+        assertThat(stats.getMaxVolumeReps()).isEqualTo(12);
+        assertThat(stats.getMaxVolumeDate()).isEqualTo(DAY_TWO);
+    }
+
+    @Test
+    void foldOfNothingIsEmpty() {
+        assertThat(ExerciseStats.fold(List.of())).isEqualTo(new ExerciseProgressStatsDto());
+    }
+
+    @Test
+    void tiesGoToTheEarlierDateWhateverTheOrder() {
+        ExerciseDailyProgress earlier = day(DAY_ONE, 100, 5, 10, 60, 600, 60, 10);
+        ExerciseDailyProgress later = day(DAY_TWO, 100, 5, 10, 60, 600, 60, 10);
+
+        ExerciseProgressStatsDto inOrder = ExerciseStats.fold(List.of(earlier, later));
+        ExerciseProgressStatsDto reversed = ExerciseStats.fold(List.of(later, earlier));
+
+        assertThat(inOrder).isEqualTo(reversed);
+        assertThat(inOrder.getMaxWeightDate()).isEqualTo(DAY_ONE);
+        assertThat(inOrder.getMaxRepsDate()).isEqualTo(DAY_ONE);
+        assertThat(inOrder.getMaxVolumeDate()).isEqualTo(DAY_ONE);
+    }
+
+    @Test
+    void mergeReportsWhetherARecordMoved() {
+        ExerciseProgressStatsDto stats = ExerciseStats.fold(List.of(day(DAY_ONE, 100, 5, 10, 60, 600, 60, 10)));
+
+        assertThat(ExerciseStats.merge(stats, day(DAY_TWO, 90, 5, 8, 60, 480, 60, 8))).isFalse();
+        assertThat(ExerciseStats.merge(stats, day(DAY_TWO, 100, 5, 10, 60, 600, 60, 10))).isFalse();
+        assertThat(stats.getMaxWeightDate()).isEqualTo(DAY_ONE);
+
+        assertThat(ExerciseStats.merge(stats, day(DAY_THREE, 105, 3, 6, 105, 315, 105, 3))).isTrue();
+        assertThat(stats.getMaxWeight()).isEqualByComparingTo("105");
+        assertThat(stats.getMaxWeightDate()).isEqualTo(DAY_THREE);
+        assertThat(stats.getMaxRepsDate()).isEqualTo(DAY_ONE);
+        assertThat(stats.getMaxVolumeDate()).isEqualTo(DAY_ONE);
+    }
+
+    @Test
+    void mergeOfABodyweightDayOnlyTouchesMaxReps() {
+        ExerciseProgressStatsDto stats = ExerciseStats.fold(List.of(day(DAY_ONE, 100, 5, 10, 60, 600, 60, 10)));
+
+        assertThat(ExerciseStats.merge(stats, day(DAY_TWO, null, null, 25, null, null, null, null))).isTrue();
+
+        assertThat(stats.getMaxReps()).isEqualTo(25);
+        assertThat(stats.getMaxRepsWeight()).isNull();
+        assertThat(stats.getMaxRepsDate()).isEqualTo(DAY_TWO);
+        assertThat(stats.getMaxWeightDate()).isEqualTo(DAY_ONE);
+        assertThat(stats.getMaxVolumeDate()).isEqualTo(DAY_ONE);
+    }
+
+    @Test
+    void heldOnMatchesAnyRecordDate() {
+        ExerciseProgressStatsDto stats = ExerciseStats.fold(List.of(
+                day(DAY_ONE, 140, 2, 8, 100, 700, 100, 7),
+                day(DAY_TWO, null, null, 20, null, null, null, null)));
+
+        assertThat(ExerciseStats.heldOn(stats, DAY_ONE)).isTrue();
+        assertThat(ExerciseStats.heldOn(stats, DAY_TWO)).isTrue();
+        assertThat(ExerciseStats.heldOn(stats, DAY_THREE)).isFalse();
+        assertThat(ExerciseStats.heldOn(new ExerciseProgressStatsDto(), DAY_ONE)).isFalse();
+    }
+
+    private static ExerciseDailyProgress day(LocalDate date, Integer bestWeight, Integer bestReps,
+                                             Integer maxReps, Integer maxRepsWeight,
+                                             Integer maxVolume, Integer maxVolumeWeight, Integer maxVolumeReps) {
+        ExerciseDailyProgress day = new ExerciseDailyProgress();
+        day.setWorkoutDate(date);
+        day.setBestWeight(decimal(bestWeight));
+        day.setBestReps(bestReps);
+        day.setMaxReps(maxReps);
+        day.setMaxRepsWeight(decimal(maxRepsWeight));
+        day.setMaxVolume(decimal(maxVolume));
+        day.setMaxVolumeWeight(decimal(maxVolumeWeight));
+        day.setMaxVolumeReps(maxVolumeReps);
+        return day;
+    }
+
+    private static BigDecimal decimal(Integer value) {
+        return value == null ? null : BigDecimal.valueOf(value);
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.punnfect.workout_tracker.services;
+
+import com.github.punnfect.workout_tracker.dto.ExerciseProgressPointDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntToDoubleFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+// LTTB downsampling of progress series, with PR days kept
+class ProgressDownsamplerTests {
+
+    private static final LocalDate START = LocalDate.of(2020, 1, 1);
+
+    @Test
+    void seriesThatFitsIsReturnedUnchanged() {
+        List<ExerciseProgressPointDto> points = series(20, i -> 100);
+
+        assertThat(ProgressDownsampler.downsample(points, 20, Set.of())).isSameAs(points);
+        assertThat(ProgressDownsampler.downsample(points, 50, Set.of(START))).isSameAs(points);
+    }
+
+    @Test
+    void maxPointsBelowTheMinimumIsRejected() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> ProgressDownsampler.downsample(series(10, i -> 100), ProgressDownsampler.MIN_POINTS - 1, Set.of()));
+    }
+
+    @Test
+    void longSeriesIsCutToMaxPointsKeepingBothEnds() {
+        // an early peak followed by a wave that never beats it, so the only record days are the first few
+        List<ExerciseProgressPointDto> points = series(1000, i -> i < 5 ? 150 + i : 100 + 20 * Math.sin(i / 15.0));
+
+        for (int maxPoints : List.of(3, 10, 50, 200)) {
+            List<ExerciseProgressPointDto> sampled = ProgressDownsampler.downsample(points, maxPoints, Set.of());
+
+            assertThat(sampled).as("maxPoints %d", maxPoints).hasSizeLessThanOrEqualTo(maxPoints);
+            assertThat(sampled.get(0)).isSameAs(points.get(0));
+            assertThat(sampled.get(sampled.size() - 1)).isSameAs(points.get(points.size() - 1));
+            assertThat(sampled).extracting(ExerciseProgressPointDto::getDate).isSorted().doesNotHaveDuplicates();
+        }
+    }
+
+    @Test
+    void pinnedDatesAreKeptWithinTheBound() {
+        List<ExerciseProgressPointDto> points = series(500, i -> 100 + 10 * Math.sin(i / 7.0));
+        Set<LocalDate> pinned = Set.of(START.plusDays(3), START.plusDays(77), START.plusDays(78), START.plusDays(250),
+                START.plusDays(251), START.plusDays(252), START.plusDays(400), START.plusDays(498));
+
+        List<ExerciseProgressPointDto> sampled = ProgressDownsampler.downsample(points, 10, pinned);
+
+        assertThat(sampled).extracting(ExerciseProgressPointDto::getDate).containsAll(pinned);
+        assertThat(sampled).hasSizeLessThanOrEqualTo(10 + pinned.size());
+        assertThat(sampled).extracting(ExerciseProgressPointDto::getDate).isSorted();
+    }
+
+    @Test
+    void fewRecordDaysAreKeptOutright() {
+        // three new bests, at most a quarter of maxPoints, so every one of them survives
+        List<ExerciseProgressPointDto> points = series(400, i -> i == 120 ? 130 : i == 300 ? 140 : 100 + (i % 7));
+
+        List<ExerciseProgressPointDto> sampled = ProgressDownsampler.downsample(points, 20, Set.of());
+
+        assertThat(sampled).hasSizeLessThanOrEqualTo(20);
+        assertThat(sampled).extracting(ExerciseProgressPointDto::getDate)
+                .contains(START.plusDays(120), START.plusDays(300));
+    }
+
+    @Test
+    void manyRecordDaysShareTheBuckets() {
+        // every day is a new best, more than a quarter of maxPoints, so they are sampled like any other day
+        List<ExerciseProgressPointDto> points = series(400, i -> 50 + i * 0.5);
+
+        List<ExerciseProgressPointDto> sampled = ProgressDownsampler.downsample(points, 20, Set.of());
+
+        assertThat(sampled).hasSizeLessThanOrEqualTo(20).hasSizeGreaterThan(ProgressDownsampler.MIN_POINTS);
+        assertThat(sampled.get(0)).isSameAs(points.get(0));
+        assertThat(sampled.get(sampled.size() - 1)).isSameAs(points.get(points.size() - 1));
+    }
+
+    @Test
+    void bucketWithARecordPicksTheRecordDay() {
+        // too many records to keep outright (wave peaks creep up), each bucket holding one still shows a record day
+        List<ExerciseProgressPointDto> points = series(300, i -> 100 + i * 0.05 + 10 * Math.sin(i / 3.0));
+        boolean[] records = new boolean[points.size()];
+        double best = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < points.size(); i++) {
+            double weight = points.get(i).getWeight().doubleValue();
+            records[i] = weight > best;
+            best = Math.max(best, weight);
+        }
+
+        int maxPoints = 12;
+        List<ExerciseProgressPointDto> sampled = ProgressDownsampler.downsample(points, maxPoints, Set.of());
+
+        assertThat(sampled).hasSizeLessThanOrEqualTo(maxPoints);
+        // with records not kept outright the interior is split into maxPoints - 2 buckets, each keeps one day
+        int buckets = maxPoints - 2;
+        double bucketSize = (double) (points.size() - 2) / buckets;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = Math.min((int) ((bucket + 1) * bucketSize) + 1, points.size() - 1);
+            boolean bucketHasRecord = false;
+            for (int i = start; i < end; i++) {
+                bucketHasRecord |= records[i];
+            }
+            List<ExerciseProgressPointDto> bucketPoints = points.subList(start, end);
+            List<ExerciseProgressPointDto> kept = sampled.stream().filter(bucketPoints::contains).toList();
+
+            assertThat(kept).as("bucket %d", bucket).hasSize(1);
+            if (bucketHasRecord) {
+                assertThat(records[points.indexOf(kept.get(0))]).as("bucket %d", bucket).isTrue();
+            }
+        }
+    }
+
+    // one point per day from START, volume is the weight times five reps
+    private static List<ExerciseProgressPointDto> series(int size, IntToDoubleFunction weight) {
+        List<ExerciseProgressPointDto> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BigDecimal value = BigDecimal.valueOf(weight.applyAsDouble(i));
+            points.add(new ExerciseProgressPointDto(START.plusDays(i), value, 5, value.multiply(BigDecimal.valueOf(5))));
+        }
+        return points;
+    }
+}